@@ -0,0 +1,48 @@
+package dev.ebullient.convert;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Run JMH benchmarks (src/jmh/java) inside the Quarkus test application:
+ * templates and other beans are only available from the container,
+ * so benchmarks run in this JVM (no forks).
+ * <p>
+ * {@code ./mvnw -Pjmh test}, with optional system properties:
+ * <ul>
+ * <li>{@code jmh.include}: regular expression to select benchmarks (e.g. {@code Slugify})</li>
+ * <li>{@code jmh.warmup}, {@code jmh.iterations}: override warmup / measurement iterations</li>
+ * <li>{@code jmh.result}: result file, default {@code target/jmh-result.json}</li>
+ * </ul>
+ * Compare result files from two builds to find regressions.
+ */
+@QuarkusTest
+public class BenchmarkRunner {
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "dev\\.ebullient\\.convert\\..*Benchmark"))
+                .forks(0)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result",
+                        TestUtils.PROJECT_PATH.resolve("target/jmh-result.json").toString()));
+
+        Integer warmup = Integer.getInteger("jmh.warmup");
+        if (warmup != null) {
+            options.warmupIterations(warmup);
+        }
+        Integer iterations = Integer.getInteger("jmh.iterations");
+        if (iterations != null) {
+            options.measurementIterations(iterations);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
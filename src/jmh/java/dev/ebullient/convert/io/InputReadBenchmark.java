@@ -0,0 +1,79 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.tools.ToolsIndex;
+import io.quarkus.arc.Arc;
+
+/**
+ * Parse every JSON file in {@code sources/5etools-src/data} (no fixes, no parse cache).
+ * <ul>
+ * <li>{@code string}: decode the file into a String, then parse the whole document</li>
+ * <li>{@code bytes}: parse the whole document from bytes ({@link InputReader})</li>
+ * <li>{@code fields}: parse only the fields used by the 5e index ({@link InputFields})</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InputReadBenchmark {
+
+    @Param({ "string", "bytes", "fields" })
+    String reader;
+
+    Tui tui;
+    InputFields fields;
+    List<Path> files;
+
+    @Setup(Level.Trial)
+    public void findFiles() throws IOException {
+        if (!Files.exists(TestUtils.PATH_5E_TOOLS_DATA)) {
+            throw new IllegalStateException("5etools data not found in " + TestUtils.PATH_5E_TOOLS_DATA);
+        }
+        tui = Arc.container().instance(Tui.class).get();
+        tui.init(null, false, false);
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        fields = ToolsIndex.createIndex(Datasource.tools5e, TtrpgConfig.getConfig()).inputFields();
+
+        try (Stream<Path> paths = Files.walk(TestUtils.PATH_5E_TOOLS_DATA)) {
+            files = paths.filter(p -> p.toString().endsWith(".json")).sorted().toList();
+        }
+    }
+
+    @Benchmark
+    public void readData(Blackhole bh) throws IOException {
+        for (Path p : files) {
+            JsonNode node = switch (reader) {
+                case "string" -> Tui.MAPPER.readTree(Files.readString(p));
+                case "bytes" -> tui.parseJson(p, List.of(), null);
+                default -> tui.parseJson(p, List.of(), fields);
+            };
+            bh.consume(node);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.ebullient.convert.io;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link Tui#slugify(String)} on typical names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlugifyBenchmark {
+
+    @Param({ "Fireball", "Tasha's Hideous Laughter", "Adult Red Dragon (Lair)", "Ilsabet Zimroth-Lynn / Avatar" })
+    String name;
+
+    @Benchmark
+    public String slugify() {
+        return Tui.slugify(name);
+    }
+}
@@ -0,0 +1,68 @@
+package dev.ebullient.convert.tools;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.ebullient.convert.tools.dnd5e.TextReplacementTest;
+
+/**
+ * Simple tag replacements on typical fragments: the replaceAll chain
+ * (compiles each pattern for every fragment) vs. the precompiled table.
+ * The tests check that both give the same result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TagReplacementBenchmark {
+
+    static final List<String> FRAGMENTS = List.of(
+            "{@spell fireball}",
+            "{@dc 15}",
+            "{@b Hit:}",
+            "{@recharge 5}",
+            "{@filter spells|spells|level=1}",
+            "{@i Simple text in italics}",
+            "plain text with no tags",
+            "{@creature goblin|MM|goblins}");
+
+    @Param({ "dnd5e", "pf2e" })
+    String game;
+
+    String[][] chain;
+    List<TagReplacement> table;
+
+    @Setup
+    public void setup() {
+        if ("pf2e".equals(game)) {
+            chain = TagReplacementTest.PF2E_REGEX_CHAIN;
+            table = dev.ebullient.convert.tools.pf2e.JsonTextReplacement.simpleTagReplacements;
+        } else {
+            chain = TextReplacementTest.REGEX_CHAIN;
+            table = dev.ebullient.convert.tools.dnd5e.JsonTextReplacement.simpleTagReplacements;
+        }
+    }
+
+    @Benchmark
+    public void replaceAllChain(Blackhole bh) {
+        for (String fragment : FRAGMENTS) {
+            bh.consume(TagReplacementTest.applyChain(chain, fragment));
+        }
+    }
+
+    @Benchmark
+    public void precompiledTable(Blackhole bh) {
+        for (String fragment : FRAGMENTS) {
+            bh.consume(TagReplacement.applyAll(table, fragment));
+        }
+    }
+}
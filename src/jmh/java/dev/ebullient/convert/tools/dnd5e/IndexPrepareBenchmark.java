@@ -0,0 +1,51 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Tools5eIndex#prepare()} for the fixed data set in {@link Tools5eFixture}.
+ * Each invocation prepares a fresh index (import is not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IndexPrepareBenchmark {
+
+    Tools5eFixture fixture;
+    Tools5eIndex index;
+
+    @Setup(Level.Trial)
+    public void readData() throws Exception {
+        fixture = new Tools5eFixture();
+    }
+
+    @Setup(Level.Invocation)
+    public void importData() {
+        index = fixture.newIndex();
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanup() {
+        index.cleanup();
+    }
+
+    @Benchmark
+    public Tools5eIndex prepare() {
+        index.prepare();
+        return index;
+    }
+}
@@ -0,0 +1,88 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.io.MarkdownWriter;
+import dev.ebullient.convert.io.MarkdownWriter.IndexContext;
+import dev.ebullient.convert.tools.dnd5e.qute.Tools5eQuteBase;
+
+/**
+ * {@link MarkdownWriter#writeFiles} for all PHB spells, into a temporary directory.
+ * <ul>
+ * <li>{@code empty}: every file is written</li>
+ * <li>{@code unchanged}: the directory already holds the same content, so every file is compared and skipped</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MarkdownWriterBenchmark {
+
+    @Param({ "empty", "unchanged" })
+    String output;
+
+    Tools5eFixture fixture;
+    Tools5eIndex index;
+    List<Tools5eQuteBase> spells;
+    Path dir;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new Tools5eFixture();
+        index = fixture.preparedIndex();
+        spells = index.includedEntries().stream()
+                .filter(e -> e.getKey().startsWith("spell|") && e.getKey().endsWith("|phb"))
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> fixture.build(index, Tools5eIndexType.spell, e.getValue()))
+                .toList();
+    }
+
+    @Setup(Level.Invocation)
+    public void createDir() throws Exception {
+        dir = Files.createTempDirectory(TestUtils.PROJECT_PATH.resolve("target"), "jmh-writer");
+        if ("unchanged".equals(output)) {
+            writeSpells();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDir() {
+        TestUtils.deleteDir(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() {
+        index.cleanup();
+    }
+
+    @Benchmark
+    public Path writeFiles() {
+        writeSpells();
+        return dir;
+    }
+
+    void writeSpells() {
+        MarkdownWriter writer = new MarkdownWriter(dir, fixture.templates(), fixture.tui());
+        writer.writeFiles(dir, spells, new IndexContext(MarkdownWriter::toTitle, p -> MarkdownWriter.sortEntryByTitle));
+    }
+}
@@ -0,0 +1,54 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import dev.ebullient.convert.io.Templates;
+import dev.ebullient.convert.tools.dnd5e.qute.Tools5eQuteBase;
+
+/**
+ * {@link Templates#render} with the default monster, spell and item templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplatesBenchmark {
+
+    @Param({ "monster", "spell", "item" })
+    String template;
+
+    Tools5eIndex index;
+    Templates templates;
+    Tools5eQuteBase resource;
+
+    @Setup
+    public void setup() throws Exception {
+        Tools5eFixture fixture = new Tools5eFixture();
+        templates = fixture.templates();
+        index = fixture.preparedIndex();
+        resource = switch (template) {
+            case "monster" -> fixture.build(index, Tools5eIndexType.monster, "Adult Red Dragon", "MM");
+            case "spell" -> fixture.build(index, Tools5eIndexType.spell, "Fireball", "PHB");
+            default -> fixture.build(index, Tools5eIndexType.item, "Longsword", "PHB");
+        };
+    }
+
+    @TearDown
+    public void cleanup() {
+        index.cleanup();
+    }
+
+    @Benchmark
+    public String render() {
+        return templates.render(resource);
+    }
+}
@@ -0,0 +1,71 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dev.ebullient.convert.config.ConfiguratorUtil;
+import dev.ebullient.convert.io.Tui;
+import io.quarkus.arc.Arc;
+
+/**
+ * {@link JsonTextReplacement#replaceText(String)} on representative strings.
+ * Links are resolved against an empty index (no data files needed).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextReplacementBenchmark implements JsonSource {
+
+    static final Map<String, String> SAMPLES = Map.of(
+            "plain", "You can't use this feature again until you finish a long rest, and it has no other tags.",
+            "save", "Each creature in the area must succeed on a {@dc 15} Dexterity saving throw "
+                    + "or take {@damage 8d6} fire damage, or half as much damage on a successful one.",
+            "attack", "{@atk mw} {@hit 4} to hit, reach 5 ft., one target. {@h}5 ({@damage 1d6 + 2}) slashing damage.",
+            "links", "You learn the {@spell fireball|PHB} spell and gain proficiency with {@item longsword|PHB|longswords}"
+                    + " (see {@book chapter 5|PHB|5}); {@condition prone} creatures have {@b disadvantage}.",
+            "nested", "{@note You can use {@i this} option only once; see {@filter spells|spells|level=3}.}");
+
+    @Param({ "plain", "save", "attack", "links", "nested" })
+    String sample;
+
+    String text;
+    Tools5eIndex index;
+
+    @Setup
+    public void setup() {
+        Tui tui = Arc.container().instance(Tui.class).get();
+        tui.init(null, false, false);
+        index = new Tools5eIndex(ConfiguratorUtil.createNewConfig(tui)) {
+            @Override
+            public boolean isIncluded(String key) {
+                return true;
+            }
+        };
+        Tools5eLinkifier.instance().reset();
+        text = SAMPLES.get(sample);
+    }
+
+    @Benchmark
+    public String replaceText() {
+        return replaceText(text);
+    }
+
+    @Override
+    public Tools5eIndex index() {
+        return index;
+    }
+
+    @Override
+    public Tools5eSources getSources() {
+        return Tools5eSources.findOrTemporary(Tui.MAPPER.createObjectNode());
+    }
+}
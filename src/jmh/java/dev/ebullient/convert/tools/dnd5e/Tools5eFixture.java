@@ -0,0 +1,104 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.CompendiumConfig;
+import dev.ebullient.convert.config.CompendiumConfig.Configurator;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.Templates;
+import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.tools.dnd5e.qute.Tools5eQuteBase;
+import io.quarkus.arc.Arc;
+
+/**
+ * Fixed 5e data set shared by benchmarks: the PHB, DMG and MM from
+ * {@code sources/5etools-src/data} (the same data used by the tests).
+ * <p>
+ * Files are read once; each index works on its own copy of the parsed trees,
+ * as {@link Tools5eIndex#prepare()} modifies them.
+ */
+public class Tools5eFixture {
+    static final String SOURCES = """
+            { "from": [ "PHB", "DMG", "MM" ] }
+            """;
+
+    final Tui tui;
+    final Templates templates;
+    final CompendiumConfig config;
+    final List<Map.Entry<String, JsonNode>> trees = new ArrayList<>();
+
+    public Tools5eFixture() throws IOException {
+        if (!Files.exists(TestUtils.PATH_5E_TOOLS_DATA)) {
+            throw new IllegalStateException("5etools data not found in " + TestUtils.PATH_5E_TOOLS_DATA);
+        }
+
+        tui = Arc.container().instance(Tui.class).get();
+        tui.init(null, false, false);
+
+        templates = Arc.container().instance(Templates.class).get();
+        tui.setTemplates(templates);
+
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        TtrpgConfig.setToolsPath(TestUtils.PATH_5E_TOOLS_DATA);
+
+        Configurator configurator = new Configurator(tui);
+        configurator.readConfigIfPresent(Tui.MAPPER.readTree(SOURCES));
+        config = TtrpgConfig.getConfig();
+        templates.setCustomTemplates(config);
+
+        tui.readToolsDir(TestUtils.PATH_5E_TOOLS_DATA, (name, node) -> trees.add(Map.entry(name, node)));
+    }
+
+    /** Create a new index with a copy of the data. It has not been prepared. */
+    public Tools5eIndex newIndex() {
+        Tools5eLinkifier.instance().reset();
+        Tools5eIndex index = new Tools5eIndex(config);
+        for (Map.Entry<String, JsonNode> tree : trees) {
+            index.importTree(tree.getKey(), tree.getValue().deepCopy());
+        }
+        index.resolveSources(TestUtils.PATH_5E_TOOLS_DATA);
+        return index;
+    }
+
+    public Tools5eIndex preparedIndex() {
+        Tools5eIndex index = newIndex();
+        index.prepare();
+        return index;
+    }
+
+    /** Convert one entry (e.g. Fireball from the PHB) */
+    public Tools5eQuteBase build(Tools5eIndex index, Tools5eIndexType type, String name, String source) {
+        String key = type.createKey(name, source);
+        JsonNode node = index.getNode(key);
+        if (node == null) {
+            throw new IllegalStateException("Fixture entry not found: " + key);
+        }
+        return build(index, type, node);
+    }
+
+    public Tools5eQuteBase build(Tools5eIndex index, Tools5eIndexType type, JsonNode node) {
+        return switch (type) {
+            case item -> new Json2QuteItem(index, type, node).build();
+            case monster -> new Json2QuteMonster(index, type, node).build();
+            case spell -> new Json2QuteSpell(index, type, node).build();
+            default -> throw new IllegalArgumentException("Unsupported fixture type " + type);
+        };
+    }
+
+    public Tui tui() {
+        return tui;
+    }
+
+    public Templates templates() {
+        return templates;
+    }
+}
@@ -0,0 +1,99 @@
+package dev.ebullient.convert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.DataBundle;
+import dev.ebullient.convert.io.Msg;
+import dev.ebullient.convert.io.Tui;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ExitCode;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "bundle", header = "Compile data files into a single bundle", description = {
+        "%nParse the JSON files in a tools data directory (and other directories or files, e.g. homebrew) into one file.",
+        "Use the bundle as input instead of the data directory: it is read without walking or parsing JSON files.",
+        "Images are not included in the bundle.",
+}, mixinStandardHelpOptions = true, versionProvider = VersionProvider.class, showDefaultValues = true)
+public class Bundle implements Callable<Integer> {
+
+    @ParentCommand
+    RpgDataConvertCli parent;
+
+    Datasource game;
+
+    @Option(names = { "-g",
+            "--game" }, description = "Game data source.%n  Candidates: ${COMPLETION-CANDIDATES}", defaultValue = "5e", completionCandidates = Datasource.DatasourceCandidates.class)
+    void setDatasource(String datasource) {
+        try {
+            game = Datasource.matchDatasource(datasource);
+        } catch (IllegalStateException e) {
+            parent.tui.errorf("Unknown game data: %s", datasource);
+        }
+    }
+
+    @Option(names = "-o", description = "Bundle file (e.g. 5etools" + DataBundle.SUFFIX + ")", required = true)
+    Path output;
+
+    List<Path> input;
+
+    @Parameters(description = "Tools data directory, followed by other directories or files (homebrew, ...)", arity = "1..*")
+    void setInput(List<File> inputFile) {
+        input = new ArrayList<>(inputFile.size());
+        for (File f : inputFile) {
+            input.add(f.toPath().toAbsolutePath().normalize());
+        }
+    }
+
+    @Override
+    public Integer call() {
+        Tui tui = parent.tui;
+        TtrpgConfig.init(tui, game);
+
+        Path toolsDir = findToolsDir(input.get(0));
+        if (toolsDir == null) {
+            tui.errorf("❌ No tools data directory found in %s. Please specify the directory containing the data files.",
+                    input.get(0));
+            return ExitCode.USAGE;
+        }
+        List<Path> extras = input.subList(1, input.size());
+        for (Path p : extras) {
+            if (!Files.exists(p)) {
+                tui.errorf("Input does not exist: %s", p);
+                return ExitCode.USAGE;
+            }
+        }
+
+        Path target = output.toAbsolutePath().normalize();
+        tui.progressf("Bundling %s", toolsDir);
+        try {
+            Files.createDirectories(target.getParent());
+            DataBundle.write(tui, game, toolsDir, extras, target);
+        } catch (IOException e) {
+            tui.errorf(e, "Unable to create bundle %s: %s", target, e.getMessage());
+            return ExitCode.SOFTWARE;
+        }
+        tui.printlnf(Msg.OK, "Wrote %s (%,d bytes)", target, target.toFile().length());
+        return ExitCode.OK;
+    }
+
+    /** The data directory: the given directory, or its data subdirectory (as when converting) */
+    static Path findToolsDir(Path dir) {
+        for (Path candidate : List.of(dir, dir.resolve("data"))) {
+            if (Files.isDirectory(candidate)
+                    && TtrpgConfig.getFileSources().stream().allMatch(f -> Files.exists(candidate.resolve(f)))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -3,6 +3,7 @@ package dev.ebullient.convert;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -13,10 +14,17 @@ import dev.ebullient.convert.config.CompendiumConfig;
 import dev.ebullient.convert.config.CompendiumConfig.Configurator;
 import dev.ebullient.convert.config.Datasource;
 import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.DataBundle;
 import dev.ebullient.convert.io.MarkdownWriter;
+import dev.ebullient.convert.io.MemoCache;
 import dev.ebullient.convert.io.Msg;
+import dev.ebullient.convert.io.ParseCache;
+import dev.ebullient.convert.io.RemoteFetcher;
+import dev.ebullient.convert.io.RunMetrics;
 import dev.ebullient.convert.io.Templates;
 import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.io.WriteManifest;
+import dev.ebullient.convert.tools.MarkdownConverter;
 import dev.ebullient.convert.tools.ToolsIndex;
 import io.quarkus.runtime.QuarkusApplication;
 import io.quarkus.runtime.annotations.QuarkusMain;
@@ -37,6 +45,7 @@ import picocli.CommandLine.UnmatchedArgumentException;
 @QuarkusMain
 @Command(name = "ttrpg-convert", header = "Convert TTRPG JSON data to markdown", subcommands = {
         Completion.class,
+        Bundle.class,
 }, description = {
         "%n%nThis will read from a collection of individual JSON files or a directory containing JSON files and will produce Obsidian markdown documents.",
 }, footer = {
@@ -115,6 +124,39 @@ public class RpgDataConvertCli implements Callable<Integer>, QuarkusApplication
     @Option(names = "--index", description = "Create index of keys that can be used to exclude entries")
     boolean writeIndex;
 
+    @Option(names = { "-j",
+            "--jobs" }, description = "Number of worker threads used to read data files and write notes.%n  Use 0 for one per available processor.", defaultValue = "1")
+    int jobs;
+
+    @Option(names = "--cache", description = "Directory used to cache parsed data files and resolved copies between runs.%n  Unchanged files are read from the cache instead of being parsed again.")
+    Path cacheDir;
+
+    @Option(names = "--cache-verify", description = "With --cache, also compare a hash of the content of each data file with the cached one.%n  Every data file is read; this notices changes that keep the size and modification time.")
+    boolean cacheVerify;
+
+    @Option(names = "--low-memory", description = "Use less memory for large data sets: once the index is prepared,%n  entries that are not converted (excluded entries, fluff) are kept in an encoded form.")
+    boolean lowMemory;
+
+    @Option(names = "--link-images", description = "Hard-link local images into the output directory instead of copying them.%n  Images are copied if the source and output directories are on different file systems.")
+    boolean linkImages;
+
+    @Option(names = "--remote-timeout", description = "Timeout (in seconds) for downloading remote images.", defaultValue = "30")
+    int remoteTimeout;
+
+    @Option(names = "--remote-retries", description = "Number of times a failed download of a remote image is retried.", defaultValue = "2")
+    int remoteRetries;
+
+    @Option(names = "--metrics", description = "Record time, CPU, and memory allocated for each phase of the run,%n  and conversion time for each entry. Written to "
+            + RunMetrics.FILE_NAME + " in the output directory.")
+    boolean metrics;
+
+    @Option(names = "--incremental", description = "Only write notes whose content changed since the previous run.%n  Content hashes are kept in "
+            + WriteManifest.FILE_NAME + " in the output directory.")
+    boolean incremental;
+
+    @Option(names = "--prune", description = "With --incremental, remove notes from a previous run that are no longer generated")
+    boolean prune;
+
     @Option(names = "-o", description = "Output directory", required = true)
     void setOutputPath(File outputDir) {
         output = outputDir.toPath().toAbsolutePath().normalize();
@@ -124,7 +166,7 @@ public class RpgDataConvertCli implements Callable<Integer>, QuarkusApplication
         }
     }
 
-    @Parameters(description = "Source file(s)")
+    @Parameters(description = "Source file(s): data directories, bundles, or files")
     void setInput(List<File> inputFile) {
         input = new ArrayList<>(inputFile.size());
         for (File f : inputFile) {
@@ -146,67 +188,94 @@ public class RpgDataConvertCli implements Callable<Integer>, QuarkusApplication
         boolean allOk = true;
         tui.setTemplates(tpl);
         tui.setOutputPath(output);
+        tui.setParallelism(jobs);
+
+        ParseCache parseCache = cacheDir == null
+                ? null
+                : new ParseCache(tui, cacheDir.toAbsolutePath().normalize()).verifyContent(cacheVerify);
+        tui.setParseCache(parseCache);
+        tui.setLowMemory(lowMemory);
+        tui.setLinkImages(linkImages);
+        tui.setMetrics(new RunMetrics(metrics));
+        tui.setRemoteFetcher(new RemoteFetcher(tui,
+                cacheDir == null ? null : cacheDir.toAbsolutePath().normalize().resolve("remote"),
+                Duration.ofSeconds(remoteTimeout), remoteRetries));
+        if (prune && !incremental) {
+            tui.warnf("--prune is ignored without --incremental");
+        }
 
-        TtrpgConfig.init(tui, game);
-        Configurator configurator = new Configurator(tui);
-
-        if (configPath != null) {
-            if (configPath.toFile().exists()) {
-                // Read configuration
-                allOk = configurator.readConfiguration(configPath);
-                if (writeIndex) {
-                    tui.tryCopyFile(configPath, output.resolve(configPath.getFileName()));
+        CompendiumConfig config;
+        try (var configure = tui.metrics().phase("config")) {
+            TtrpgConfig.init(tui, game);
+            Configurator configurator = new Configurator(tui);
+
+            if (configPath != null) {
+                if (configPath.toFile().exists()) {
+                    // Read configuration
+                    allOk = configurator.readConfiguration(configPath);
+                    if (writeIndex) {
+                        tui.tryCopyFile(configPath, output.resolve(configPath.getFileName()));
+                    }
+                } else {
+                    tui.errorf("Specified config file does not exist: %s", configPath);
+                    allOk = false;
                 }
-            } else {
-                tui.errorf("Specified config file does not exist: %s", configPath);
-                allOk = false;
             }
-        }
 
-        if (!allOk) {
-            return ExitCode.USAGE;
-        }
+            if (!allOk) {
+                return ExitCode.USAGE;
+            }
 
-        CompendiumConfig config = TtrpgConfig.getConfig();
+            config = TtrpgConfig.getConfig();
 
-        tui.printlnf(Msg.OK, "Finished reading config.");
+            tui.printlnf(Msg.OK, "Finished reading config.");
+        }
 
         ToolsIndex index = ToolsIndex.createIndex();
+        tui.setInputFields(index.inputFields());
         Path toolsPath = null;
 
-        // Read provided input files
-        // Note: could test for selected game system and read paths differently
-        // ATM, both 5e and pf2e use the same general structure.
-        // Marker files are in configData
-        for (Path inputPath : input) {
-            tui.progressf("Reading %s", inputPath);
-            Path input = inputPath.toAbsolutePath();
-            if (input.toFile().isDirectory()) {
-                boolean isTools = tui.readToolsDir(input, index::importTree);
-                if (isTools) { // we found the tools directory
+        try (var read = tui.metrics().phase("read")) {
+            // Read provided input files
+            // Note: could test for selected game system and read paths differently
+            // ATM, both 5e and pf2e use the same general structure.
+            // Marker files are in configData
+            for (Path inputPath : input) {
+                tui.progressf("Reading %s", inputPath);
+                Path input = inputPath.toAbsolutePath();
+                if (input.toFile().isDirectory()) {
+                    boolean isTools = tui.readToolsDir(input, index::importTree);
+                    if (isTools) { // we found the tools directory
+                        toolsPath = input;
+                    } else {
+                        // this is some other directory full of json
+                        allOk &= tui.readDirectory("", input, index::importTree);
+                    }
+                } else if (DataBundle.isBundle(input)) {
+                    // data files compiled with the bundle command
+                    allOk &= tui.readBundle(input, index::importTree);
                     toolsPath = input;
                 } else {
-                    // this is some other directory full of json
-                    allOk &= tui.readDirectory("", input, index::importTree);
+                    allOk &= tui.readFile(input, TtrpgConfig.getFixes(inputPath.toString()), index::importTree);
                 }
-            } else {
-                allOk &= tui.readFile(input, TtrpgConfig.getFixes(inputPath.toString()), index::importTree);
             }
-        }
 
-        // We've read all user specified files and user config.
-        if (toolsPath == null) {
-            tui.errorf("❌ No tools directory found. Please specify the directory containing the data files.");
-            return ExitCode.USAGE;
-        }
+            // We've read all user specified files and user config.
+            if (toolsPath == null) {
+                tui.errorf("❌ No tools directory found. Please specify the directory containing the data files.");
+                return ExitCode.USAGE;
+            }
 
-        if (config.configError()) {
-            return ExitCode.USAGE;
+            if (config.configError()) {
+                return ExitCode.USAGE;
+            }
         }
 
         // Include extra books, adventures, and homebrew from config
         if (allOk && toolsPath != null) {
-            allOk = index.resolveSources(toolsPath);
+            try (var resolve = tui.metrics().phase("resolveSources")) {
+                allOk = index.resolveSources(toolsPath);
+            }
         }
 
         if (!allOk) {
@@ -218,9 +287,14 @@ public class RpgDataConvertCli implements Callable<Integer>, QuarkusApplication
             return ExitCode.USAGE;
         }
         tui.printlnf(Msg.OK, "Finished reading data.");
+        if (parseCache != null) {
+            parseCache.printSummary();
+        }
 
         try {
-            index.prepare();
+            try (var prepare = tui.metrics().phase("prepare")) {
+                index.prepare();
+            }
 
             if (writeIndex) {
                 try {
@@ -235,10 +309,26 @@ public class RpgDataConvertCli implements Callable<Integer>, QuarkusApplication
             tui.infof(Msg.WRITING, "Writing files to %s", output);
             tpl.setCustomTemplates(config);
 
-            MarkdownWriter writer = new MarkdownWriter(output, tpl, tui);
-            index.markdownConverter(writer)
-                    .writeAll()
-                    .writeImages();
+            WriteManifest manifest = incremental
+                    ? WriteManifest.read(tui, output)
+                    : null;
+
+            MarkdownWriter writer = new MarkdownWriter(output, tpl, tui)
+                    .incremental(manifest);
+            MarkdownConverter converter = index.markdownConverter(writer);
+            try (var convert = tui.metrics().phase("convert")) {
+                converter.writeAll();
+            }
+            try (var images = tui.metrics().phase("images")) {
+                converter.writeImages();
+            }
+
+            writer.printSummary();
+            MemoCache.printSummary(tui);
+            if (manifest != null) {
+                manifest.finish(prune);
+            }
+            tui.metrics().write(tui, output);
 
             tui.printlnf(Msg.ALLDONE, "All done!");
         } catch (Throwable e) {
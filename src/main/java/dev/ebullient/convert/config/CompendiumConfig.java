@@ -13,7 +13,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -79,8 +83,12 @@ public class CompendiumConfig {
 
     Datasource datasource;
 
+    /**
+     * Parse state is a stack that is pushed and popped while text is converted.
+     * Each thread gets its own, so entries can be converted and rendered concurrently.
+     */
     @JsonIgnore
-    final ParseState parseState = new ParseState();
+    final ThreadLocal<ParseState> parseState = ThreadLocal.withInitial(ParseState::new);
 
     String tagPrefix = "";
     PathAttributes paths;
@@ -96,6 +104,9 @@ public class CompendiumConfig {
     final Set<String> includedGroups = new HashSet<>();
     final Set<String> excludedKeys = new HashSet<>();
     final Set<Pattern> excludedPatterns = new HashSet<>();
+    /** Include/exclude rules (and decisions by key); discarded when the rules change */
+    volatile KeyRules keyRules;
+    final AtomicLong keyDecisionsReused = new AtomicLong();
     final Set<String> homebrew = new HashSet<>();
     final Set<String> adventures = new HashSet<>();
     final Set<String> books = new HashSet<>();
@@ -110,7 +121,23 @@ public class CompendiumConfig {
     }
 
     public ParseState parseState() {
-        return parseState;
+        return parseState.get();
+    }
+
+    /**
+     * Run the task with its own (empty) parse state, and restore
+     * the parse state of the calling thread afterwards.
+     * Entries converted concurrently can not see each other's state,
+     * and nothing left behind by one entry leaks into the next.
+     */
+    public <T> T withParseState(Supplier<T> task) {
+        ParseState previous = parseState.get();
+        parseState.set(new ParseState());
+        try {
+            return task.get();
+        } finally {
+            parseState.set(previous);
+        }
     }
 
     public Tui tui() {
@@ -185,14 +212,45 @@ public class CompendiumConfig {
     }
 
     public Optional<Boolean> keyIsIncluded(String key) {
-        if (includedKeys.contains(key)) {
-            return Optional.of(true);
+        KeyRules rules = keyRules();
+        if (rules.none()) {
+            return Optional.empty();
+        }
+        Optional<Boolean> decision = rules.decisions.get(key);
+        if (decision != null) {
+            keyDecisionsReused.incrementAndGet();
+            return decision;
+        }
+        decision = rules.test(key);
+        rules.decisions.put(key, decision);
+        return decision;
+    }
+
+    /** Report (verbose) how many include/exclude rule evaluations were answered from cache */
+    public void logKeyRuleStats() {
+        KeyRules rules = keyRules;
+        if (rules != null && !rules.decisions.isEmpty()) {
+            tui.verbosef("Include/exclude rules: %d keys evaluated, %d repeated checks reused a cached decision",
+                    rules.decisions.size(), keyDecisionsReused.get());
         }
-        if (excludedKeys.contains(key) ||
-                excludedPatterns.stream().anyMatch(x -> x.matcher(key).matches())) {
-            return Optional.of(false);
+    }
+
+    private KeyRules keyRules() {
+        KeyRules rules = keyRules;
+        if (rules == null) {
+            synchronized (this) {
+                rules = keyRules;
+                if (rules == null) {
+                    rules = keyRules = new KeyRules(this);
+                }
+            }
         }
-        return Optional.empty();
+        return rules;
+    }
+
+    /** Include/exclude rules have changed: rules (and decisions) are rebuilt when next used */
+    private void keyRulesChanged() {
+        keyRules = null;
     }
 
     public boolean groupIsIncluded(String group) {
@@ -257,6 +315,12 @@ public class CompendiumConfig {
                 .toList();
     }
 
+    /** Selected sources and homebrew, as text (identifies data that depends on them, e.g. in a cache) */
+    public String sourceSelection() {
+        return "allSources=%s; sources=%s; homebrew=%s".formatted(
+                allSources, new TreeSet<>(allowedSources), new TreeSet<>(homebrew));
+    }
+
     public Collection<String> resolveHomebrew() {
         homebrew.removeIf(x -> !isPresent(x));
         return Collections.unmodifiableCollection(homebrew);
@@ -321,6 +385,19 @@ public class CompendiumConfig {
             }
         }
         excludedPatterns.add(Pattern.compile(String.join("|", split)));
+        keyRulesChanged();
+    }
+
+    /** Package private: add included key */
+    void includeKey(String key) {
+        includedKeys.add(key);
+        keyRulesChanged();
+    }
+
+    /** Package private: add excluded key */
+    void excludeKey(String key) {
+        excludedKeys.add(key);
+        keyRulesChanged();
     }
 
     private PathAttributes pathAttributes() {
@@ -413,9 +490,9 @@ public class CompendiumConfig {
                 config.useDiceRoller = DiceRoller.fromAttributes(input.useDiceRoller, input.yamlStatblocks);
             }
 
-            input.include.forEach(s -> config.includedKeys.add(s.toLowerCase()));
+            input.include.forEach(s -> config.includeKey(s.toLowerCase()));
             input.includeGroup.forEach(s -> config.includedGroups.add(s.toLowerCase()));
-            input.exclude.forEach(s -> config.excludedKeys.add(s.toLowerCase()));
+            input.exclude.forEach(s -> config.excludeKey(s.toLowerCase()));
             input.excludePattern.forEach(s -> config.addExcludePattern(s.toLowerCase()));
 
             config.allowSources(input.references()); // sources + from
@@ -470,6 +547,68 @@ public class CompendiumConfig {
                 .anyMatch((k) -> k.get(node) != null);
     }
 
+    /** @return top-level field names (and aliases) that mark a document as user configuration */
+    public static Set<String> configurationFields() {
+        return Stream.of(UserConfig.ConfigKeys.values())
+                .flatMap(k -> Stream.concat(Stream.of(k.name()), k.aliases.stream()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Include/exclude rules as of the last change: exclude patterns are combined
+     * into one alternation, so each key is matched once rather than once per pattern.
+     * Decisions are kept by key until the rules change (and this is replaced).
+     */
+    static class KeyRules {
+        /** Group references would be renumbered in a combined pattern */
+        static final Pattern backReference = Pattern.compile("\\\\(?:[1-9]|k<)");
+        /** A group name can only be defined once in a combined pattern */
+        static final Pattern namedGroup = Pattern.compile("\\(\\?<(?![=!])");
+
+        final Set<String> included;
+        final Set<String> excluded;
+        final Collection<Pattern> patterns;
+        final Pattern combined;
+        final Map<String, Optional<Boolean>> decisions = new ConcurrentHashMap<>();
+
+        KeyRules(CompendiumConfig config) {
+            this.included = Set.copyOf(config.includedKeys);
+            this.excluded = Set.copyOf(config.excludedKeys);
+            this.patterns = List.copyOf(config.excludedPatterns);
+            this.combined = patterns.isEmpty() || patterns.stream().anyMatch(KeyRules::matchSeparately)
+                    ? null
+                    : Pattern.compile(patterns.stream()
+                            .map(p -> "(?:" + p.pattern() + ")")
+                            .collect(Collectors.joining("|")));
+        }
+
+        static boolean matchSeparately(Pattern p) {
+            return backReference.matcher(p.pattern()).find()
+                    || namedGroup.matcher(p.pattern()).find();
+        }
+
+        boolean none() {
+            return included.isEmpty() && excluded.isEmpty() && patterns.isEmpty();
+        }
+
+        Optional<Boolean> test(String key) {
+            if (included.contains(key)) {
+                return Optional.of(true);
+            }
+            if (excluded.contains(key) || excludedByPattern(key)) {
+                return Optional.of(false);
+            }
+            return Optional.empty();
+        }
+
+        private boolean excludedByPattern(String key) {
+            if (combined != null) {
+                return combined.matcher(key).matches();
+            }
+            return patterns.stream().anyMatch(x -> x.matcher(key).matches());
+        }
+    }
+
     private static class PathAttributes {
         String rulesVaultRoot = "rules/";
         String compendiumVaultRoot = "compendium/";
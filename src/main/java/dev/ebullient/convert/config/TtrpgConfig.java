@@ -1,6 +1,5 @@
 package dev.ebullient.convert.config;
 
-import java.io.File;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
@@ -12,8 +11,11 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.NullNode;
@@ -24,13 +26,14 @@ import dev.ebullient.convert.io.Msg;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.IndexType;
 import dev.ebullient.convert.tools.JsonNodeReader;
+import dev.ebullient.convert.tools.OrderedTasks;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 public class TtrpgConfig {
 
     public static final String DEFAULT_IMG_ROOT = "imgRoot";
 
-    static final Set<String> missingSourceName = new HashSet<>();
+    static final Set<String> missingSourceName = ConcurrentHashMap.newKeySet();
 
     private static Datasource datasource;
     private static CompendiumConfig activeConfig = null;
@@ -90,6 +93,11 @@ public class TtrpgConfig {
         return activeDSConfig().findFixesFor(filepath.replace('\\', '/'));
     }
 
+    /** @return all configured fixes, by the file path suffix they apply to */
+    public static Map<String, List<Fix>> getAllFixes() {
+        return Collections.unmodifiableMap(activeDSConfig().fixes);
+    }
+
     public static String sourceToLongName(String src) {
         String abbreviation = sourceToAbbreviation(src).toLowerCase();
         SourceReference ref = activeDSConfig().reference.get(abbreviation);
@@ -230,9 +238,9 @@ public class TtrpgConfig {
         if (root.isEmpty()) {
             return NullNode.getInstance();
         }
-        File indexFile = root.get().resolve(file).toFile();
+        Path indexFile = root.get().resolve(file);
         try {
-            return Tui.MAPPER.readTree(indexFile);
+            return tui.readJsonFile(indexFile);
         } catch (Exception e) {
             tui.errorf("Failed to read index file %s: %s", indexFile, e.getMessage());
             return NullNode.getInstance();
@@ -255,6 +263,7 @@ public class TtrpgConfig {
                 return;
             }
             if (missingSourceName.add(check)) {
+                OrderedTasks.onRedo(() -> missingSourceName.remove(check));
                 tui.warnf(Msg.SOURCE, "Source %s is unknown", s);
             }
         });
@@ -318,6 +327,8 @@ public class TtrpgConfig {
 
         Map<String, List<Fix>> fixes = ConfigKeys.fixes.getAs(source, FIXES);
         if (fixes != null) {
+            // compile patterns once, as the configuration is read
+            fixes.values().forEach(list -> list.forEach(Fix::pattern));
             datasourceConfig.fixes.putAll(fixes);
         }
     }
@@ -390,6 +401,23 @@ public class TtrpgConfig {
         public String _comment;
         public String match;
         public String replace;
+
+        @JsonIgnore
+        private volatile Pattern pattern;
+
+        /** @return the compiled match pattern (compiled once) */
+        public Pattern pattern() {
+            Pattern p = pattern;
+            if (p == null) {
+                p = pattern = Pattern.compile(match);
+            }
+            return p;
+        }
+
+        /** Apply this fix to (raw) file contents */
+        public String apply(String contents) {
+            return pattern().matcher(contents).replaceAll(replace);
+        }
     }
 
     enum ConfigKeys implements JsonNodeReader {
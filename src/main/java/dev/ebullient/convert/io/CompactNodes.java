@@ -0,0 +1,112 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Parsed entries kept in a binary (Smile) form, for low-memory mode.
+ * <p>
+ * Most entries are only read occasionally (excluded entries that are looked up to resolve links,
+ * fluff read while converting the entry it belongs to). Those are encoded once and decoded
+ * again when they are read; the most recently read entries are kept decoded.
+ * <p>
+ * Fluff is encoded as it is imported (so it is never held decoded all at once), and encoded
+ * again when its copy has been resolved. Other entries are encoded after the index is prepared.
+ * Changes made to a decoded entry are not kept unless it is encoded again ({@link #put}).
+ */
+public class CompactNodes {
+    static final int HOT_ENTRIES = 512;
+
+    final Tui tui;
+    final ObjectMapper mapper;
+    final Map<String, byte[]> encoded = new ConcurrentHashMap<>();
+    final Map<String, JsonNode> hot = new LinkedHashMap<>(HOT_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonNode> eldest) {
+            return size() > HOT_ENTRIES;
+        }
+    };
+
+    final AtomicLong encodedBytes = new AtomicLong();
+    final AtomicLong decodes = new AtomicLong();
+
+    public CompactNodes(Tui tui) {
+        this(tui, new SmileMapper());
+    }
+
+    CompactNodes(Tui tui, ObjectMapper mapper) {
+        this.tui = tui;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Encode the entry (replacing an entry with the same key).
+     *
+     * @return true if the entry was encoded (and the decoded node can be released)
+     */
+    public boolean put(String key, JsonNode node) {
+        try {
+            byte[] bytes = mapper.writeValueAsBytes(node);
+            byte[] previous = encoded.put(key, bytes);
+            encodedBytes.addAndGet(bytes.length - (previous == null ? 0 : previous.length));
+            synchronized (hot) {
+                hot.remove(key);
+            }
+            return true;
+        } catch (IOException e) {
+            tui.debugf("Unable to encode %s; keeping it in memory: %s", key, e);
+            return false;
+        }
+    }
+
+    public boolean contains(String key) {
+        return encoded.containsKey(key);
+    }
+
+    /** @return the decoded entry, or null if there is no entry for this key */
+    public JsonNode get(String key) {
+        synchronized (hot) {
+            JsonNode node = hot.get(key);
+            if (node != null) {
+                return node;
+            }
+        }
+        byte[] bytes = encoded.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            JsonNode node = mapper.readTree(bytes);
+            decodes.incrementAndGet();
+            synchronized (hot) {
+                JsonNode previous = hot.putIfAbsent(key, node);
+                return previous == null ? node : previous;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to decode " + key, e);
+        }
+    }
+
+    public int size() {
+        return encoded.size();
+    }
+
+    public void clear() {
+        encoded.clear();
+        synchronized (hot) {
+            hot.clear();
+        }
+    }
+
+    public void printSummary() {
+        tui.verbosef("Low memory: %d entries kept encoded (%,d bytes), decoded %d times",
+                encoded.size(), encodedBytes.get(), decodes.get());
+    }
+}
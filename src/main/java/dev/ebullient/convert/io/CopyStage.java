@@ -0,0 +1,122 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copy (or link) files into the vault, counting files and bytes.
+ * Methods can be called from several threads.
+ * <p>
+ * When linking is enabled, local files are hard-linked into the vault instead of copied.
+ * Hard links require the source and the vault to be on the same file system:
+ * if a link can't be created, files are copied instead.
+ */
+class CopyStage {
+    final Tui tui;
+    final String what;
+    final AtomicBoolean link;
+
+    final Counter copied = new Counter();
+    final Counter linked = new Counter();
+    final Counter skipped = new Counter();
+
+    CopyStage(Tui tui, String what, boolean link) {
+        this.tui = tui;
+        this.what = what;
+        this.link = new AtomicBoolean(link);
+    }
+
+    /** @return true if the target already exists (and is counted as skipped) */
+    boolean exists(Path target) {
+        if (!Files.exists(target)) {
+            return false;
+        }
+        skipped.add(sizeOf(target));
+        return true;
+    }
+
+    /** Link (if enabled) or copy a local file */
+    void copy(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (link.get()) {
+            try {
+                Files.createLink(target, source);
+                linked.add(sizeOf(target));
+                return;
+            } catch (IOException | UnsupportedOperationException e) {
+                if (link.getAndSet(false)) {
+                    tui.warnf("Unable to link %s into the vault (%s); copying them instead.", what, e);
+                }
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        copied.add(sizeOf(target));
+    }
+
+    /** Copy a stream (resource, remote file) */
+    void copy(InputStream in, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        copied.add(Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING));
+    }
+
+    /** Count a file that was written elsewhere (e.g. downloaded) */
+    void copied(long size) {
+        copied.add(size);
+    }
+
+    /** Write generated content */
+    void write(Path target, String content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, content);
+        copied.add(sizeOf(target));
+    }
+
+    void printSummary() {
+        if (copied.files() + linked.files() + skipped.files() == 0) {
+            return;
+        }
+        tui.printlnf(Msg.OK, "Copied %d %s (%s), linked %d (%s), skipped %d existing (%s).",
+                copied.files(), what, copied.size(),
+                linked.files(), linked.size(),
+                skipped.files(), skipped.size());
+    }
+
+    static long sizeOf(Path target) {
+        try {
+            return Files.size(target);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    static class Counter {
+        final AtomicLong files = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        void add(long size) {
+            files.incrementAndGet();
+            bytes.addAndGet(size);
+        }
+
+        long files() {
+            return files.get();
+        }
+
+        String size() {
+            long b = bytes.get();
+            if (b < 1024) {
+                return b + " B";
+            } else if (b < 1024 * 1024) {
+                return "%.1f KiB".formatted(b / 1024.0);
+            } else if (b < 1024 * 1024 * 1024) {
+                return "%.1f MiB".formatted(b / (1024.0 * 1024));
+            }
+            return "%.1f GiB".formatted(b / (1024.0 * 1024 * 1024));
+        }
+    }
+}
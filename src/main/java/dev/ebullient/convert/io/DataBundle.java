@@ -0,0 +1,324 @@
+package dev.ebullient.convert.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileMapper;
+
+import dev.ebullient.convert.VersionProvider;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.config.TtrpgConfig.Fix;
+
+/**
+ * Data files compiled into a single file (see the {@code bundle} command).
+ * <p>
+ * A bundle holds the parsed tree of every JSON file in a tools data directory
+ * (fixes applied), followed by other inputs (homebrew, unearthed arcana).
+ * It can be used as input instead of the data directory: files are decoded as they are read,
+ * and paths inside the bundle (e.g. {@code <bundle>/book/book-phb.json}) are read from it.
+ * Images are not included.
+ * <p>
+ * Layout: a header, the trees (Smile, one after another), a table of contents (Smile),
+ * and the offset of the table of contents (8 bytes). The table of contents lists the game,
+ * the tool version, a hash of the fixes applied, and the offset and length of each tree.
+ * Bundling the same data again gives the same file. The file is memory-mapped.
+ */
+public class DataBundle {
+    public static final String SUFFIX = ".bundle";
+    static final byte[] MAGIC = "TTRPGBDL".getBytes(StandardCharsets.US_ASCII);
+    static final int FORMAT = 1;
+    static final String EXTRA = "extra/";
+
+    static final ObjectMapper SMILE = new SmileMapper();
+
+    final Path path;
+    final MappedByteBuffer buffer;
+    final ObjectNode toc;
+    final Map<String, long[]> entries = new LinkedHashMap<>();
+
+    private DataBundle(Path path, MappedByteBuffer buffer, ObjectNode toc) {
+        this.path = path;
+        this.buffer = buffer;
+        this.toc = toc;
+        for (Map.Entry<String, JsonNode> e : toc.path("entries").properties()) {
+            entries.put(e.getKey(), new long[] { e.getValue().get(0).asLong(), e.getValue().get(1).asLong() });
+        }
+    }
+
+    /** @return true if the file is a bundle (starts with the bundle header) */
+    public static boolean isBundle(Path p) {
+        if (!Files.isRegularFile(p)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(p)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static DataBundle open(Path bundle) throws IOException {
+        Path p = bundle.toAbsolutePath().normalize();
+        try (FileChannel channel = FileChannel.open(p, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Bundle is too large: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(0, magic);
+            if (size < MAGIC.length + 4 + Long.BYTES || !Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a data bundle: " + p);
+            }
+            int format = buffer.getInt(MAGIC.length);
+            if (format != FORMAT) {
+                throw new IOException("Unsupported bundle format " + format + " (expected " + FORMAT + ")");
+            }
+            long tocOffset = buffer.getLong((int) size - Long.BYTES);
+            JsonNode toc = readTree(buffer, tocOffset, size - Long.BYTES - tocOffset);
+            if (!(toc instanceof ObjectNode o)) {
+                throw new IOException("Damaged bundle (no table of contents): " + p);
+            }
+            return new DataBundle(p, buffer, o);
+        }
+    }
+
+    /** Bundle data files: the tools data directory, then other directories or files */
+    public static void write(Tui tui, Datasource game, Path toolsDir, List<Path> extras, Path target)
+            throws IOException {
+        Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), "bundle", ".tmp");
+        try {
+            try (Writer writer = new Writer(tmp, game)) {
+                for (Path p : jsonFiles(toolsDir)) {
+                    writer.add(tui, relativeName(toolsDir, p), p, relativeName(toolsDir, p));
+                }
+                for (int i = 0; i < extras.size(); i++) {
+                    Path extra = extras.get(i).toAbsolutePath().normalize();
+                    String name = EXTRA + i + "/" + extra.getFileName();
+                    if (Files.isDirectory(extra)) {
+                        for (Path p : jsonFiles(extra)) {
+                            String relative = relativeName(extra, p);
+                            writer.add(tui, name + "/" + relative, p, relative);
+                        }
+                    } else {
+                        writer.add(tui, name, extra, extras.get(i).toString());
+                    }
+                    writer.inputs.add(name);
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            ParseCache.deleteQuietly(tmp);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /** @return hash (SHA-256) of the bundle contents */
+    public String hash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.duplicate().clear());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return game data in the bundle (a {@link Datasource} name) */
+    public String game() {
+        return toc.path("game").asText();
+    }
+
+    /** @return version of the tool that created the bundle */
+    public String version() {
+        return toc.path("version").asText();
+    }
+
+    /** @return hash of the fixes applied when the bundle was created (see {@link #fixesHash()}) */
+    public String fixes() {
+        return toc.path("fixes").asText();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return names of other inputs (homebrew, ...), in the order they were bundled */
+    public List<String> extras() {
+        List<String> result = new ArrayList<>();
+        toc.path("inputs").forEach(x -> result.add(x.asText()));
+        return result;
+    }
+
+    /** @return true if the entry exists (name relative to the bundle, e.g. {@code book/book-phb.json}) */
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /** @return true if the path is in the bundle (e.g. {@code <bundle>/book/book-phb.json}) */
+    public boolean contains(Path p) {
+        return p.startsWith(path) && !p.equals(path) && contains(nameOf(p));
+    }
+
+    /**
+     * Data files for an input: the named file, or the data files in the named directory
+     * (same selection as a data directory on disk).
+     *
+     * @return paths (in the bundle) of the matching files
+     */
+    public List<Path> dataFiles(String name) {
+        List<Path> result = new ArrayList<>();
+        if (contains(name)) {
+            result.add(path.resolve(name));
+            return result;
+        }
+        String prefix = name.endsWith("/") ? name : name + "/";
+        for (String entry : entries.keySet()) {
+            if (!entry.startsWith(prefix)) {
+                continue;
+            }
+            int slash = entry.lastIndexOf('/');
+            int parent = entry.lastIndexOf('/', slash - 1);
+            String dirName = entry.substring(parent + 1, slash);
+            if (Tui.isDataFile(dirName, entry.substring(slash + 1))) {
+                result.add(path.resolve(entry));
+            }
+        }
+        return result;
+    }
+
+    /** Read the tree for a path in the bundle, keeping only the given top-level fields (if any) */
+    JsonNode read(Path p, InputFields fields) throws IOException {
+        String name = nameOf(p);
+        long[] entry = entries.get(name);
+        if (entry == null) {
+            throw new IOException("Not found in bundle " + path + ": " + name);
+        }
+        if (fields != null) {
+            try (JsonParser parser = parser(buffer, entry[0], entry[1])) {
+                JsonNode node = fields.read(parser);
+                if (node != null) {
+                    return node;
+                }
+            }
+        }
+        return readTree(buffer, entry[0], entry[1]);
+    }
+
+    String nameOf(Path p) {
+        return path.relativize(p).toString().replace('\\', '/');
+    }
+
+    /** Decode from a copy of the given region (the mapped buffer has no backing array) */
+    static JsonParser parser(ByteBuffer buffer, long offset, long length) throws IOException {
+        byte[] slice = new byte[(int) length];
+        buffer.get((int) offset, slice);
+        return SMILE.createParser(slice, 0, slice.length);
+    }
+
+    static JsonNode readTree(ByteBuffer buffer, long offset, long length) throws IOException {
+        try (JsonParser parser = parser(buffer, offset, length)) {
+            return SMILE.readTree(parser);
+        }
+    }
+
+    /** @return hash (SHA-256) of the configured fixes, to compare with the fixes applied to a bundle */
+    public static String fixesHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, List<Fix>> e : new TreeMap<>(TtrpgConfig.getAllFixes()).entrySet()) {
+                digest.update((e.getKey() + '\0').getBytes(StandardCharsets.UTF_8));
+                for (Fix fix : e.getValue()) {
+                    digest.update((fix.match + '\0' + fix.replace + '\0').getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static List<Path> jsonFiles(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(p -> p.toString().endsWith(".json") && Files.isRegularFile(p))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String relativeName(Path dir, Path p) {
+        return dir.relativize(p).toString().replace('\\', '/');
+    }
+
+    static class Writer implements Closeable {
+        final OutputStream out;
+        final ObjectNode toc = Tui.MAPPER.createObjectNode();
+        final ObjectNode entries;
+        final ArrayNode inputs;
+        long position;
+
+        Writer(Path target, Datasource game) throws IOException {
+            out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16);
+            toc.put("game", game.name())
+                    .put("version", String.join(" ", new VersionProvider().getVersion()))
+                    .put("fixes", fixesHash());
+            entries = toc.putObject("entries");
+            inputs = toc.putArray("inputs");
+
+            write(MAGIC);
+            write(ByteBuffer.allocate(4).putInt(FORMAT).array());
+        }
+
+        /** Parse a file (applying fixes for the given name), and add its tree */
+        void add(Tui tui, String name, Path p, String fixesFor) throws IOException {
+            JsonNode tree = tui.parseJson(p, TtrpgConfig.getFixes(fixesFor), null);
+            byte[] bytes = SMILE.writeValueAsBytes(tree);
+            entries.putArray(name).add(position).add(bytes.length);
+            write(bytes);
+        }
+
+        void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (out) {
+                long tocOffset = position;
+                write(SMILE.writeValueAsBytes(toc));
+                write(ByteBuffer.allocate(Long.BYTES).putLong(tocOffset).array());
+            }
+        }
+    }
+}
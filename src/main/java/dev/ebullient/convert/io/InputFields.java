@@ -0,0 +1,68 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Top-level fields of input data files that an index reads.
+ * <p>
+ * Data files are read field by field: listed fields are parsed into the tree,
+ * other fields are skipped without being materialized.
+ * Some fields (e.g. homebrew metadata) mean the whole document is used:
+ * if one of those is present, the file is parsed in full.
+ */
+public class InputFields {
+    final Set<String> fields;
+    final Set<String> wholeDocument;
+
+    /**
+     * @param fields top-level fields to read
+     * @param wholeDocument top-level fields that require the whole document
+     */
+    public InputFields(Collection<String> fields, Collection<String> wholeDocument) {
+        this.fields = new TreeSet<>(fields);
+        this.wholeDocument = new TreeSet<>(wholeDocument);
+    }
+
+    /**
+     * Read the listed fields of a JSON object.
+     *
+     * @return an object with the listed fields, or null if the whole document should be read
+     *         (it contains a whole-document field, or it is not an object)
+     */
+    ObjectNode read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        ObjectNode node = Tui.MAPPER.createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if (wholeDocument.contains(name)) {
+                return null;
+            }
+            parser.nextToken();
+            if (fields.contains(name)) {
+                JsonNode value = Tui.MAPPER.readTree(parser);
+                if (value != null) {
+                    node.set(name, value);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return node;
+    }
+
+    /** @return a stable description of the filter (part of the parse cache fingerprint) */
+    @Override
+    public String toString() {
+        return String.join(",", fields) + ";" + String.join(",", wholeDocument);
+    }
+}
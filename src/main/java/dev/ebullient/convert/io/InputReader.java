@@ -0,0 +1,84 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * Feed input files to the JSON parser as bytes (UTF-8), without decoding them into a String.
+ * <p>
+ * Files are read into a buffer that is reused by each reading thread: the parser reads
+ * from that buffer directly. Files larger than {@link #MAX_BUFFER} are read into an
+ * array of their own, so a reading thread holds at most that much between files.
+ */
+class InputReader {
+    static final int MIN_BUFFER = 64 * 1024;
+    static final int MAX_BUFFER = 1024 * 1024;
+    static final ThreadLocal<byte[]> buffer = new ThreadLocal<>();
+
+    @FunctionalInterface
+    interface ParserTask<T> {
+        T apply(JsonParser parser) throws IOException;
+    }
+
+    private InputReader() {
+    }
+
+    /**
+     * Parse the file with the given task. The parser is only valid while the task runs:
+     * it may read from a buffer that is reused for the next file.
+     */
+    static <T> T parse(Path p, ParserTask<T> task) throws IOException {
+        return parse(p, null, task);
+    }
+
+    /** @param content digest to update with the bytes of the file (or null) */
+    static <T> T parse(Path p, MessageDigest content, ParserTask<T> task) throws IOException {
+        byte[] bytes;
+        int length;
+        try (FileChannel channel = FileChannel.open(p, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_BUFFER) {
+                bytes = Files.readAllBytes(p);
+                length = bytes.length;
+            } else {
+                bytes = buffer((int) size);
+                ByteBuffer target = ByteBuffer.wrap(bytes, 0, (int) size);
+                while (target.hasRemaining() && channel.read(target) >= 0) {
+                    // read until the buffer is full (or the end of the file)
+                }
+                length = target.position();
+            }
+        }
+        if (content != null) {
+            content.update(bytes, 0, length);
+        }
+        try (JsonParser parser = Tui.MAPPER.createParser(bytes, 0, length)) {
+            return task.apply(parser);
+        }
+    }
+
+    /** Read the whole document (an empty file is a missing node, as with {@code readTree(File)}) */
+    static JsonNode readTree(JsonParser parser) throws IOException {
+        JsonNode node = Tui.MAPPER.readTree(parser);
+        return node == null ? MissingNode.getInstance() : node;
+    }
+
+    /** The buffer for this thread, grown (up to {@link #MAX_BUFFER}) to hold the given size */
+    static byte[] buffer(int size) {
+        byte[] bytes = buffer.get();
+        if (bytes == null || bytes.length < size) {
+            bytes = new byte[Math.max(size, MIN_BUFFER)];
+            buffer.set(bytes);
+        }
+        return bytes;
+    }
+}
@@ -3,12 +3,17 @@ package dev.ebullient.convert.io;
 import static dev.ebullient.convert.StringUtil.toTitleCase;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -19,6 +24,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -44,6 +52,13 @@ public class MarkdownWriter {
     final Tui tui;
     final Templates templates;
     final Path output;
+    WriteManifest manifest;
+
+    final AtomicInteger written = new AtomicInteger();
+    final AtomicInteger unchanged = new AtomicInteger();
+
+    /** Render buffer, reused for each note written by a thread */
+    final ThreadLocal<RenderedContent> rendered = ThreadLocal.withInitial(RenderedContent::new);
 
     public MarkdownWriter(Path output, Templates templates, Tui tui) {
         this.tui = tui;
@@ -51,6 +66,16 @@ public class MarkdownWriter {
         this.templates = templates;
     }
 
+    /**
+     * Only write files whose content has changed since the run that produced the manifest.
+     *
+     * @see WriteManifest
+     */
+    public MarkdownWriter incremental(WriteManifest manifest) {
+        this.manifest = manifest;
+        return this;
+    }
+
     public <T extends QuteBase> void writeFiles(Path basePath, List<T> elements, IndexContext ctx) {
         if (elements.isEmpty()) {
             return;
@@ -82,7 +107,8 @@ public class MarkdownWriter {
             }
         }
 
-        for (Map.Entry<FileMap, List<T>> pathEntry : pathMap.entrySet()) {
+        List<Map.Entry<FileMap, List<T>>> pathEntries = new ArrayList<>(pathMap.entrySet());
+        for (Map.Entry<FileMap, List<T>> pathEntry : pathEntries) {
             if (pathEntry.getValue().size() > 1) {
                 tui.warnf("Conflict: several entries would write to the same file: (%s)\n  %s",
                         pathEntry.getKey().fileName,
@@ -91,7 +117,20 @@ public class MarkdownWriter {
                                 x.sources().getKey()))
                                 .collect(Collectors.joining("\n  ")));
             }
-            fileMappings.add(doWrite(pathEntry.getKey(), pathEntry.getValue().get(0), counts));
+        }
+
+        // Render and write files (concurrently, if configured); unchanged files are not counted
+        Set<FileMap> wrote = ConcurrentHashMap.newKeySet();
+        inParallel(pathEntries, pathEntry -> {
+            if (doWrite(pathEntry.getKey(), pathEntry.getValue().get(0))) {
+                wrote.add(pathEntry.getKey());
+            }
+        });
+
+        for (Map.Entry<FileMap, List<T>> pathEntry : pathEntries) {
+            fileMappings.add(pathEntry.getKey());
+            int n = wrote.contains(pathEntry.getKey()) ? 1 : 0;
+            counts.compute(pathEntry.getValue().get(0).indexType().name(), (k, v) -> (v == null) ? n : v + n);
         }
 
         // Accumulate index entries and track distinct dirs for parent rollup
@@ -117,22 +156,96 @@ public class MarkdownWriter {
         counts.forEach((k, v) -> tui.printlnf(Msg.OK, "Wrote %s %s files.", v, k));
     }
 
-    <T extends QuteBase> FileMap doWrite(FileMap fileMap, T qs, Map<String, Integer> counts) {
+    <T extends QuteBase> boolean doWrite(FileMap fileMap, T qs) {
         try {
-            writeFile(fileMap, templates.render(qs));
-            counts.compute(qs.indexType().name(), (k, v) -> (v == null) ? 1 : v + 1);
+            RenderedContent content = templates.renderTo(qs, rendered.get());
+            return write(targetDir(fileMap).resolve(fileMap.fileName), content.bytes(), content.length());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
-        return fileMap;
+    }
+
+    /**
+     * Apply the task to each item using the worker count configured with `--jobs`.
+     * Rendered content does not depend on the order in which tasks complete.
+     * The first failure (in list order) is rethrown once all tasks have been submitted.
+     */
+    <T> void inParallel(List<T> items, Consumer<T> task) {
+        tui.inParallel("ttrpg-write", items, task);
     }
 
     void writeFile(FileMap fileMap, String content) throws IOException {
+        Path target = targetDir(fileMap).resolve(fileMap.fileName);
+        write(target, content);
+    }
+
+    Path targetDir(FileMap fileMap) {
         Path targetDir = Paths.get(output.toString(), fileMap.dir.toString());
         targetDir.toFile().mkdirs();
+        return targetDir;
+    }
 
-        Path target = targetDir.resolve(fileMap.fileName);
-        Files.write(target, content.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Write the file unless it already has this content.
+     * Leaving unchanged files alone keeps their modification time, so file watchers
+     * and sync clients don't see a change.
+     */
+    boolean write(Path target, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return write(target, bytes, bytes.length);
+    }
+
+    /**
+     * Write the first length bytes of content unless the file already has them
+     *
+     * @return true if the file was written
+     */
+    boolean write(Path target, byte[] content, int length) throws IOException {
+        long start = tui.metrics().start();
+        if ((manifest != null && manifest.unchanged(target, content, length)) || sameContent(target, content, length)) {
+            unchanged.incrementAndGet();
+            tui.metrics().count("unchanged", start, length);
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        written.incrementAndGet();
+        tui.metrics().count("write", start, length);
+        return true;
+    }
+
+    static boolean sameContent(Path target, byte[] content) throws IOException {
+        return sameContent(target, content, content.length);
+    }
+
+    /** Compare the file with the first length bytes of content: size first, then bytes (streamed) */
+    static boolean sameContent(Path target, byte[] content, int length) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) != length) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(target)) {
+            byte[] buffer = new byte[8192];
+            int offset = 0;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (offset + n > length
+                        || !Arrays.equals(buffer, 0, n, content, offset, offset + n)) {
+                    return false;
+                }
+                offset += n;
+            }
+            return offset == length;
+        }
+    }
+
+    public void printSummary() {
+        tui.printlnf(Msg.OK, "Wrote %d files, skipped %d unchanged files.",
+                written.get(), unchanged.get());
     }
 
     public void writeNotes(Path dir, Collection<QuteNote> notes, boolean compendium, IndexContext ctx) {
@@ -140,6 +253,7 @@ public class MarkdownWriter {
             return;
         }
         Path targetDir = output.resolve(dir);
+        List<PendingNote> pending = new ArrayList<>(notes.size());
 
         for (QuteNote n : notes) {
             String fn = n.targetFile();
@@ -153,7 +267,7 @@ public class MarkdownWriter {
                 relative += "/";
             }
             n.vaultPath(relative + fileName);
-            writeNote(fd, fileName, n);
+            pending.add(new PendingNote(fd, fileName, n));
 
             // Accumulate index entries using vault-relative paths
             Path relFd = dir.resolve(n.targetPath()).normalize();
@@ -186,8 +300,16 @@ public class MarkdownWriter {
             // Notes at base (relFd == dir) are not indexed
         }
 
+        // Render and write notes (concurrently, if configured); unchanged notes are not counted
+        AtomicInteger wrote = new AtomicInteger();
+        inParallel(pending, p -> {
+            if (writeNote(p.targetDir(), p.fileName(), p.note())) {
+                wrote.incrementAndGet();
+            }
+        });
+
         tui.printlnf(Msg.OK, "Wrote %s notes to %s.",
-                notes.size(),
+                wrote.get(),
                 compendium ? "compendium" : "rules");
     }
 
@@ -214,16 +336,19 @@ public class MarkdownWriter {
         return toTitleCase(dirName.replace("-", " "), false);
     }
 
-    private void writeNote(Path targetDir, String fileName, QuteNote n) {
+    private boolean writeNote(Path targetDir, String fileName, QuteNote n) {
         Path target = targetDir.resolve(fileName);
-        String content = templates.render(n);
+        RenderedContent content = templates.renderTo(n, rendered.get());
         try {
-            Files.write(target, content.getBytes(StandardCharsets.UTF_8));
+            return write(target, content.bytes(), content.length());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    record PendingNote(Path targetDir, String fileName, QuteNote note) {
+    }
+
     public static class IndexContext {
         // vault-relative path → sorted IndexEntries for that dir's folder note
         final Map<Path, SortedSet<IndexEntry>> accumulator = new HashMap<>();
@@ -0,0 +1,74 @@
+package dev.ebullient.convert.io;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe memo of computed values (e.g. slugs, link strings).
+ * <p>
+ * Values are computed outside of any lock, so a computation may use the cache itself.
+ * Two threads may compute the same value; the result is the same either way.
+ * When the cache is full, it is cleared: the values that are in use are computed again.
+ */
+public class MemoCache<K, V> {
+    static final List<MemoCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    final String name;
+    final int maxSize;
+    final Map<K, V> values = new ConcurrentHashMap<>();
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+
+    public MemoCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        caches.add(this);
+    }
+
+    /** @return the cached value for this key, or the computed value (null values are not cached) */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        V value = values.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = compute.apply(key);
+        if (value != null) {
+            if (values.size() >= maxSize) {
+                values.clear();
+            }
+            values.put(key, value);
+        }
+        return value;
+    }
+
+    /** Remove cached values (counters are kept) */
+    public void clear() {
+        values.clear();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Show hit/miss counts for caches that have been used (verbose) */
+    public static void printSummary(Tui tui) {
+        for (MemoCache<?, ?> cache : caches) {
+            long hits = cache.hits();
+            long misses = cache.misses();
+            if (hits + misses > 0) {
+                tui.verbosef(Msg.OK, "%s cache: %,d hits, %,d misses (%.1f%% hits)",
+                        cache.name, hits, misses, 100.0 * hits / (hits + misses));
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileMapper;
+
+import dev.ebullient.convert.VersionProvider;
+import dev.ebullient.convert.config.TtrpgConfig.Fix;
+
+/**
+ * Parsed input files, stored in a binary (Smile) format between runs.
+ * <p>
+ * Each input file has one cache entry, named after a hash of its path. The entry starts
+ * with a fingerprint of the input: path, size, modification time, the fixes applied
+ * before parsing, the fields that were read, and the tool version. If the fingerprint
+ * doesn't match, the file is parsed again and the entry is replaced.
+ * <p>
+ * The entry also holds a hash of the file content, computed while the file was parsed.
+ * It is not part of the fingerprint: checking it means reading every input file.
+ * With {@link #verifyContent(boolean)}, the content of each file is hashed and compared
+ * as well, which catches changes that keep the size and modification time.
+ * <p>
+ * Data derived from the complete set of inputs can also be cached: it is valid as long as
+ * every input file read in this run matches what was read when it was written, and the
+ * configuration it depends on is the same. Files read from a bundle are not cached
+ * (they are stored parsed); the hash of the bundle is one of the inputs.
+ */
+public class ParseCache {
+    static final String SUFFIX = ".sml";
+
+    final Tui tui;
+    final Path dir;
+    final ObjectMapper mapper;
+    final String version;
+
+    boolean verify;
+
+    final AtomicInteger hits = new AtomicInteger();
+    final AtomicInteger misses = new AtomicInteger();
+
+    // Fingerprints of all input files read in this run (sorted by path)
+    final Map<String, String> inputs = new ConcurrentSkipListMap<>();
+
+    public ParseCache(Tui tui, Path dir) {
+        this(tui, dir, new SmileMapper(), String.join(" ", new VersionProvider().getVersion()));
+    }
+
+    ParseCache(Tui tui, Path dir, ObjectMapper mapper, String version) {
+        this.tui = tui;
+        this.dir = dir;
+        this.mapper = mapper;
+        this.version = version;
+    }
+
+    /** Also compare a hash of the file content before using a cache entry */
+    public ParseCache verifyContent(boolean verify) {
+        this.verify = verify;
+        return this;
+    }
+
+    @FunctionalInterface
+    public interface Parser {
+        /**
+         * @param content digest to update with the bytes of the file, as they are read
+         */
+        JsonNode parse(MessageDigest content) throws IOException;
+    }
+
+    /**
+     * Return the cached tree for this input file, or parse it (and cache the result).
+     */
+    public JsonNode read(Path input, List<Fix> fixes, Parser parser) throws IOException {
+        return read(input, fixes, null, parser);
+    }
+
+    /**
+     * Return the cached tree for this input file (read with the given fields), or parse it
+     * (and cache the result).
+     */
+    public JsonNode read(Path input, List<Fix> fixes, InputFields fields, Parser parser) throws IOException {
+        Path entry = dir.resolve(hash(input.toAbsolutePath().normalize().toString()) + SUFFIX);
+        ObjectNode fingerprint = fingerprint(input, fixes);
+        if (fields != null) {
+            fingerprint.put("fields", fields.toString());
+        }
+        String path = fingerprint.get("path").asText();
+
+        String[] content = new String[1];
+        JsonNode cached = readEntry(entry, fingerprint, verify ? input : null, content);
+        if (cached != null) {
+            hits.incrementAndGet();
+            inputs.put(path, fingerprint + content[0]);
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        MessageDigest digest = digest();
+        JsonNode node = parser.parse(digest);
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        inputs.put(path, fingerprint + contentHash);
+        writeEntry(entry, fingerprint, contentHash, node);
+        return node;
+    }
+
+    /**
+     * Record a bundle read in this run: data derived from inputs depends on its contents.
+     */
+    public void addBundle(DataBundle bundle) {
+        ObjectNode fingerprint = Tui.MAPPER.createObjectNode()
+                .put("path", bundle.path().toString())
+                .put("hash", bundle.hash())
+                .put("version", version);
+        inputs.put(bundle.path().toString(), fingerprint.toString());
+    }
+
+    /**
+     * Read data derived from all input files read so far (e.g. resolved copies).
+     *
+     * @param name name of the cache entry
+     * @param config configuration the data depends on (e.g. selected sources)
+     * @return the cached data, or null if there is none, or if any input or the configuration
+     *         has changed since it was written
+     */
+    public JsonNode readDerived(String name, String config) {
+        JsonNode cached = readEntry(dir.resolve(name + SUFFIX), derivedFingerprint(name, config), null, new String[1]);
+        tui.debugf(Msg.PROGRESS, "Cached %s: %s", name, cached == null ? "not found or out of date" : "found");
+        return cached;
+    }
+
+    /**
+     * Store data derived from all input files read so far.
+     *
+     * @param name name of the cache entry
+     * @param config configuration the data depends on
+     * @see #readDerived(String, String)
+     */
+    public void writeDerived(String name, String config, JsonNode node) {
+        writeEntry(dir.resolve(name + SUFFIX), derivedFingerprint(name, config), "", node);
+    }
+
+    ObjectNode derivedFingerprint(String name, String config) {
+        StringBuilder all = new StringBuilder();
+        inputs.values().forEach(v -> all.append(v).append('\n'));
+        return Tui.MAPPER.createObjectNode()
+                .put("path", name)
+                .put("inputs", hash(all.toString()))
+                .put("config", hash(config))
+                .put("version", version);
+    }
+
+    public void printSummary() {
+        tui.verbosef(Msg.OK, "Parse cache (%s): %d files read from cache, %d parsed.",
+                dir, hits.get(), misses.get());
+    }
+
+    ObjectNode fingerprint(Path input, List<Fix> fixes) throws IOException {
+        ObjectNode fingerprint = Tui.MAPPER.createObjectNode()
+                .put("path", input.toAbsolutePath().normalize().toString())
+                .put("size", String.valueOf(Files.size(input)))
+                .put("modified", Files.getLastModifiedTime(input).toString())
+                .put("version", version);
+        var fixList = fingerprint.putArray("fixes");
+        for (Fix fix : fixes) {
+            fixList.addObject()
+                    .put("match", fix.match)
+                    .put("replace", fix.replace);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Read the entry if its fingerprint matches; the tree is only decoded for a match.
+     *
+     * @param verify input file to compare with the stored content hash (or null)
+     * @param content holds the stored content hash once the entry is read
+     */
+    JsonNode readEntry(Path entry, ObjectNode fingerprint, Path verify, String[] content) {
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(entry);
+                JsonParser parser = mapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT
+                    || !"fingerprint".equals(parser.nextFieldName())) {
+                return null;
+            }
+            parser.nextToken();
+            JsonNode stored = mapper.readTree(parser);
+            if (!fingerprint.equals(stored) || !"content".equals(parser.nextFieldName())) {
+                tui.debugf(Msg.PROGRESS, "Cached data for %s is out of date", fingerprint.get("path").asText());
+                return null;
+            }
+            content[0] = parser.nextTextValue();
+            if (verify != null && !hash(verify).equals(content[0])) {
+                tui.debugf(Msg.PROGRESS, "Cached data for %s is out of date (content changed)",
+                        fingerprint.get("path").asText());
+                return null;
+            }
+            if (!"tree".equals(parser.nextFieldName())) {
+                return null;
+            }
+            parser.nextToken();
+            return mapper.readTree(parser);
+        } catch (IOException | RuntimeException e) {
+            tui.debugf(Msg.PROGRESS, "Unable to read cached data for %s: %s", fingerprint.get("path").asText(), e);
+            return null;
+        }
+    }
+
+    void writeEntry(Path entry, ObjectNode fingerprint, String content, JsonNode node) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            // Write to a temporary file, then move it into place:
+            // an interrupted run must not leave a partial entry behind
+            tmp = Files.createTempFile(dir, "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp);
+                    JsonGenerator gen = mapper.createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeFieldName("fingerprint");
+                mapper.writeTree(gen, fingerprint);
+                gen.writeStringField("content", content);
+                gen.writeFieldName("tree");
+                mapper.writeTree(gen, node);
+                gen.writeEndObject();
+            }
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tui.warnf("Unable to cache parsed data for %s: %s", fingerprint.get("path").asText(), e);
+            deleteQuietly(tmp);
+        }
+    }
+
+    static void deleteQuietly(Path tmp) {
+        if (tmp != null) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static String hash(String value) {
+        return HexFormat.of().formatHex(digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** Hash of the content of a file on disk */
+    static String hash(Path file) throws IOException {
+        MessageDigest digest = digest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
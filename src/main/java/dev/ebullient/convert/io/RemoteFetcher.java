@@ -0,0 +1,208 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Download remote files (images copied into the vault).
+ * <p>
+ * Requests time out, and are retried (with a growing delay) when the connection fails,
+ * or the server responds with 429 or 5xx.
+ * <p>
+ * With a cache directory, downloaded files are kept between runs, named after a hash of
+ * their URL. A cached file is revalidated with the ETag / Last-Modified values the server
+ * sent with it: if the server responds with 304 (Not Modified), the cached file is used.
+ * If the server can't be reached, a cached file is used as is.
+ * <p>
+ * Fetches can run concurrently (one per copy worker, see {@code --jobs}).
+ */
+public class RemoteFetcher {
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    static final int DEFAULT_RETRIES = 2;
+    static final long RETRY_DELAY_MS = 250;
+
+    final Tui tui;
+    final Path cacheDir;
+    final Duration timeout;
+    final int retries;
+    final HttpClient client;
+
+    final AtomicInteger downloaded = new AtomicInteger();
+    final AtomicInteger revalidated = new AtomicInteger();
+    final AtomicInteger stale = new AtomicInteger();
+
+    /**
+     * @param cacheDir directory for downloaded files, or null to always download
+     * @param timeout connect and request timeout
+     * @param retries number of times a failed request is retried
+     */
+    public RemoteFetcher(Tui tui, Path cacheDir, Duration timeout, int retries) {
+        this.tui = tui;
+        this.cacheDir = cacheDir;
+        this.timeout = timeout;
+        this.retries = Math.max(0, retries);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    RemoteFetcher(Tui tui) {
+        this(tui, null, DEFAULT_TIMEOUT, DEFAULT_RETRIES);
+    }
+
+    /**
+     * Fetch the URL into the target file.
+     *
+     * @return number of bytes written to the target
+     */
+    public long fetch(String url, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        if (!url.startsWith("http")) {
+            // e.g. file: URLs
+            try (InputStream in = URI.create(url).toURL().openStream()) {
+                return Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (cacheDir == null) {
+            try {
+                send(url, null, toFile(target));
+            } catch (IOException e) {
+                ParseCache.deleteQuietly(target); // don't leave an error page behind
+                throw e;
+            }
+            downloaded.incrementAndGet();
+            return Files.size(target);
+        }
+
+        String key = ParseCache.hash(url);
+        Path cached = cacheDir.resolve(key);
+        Path metadata = cacheDir.resolve(key + ".json");
+        JsonNode validators = Files.isRegularFile(cached) ? readMetadata(metadata) : null;
+
+        Path tmp = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            HttpResponse<Path> response = send(url, validators, toFile(tmp));
+            if (response.statusCode() == 304) {
+                revalidated.incrementAndGet();
+            } else {
+                Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writeMetadata(metadata, url, response);
+                downloaded.incrementAndGet();
+            }
+        } catch (IOException e) {
+            if (validators == null) {
+                throw e;
+            }
+            tui.warnf("Unable to fetch %s (%s); using the cached copy.", url, e.getMessage());
+            stale.incrementAndGet();
+        } finally {
+            ParseCache.deleteQuietly(tmp);
+        }
+        Files.copy(cached, target, StandardCopyOption.REPLACE_EXISTING);
+        return Files.size(target);
+    }
+
+    /** Send a GET request (conditional, if there are validators), retrying failures */
+    <T> HttpResponse<T> send(String url, JsonNode validators, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url.replace(" ", "%20")))
+                .timeout(timeout)
+                .GET();
+        if (validators != null) {
+            String etag = validators.path("etag").asText(null);
+            String lastModified = validators.path("lastModified").asText(null);
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                builder.header("If-Modified-Since", lastModified);
+            }
+        }
+        HttpRequest request = builder.build();
+
+        IOException failure = null;
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            if (attempt > 0) {
+                pause(attempt);
+                tui.debugf("Retrying %s (%d of %d)", url, attempt, retries);
+            }
+            try {
+                HttpResponse<T> response = client.send(request, handler);
+                int status = response.statusCode();
+                if ((status >= 200 && status < 300) || (status == 304 && validators != null)) {
+                    return response;
+                }
+                failure = new IOException("HTTP " + status);
+                if (status != 429 && status < 500) {
+                    break; // not worth retrying
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching " + url, e);
+            }
+        }
+        throw failure;
+    }
+
+    /** Each attempt replaces what a previous (failed) attempt wrote */
+    static HttpResponse.BodyHandler<Path> toFile(Path file) {
+        return HttpResponse.BodyHandlers.ofFile(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void pause(int attempt) throws IOException {
+        try {
+            Thread.sleep(RETRY_DELAY_MS << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    JsonNode readMetadata(Path metadata) {
+        try {
+            return Files.isRegularFile(metadata)
+                    ? Tui.MAPPER.readTree(metadata.toFile())
+                    : Tui.MAPPER.createObjectNode();
+        } catch (IOException e) {
+            tui.debugf("Unable to read %s: %s", metadata, e);
+            return Tui.MAPPER.createObjectNode();
+        }
+    }
+
+    void writeMetadata(Path metadata, String url, HttpResponse<?> response) {
+        var node = Tui.MAPPER.createObjectNode().put("url", url);
+        response.headers().firstValue("ETag").ifPresent(v -> node.put("etag", v));
+        response.headers().firstValue("Last-Modified").ifPresent(v -> node.put("lastModified", v));
+        try {
+            Files.writeString(metadata, node.toString());
+        } catch (IOException e) {
+            tui.debugf("Unable to write %s: %s", metadata, e);
+        }
+    }
+
+    public void printSummary() {
+        int total = downloaded.get() + revalidated.get() + stale.get();
+        if (total > 0) {
+            tui.verbosef(Msg.OK, "Remote files: %d downloaded, %d unchanged (cached), %d cached (server unavailable).",
+                    downloaded.get(), revalidated.get(), stale.get());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package dev.ebullient.convert.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Rendered template output, encoded as UTF-8 as it is produced.
+ * <p>
+ * Template output is consumed in chunks. Template comments ({@code %%-- ... --%%} at the end
+ * of a line) are removed line by line, and leading and trailing whitespace is dropped,
+ * so the bytes are the same as those of the rendered String with comments removed and trimmed.
+ * <p>
+ * One instance is reused (per thread) for each note that is written, so rendering a note
+ * does not allocate copies of the whole note.
+ */
+public class RenderedContent implements Consumer<String> {
+    static final int INITIAL_SIZE = 16 * 1024;
+    /** Larger buffers (very large notes) are released after use */
+    static final int MAX_RETAINED = 1024 * 1024;
+
+    private static final String COMMENT_START = "%%-- ";
+    private static final String COMMENT_END = " --%%\n";
+
+    private final StringBuilder line = new StringBuilder();
+    private byte[] bytes = new byte[INITIAL_SIZE];
+    private int length;
+    /** length without trailing whitespace */
+    private int trimmedLength;
+
+    /** Discard content (start a new note) */
+    public RenderedContent reset() {
+        line.setLength(0);
+        length = 0;
+        trimmedLength = 0;
+        if (bytes.length > MAX_RETAINED) {
+            bytes = new byte[INITIAL_SIZE];
+        }
+        return this;
+    }
+
+    /** Append a chunk of rendered output */
+    @Override
+    public void accept(String chunk) {
+        int start = 0;
+        int eol;
+        while ((eol = chunk.indexOf('\n', start)) >= 0) {
+            line.append(chunk, start, eol + 1);
+            endLine();
+            start = eol + 1;
+        }
+        line.append(chunk, start, chunk.length());
+    }
+
+    /** Called once all output has been consumed */
+    public RenderedContent finish() {
+        // A template comment ends with a newline: the last line is not a comment
+        append(line, 0, line.length());
+        line.setLength(0);
+        length = trimmedLength;
+        return this;
+    }
+
+    /** Replace the content (e.g. with an error message), as is */
+    public RenderedContent replaceWith(String content) {
+        reset();
+        byte[] b = content.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(b.length);
+        System.arraycopy(b, 0, bytes, 0, b.length);
+        length = trimmedLength = b.length;
+        return this;
+    }
+
+    /** @return the buffer holding the content; only the first {@link #length()} bytes are valid */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /** Remove a trailing template comment from the line (which ends with a newline) */
+    private void endLine() {
+        int n = line.length();
+        int end = n - COMMENT_END.length();
+        int commentStart = -1;
+        if (end >= COMMENT_START.length() && endsWithCommentEnd(end)) {
+            // the comment text can't span line terminators
+            int from = 0;
+            for (int i = end - 1; i >= 0; i--) {
+                if (isLineTerminator(line.charAt(i))) {
+                    from = i + 1;
+                    break;
+                }
+            }
+            int i = line.indexOf(COMMENT_START, from);
+            if (i >= 0 && i + COMMENT_START.length() <= end) {
+                commentStart = i;
+            }
+        }
+        append(line, 0, commentStart < 0 ? n : commentStart);
+        line.setLength(0);
+    }
+
+    private boolean endsWithCommentEnd(int end) {
+        for (int i = 0; i < COMMENT_END.length(); i++) {
+            if (line.charAt(end + i) != COMMENT_END.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isLineTerminator(char c) {
+        return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Encode characters as UTF-8 (unpaired surrogates become '?', as with String.getBytes).
+     * Leading whitespace is skipped; trailing whitespace is written, but not counted
+     * in the trimmed length until it is followed by something else.
+     */
+    private void append(CharSequence s, int start, int end) {
+        ensureCapacity(length + (end - start) * 3);
+        byte[] b = bytes;
+        int pos = length;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c <= ' ') {
+                if (trimmedLength > 0) {
+                    b[pos++] = (byte) c;
+                }
+                continue;
+            }
+            if (c < 0x80) {
+                b[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                b[pos++] = (byte) (0xc0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                b[pos++] = (byte) (0xf0 | (cp >> 18));
+                b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                b[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                b[pos++] = '?';
+            } else {
+                b[pos++] = (byte) (0xe0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                b[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+            trimmedLength = pos;
+        }
+        length = pos;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing and throughput of a run ({@code --metrics}).
+ * <p>
+ * Phases (reading, preparing, converting, ...) record wall time, CPU time, and allocated bytes.
+ * CPU time is for the whole process (all threads, including GC and JIT). Allocation is summed
+ * over all threads, including worker threads that have finished; it is approximate.
+ * <p>
+ * Work done on several threads (conversion of each entry, template rendering, file writes)
+ * is accumulated in counters: the time is the sum of the time spent by each thread.
+ * <p>
+ * When metrics are disabled, methods do nothing.
+ */
+public class RunMetrics {
+    public static final String FILE_NAME = "ttrpg-convert-metrics.json";
+    static final int VERSION = 1;
+    static final int SLOWEST = 25;
+
+    static final AtomicLong retiredAllocation = new AtomicLong();
+
+    final boolean enabled;
+    final Instant started = Instant.now();
+    final List<Map<String, Object>> phases = new ArrayList<>();
+    final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    final Map<String, Counter> entryTypes = new ConcurrentHashMap<>();
+    final PriorityQueue<Entry> slowest = new PriorityQueue<>(Comparator.comparingLong(Entry::nanos));
+
+    public RunMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** A phase of the run: close it when the phase is complete */
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /** Start a phase. Use with try-with-resources */
+    public Phase phase(String name) {
+        if (!enabled) {
+            return () -> {
+            };
+        }
+        long wall = System.nanoTime();
+        long cpu = processCpuTime();
+        long allocated = allocatedBytes();
+        Map<String, Object> phase = new LinkedHashMap<>();
+        phase.put("name", name);
+        synchronized (phases) {
+            phases.add(phase);
+        }
+        return () -> {
+            phase.put("wallMs", millis(System.nanoTime() - wall));
+            long cpuEnd = processCpuTime();
+            if (cpu >= 0 && cpuEnd >= 0) {
+                phase.put("cpuMs", millis(cpuEnd - cpu));
+            }
+            long allocatedEnd = allocatedBytes();
+            if (allocated >= 0 && allocatedEnd >= 0) {
+                phase.put("allocatedBytes", allocatedEnd - allocated);
+            }
+        };
+    }
+
+    /** @return a start time for {@link #count(String, long, long)}, or 0 if disabled */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Count work done since start (e.g. rendering a template), and the number of bytes produced */
+    public void count(String name, long start, long bytes) {
+        if (enabled) {
+            counters.computeIfAbsent(name, k -> new Counter()).add(System.nanoTime() - start, bytes);
+        }
+    }
+
+    /**
+     * Count the conversion of an entry (by type); the slowest entries are kept
+     *
+     * @return an action that removes this count (e.g. before the entry is converted again)
+     */
+    public Runnable entry(String type, String key, long start) {
+        if (!enabled) {
+            return () -> {
+            };
+        }
+        long nanos = System.nanoTime() - start;
+        Counter counter = entryTypes.computeIfAbsent(type, k -> new Counter());
+        counter.add(nanos, 1);
+        Entry entry = new Entry(key, type, nanos);
+        synchronized (slowest) {
+            if (slowest.size() < SLOWEST) {
+                slowest.add(entry);
+            } else if (slowest.peek().nanos() < nanos) {
+                slowest.poll();
+                slowest.add(entry);
+            }
+        }
+        return () -> {
+            counter.remove(nanos, 1);
+            synchronized (slowest) {
+                slowest.remove(entry);
+            }
+        };
+    }
+
+    /** Write the report (if enabled) to the output directory */
+    public void write(Tui tui, Path output) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("version", VERSION);
+        report.put("started", started.toString());
+        report.put("parallelism", tui.parallelism());
+        report.put("phases", phases);
+
+        Map<String, Object> counts = new TreeMap<>();
+        counters.forEach((k, v) -> counts.put(k, v.toMap("bytes")));
+        report.put("counters", counts);
+
+        Map<String, Object> types = new TreeMap<>();
+        entryTypes.forEach((k, v) -> types.put(k, v.toMap(null)));
+        report.put("entries", types);
+
+        List<Map<String, Object>> slow = new ArrayList<>();
+        synchronized (slowest) {
+            slowest.stream()
+                    .sorted(Comparator.comparingLong(Entry::nanos).reversed())
+                    .forEach(e -> slow.add(Map.of("key", e.key(), "type", e.type(), "ms", millis(e.nanos()))));
+        }
+        report.put("slowest", slow);
+
+        Path target = output.resolve(FILE_NAME);
+        try {
+            tui.writeJsonFile(target, report);
+            tui.printlnf(Msg.OK, "Wrote metrics to %s", target);
+        } catch (IOException e) {
+            tui.errorf(e, "Unable to write %s: %s", target, e);
+        }
+    }
+
+    /** Called by worker threads as they finish: their allocation is not visible once they are gone */
+    static void threadFinished() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemoryEnabled()) {
+                long bytes = t.getCurrentThreadAllocatedBytes();
+                if (bytes > 0) {
+                    retiredAllocation.addAndGet(bytes);
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // not available (e.g. native image)
+        }
+    }
+
+    static long allocatedBytes() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemoryEnabled()) {
+                long total = retiredAllocation.get();
+                for (long bytes : t.getThreadAllocatedBytes(t.getAllThreadIds())) {
+                    if (bytes > 0) {
+                        total += bytes;
+                    }
+                }
+                return total;
+            }
+        } catch (UnsupportedOperationException e) {
+            // not available (e.g. native image)
+        }
+        return -1;
+    }
+
+    static long processCpuTime() {
+        try {
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+                return os.getProcessCpuTime();
+            }
+        } catch (UnsupportedOperationException e) {
+            // not available (e.g. native image)
+        }
+        return -1;
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    record Entry(String key, String type, long nanos) {
+    }
+
+    static class Counter {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder amount = new LongAdder();
+
+        void add(long time, long value) {
+            count.increment();
+            nanos.add(time);
+            amount.add(value);
+        }
+
+        void remove(long time, long value) {
+            count.decrement();
+            nanos.add(-time);
+            amount.add(-value);
+        }
+
+        Map<String, Object> toMap(String amountName) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count.sum());
+            map.put("ms", millis(nanos.sum()));
+            if (amountName != null) {
+                map.put(amountName, amount.sum());
+            }
+            return map;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.concurrent.CompletionException;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -20,7 +21,6 @@ import io.quarkus.qute.TemplateException;
 
 @ApplicationScoped
 public class Templates {
-
     CompendiumConfig config = null;
 
     @Inject
@@ -34,7 +34,7 @@ public class Templates {
         engine.clearTemplates();
     }
 
-    private Template customTemplateOrDefault(String id) throws RuntimeException {
+    private synchronized Template customTemplateOrDefault(String id) throws RuntimeException {
         if (config == null) {
             throw new IllegalStateException("Config not set");
         }
@@ -63,21 +63,43 @@ public class Templates {
     }
 
     public String render(QuteBase resource) {
+        return renderTo(resource, new RenderedContent()).toString();
+    }
+
+    /**
+     * Render the resource into (reset) content: output is filtered and encoded as it is produced.
+     * Template comments (%%-- ... --%%) are removed, and the result is trimmed.
+     */
+    public RenderedContent renderTo(QuteBase resource, RenderedContent content) {
         Template tpl = customTemplateOrDefault(resource.template());
+        content.reset();
+        long start = tui.metrics().start();
         try {
-            return tpl
-                    .data("resource", resource)
-                    .render()
-                    .replaceAll("%%-- .*? --%%\\n", "")
-                    .trim();
+            tpl.data("resource", resource)
+                    .consume(content)
+                    .toCompletableFuture().join();
+            content.finish();
+            tui.metrics().count("render", start, content.length());
+            return content;
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TemplateException tex) {
+                return content.replaceWith(errorMessage(tex));
+            } else if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw ex;
         } catch (TemplateException tex) {
-            Throwable cause = tex.getCause();
-            String message = cause != null ? cause.toString() : tex.toString();
-            tui.errorf(tex, message);
-            return "%% ERROR: " + message + " %%";
+            return content.replaceWith(errorMessage(tex));
         }
     }
 
+    private String errorMessage(TemplateException tex) {
+        Throwable cause = tex.getCause();
+        String message = cause != null ? cause.toString() : tex.toString();
+        tui.errorf(tex, message);
+        return "%% ERROR: " + message + " %%";
+    }
+
     public String renderInlineEmbedded(QuteUtil resource) {
         Template tpl = customTemplateOrDefault(resource.template());
         try {
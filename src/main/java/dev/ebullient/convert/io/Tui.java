@@ -3,29 +3,36 @@ package dev.ebullient.convert.io;
 import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.net.URI;
-import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -40,6 +47,7 @@ import org.yaml.snakeyaml.representer.Representer;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
@@ -137,49 +145,54 @@ public class Tui {
         return mapper;
     }
 
-    private static Yaml plainYaml;
+    // Yaml instances are not thread-safe: keep one per thread
+    private static final ThreadLocal<Yaml> plainYaml = ThreadLocal.withInitial(() -> {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultScalarStyle(ScalarStyle.PLAIN);
+        options.setDefaultFlowStyle(FlowStyle.BLOCK);
+        options.setPrettyFlow(true);
 
-    public static Yaml plainYaml() {
-        Yaml y = plainYaml;
-        if (y == null) {
-            DumperOptions options = new DumperOptions();
-            options.setDefaultScalarStyle(ScalarStyle.PLAIN);
-            options.setDefaultFlowStyle(FlowStyle.BLOCK);
-            options.setPrettyFlow(true);
+        Representer representer = new Representer(options);
+        representer.addClassTag(dev.ebullient.convert.qute.NamedText.class, Tag.MAP); //
 
-            Representer representer = new Representer(options);
-            representer.addClassTag(dev.ebullient.convert.qute.NamedText.class, Tag.MAP); //
+        return new Yaml(representer, options);
+    });
 
-            y = plainYaml = new Yaml(representer, options);
-        }
-        return y;
+    public static Yaml plainYaml() {
+        return plainYaml.get();
     }
 
-    private static Yaml quotedYaml;
+    private static final ThreadLocal<Yaml> quotedYaml = ThreadLocal.withInitial(() -> {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultScalarStyle(ScalarStyle.DOUBLE_QUOTED);
+        options.setPrettyFlow(true);
+        options.setSplitLines(true);
+        options.setIndent(2);
+        options.setIndicatorIndent(2);
+        options.setIndentWithIndicator(true);
 
-    public static Yaml quotedYaml() {
-        Yaml y = quotedYaml;
-        if (y == null) {
-            DumperOptions options = new DumperOptions();
-            options.setDefaultScalarStyle(ScalarStyle.DOUBLE_QUOTED);
-            options.setPrettyFlow(true);
-            options.setSplitLines(true);
-            options.setIndent(2);
-            options.setIndicatorIndent(2);
-            options.setIndentWithIndicator(true);
+        Representer representer = new Representer(options);
+        representer.addClassTag(dev.ebullient.convert.qute.NamedText.class, Tag.MAP); //
 
-            Representer representer = new Representer(options);
-            representer.addClassTag(dev.ebullient.convert.qute.NamedText.class, Tag.MAP); //
+        return new Yaml(representer, options);
+    });
 
-            y = quotedYaml = new Yaml(representer, options);
-        }
-        return y;
+    public static Yaml quotedYaml() {
+        return quotedYaml.get();
     }
 
+    // The same names are slugified for every link to them
+    private static final MemoCache<String, String> slugs = new MemoCache<>("Slug", 50_000);
+
     public static String slugify(String s) {
-        return slugifier().slugify(s);
+        return slugs.get(s, x -> slugifier().slugify(x));
     }
 
+    // Output of the conversion task running on this thread (see OrderedTasks)
+    private static final ThreadLocal<List<Runnable>> heldOutput = new ThreadLocal<>();
+    // Errors and warnings reported by each thread
+    private static final ThreadLocal<int[]> problems = ThreadLocal.withInitial(() -> new int[1]);
+
     static final boolean picocliDebugEnabled = "DEBUG".equalsIgnoreCase(System.getProperty("picocli.trace"));
 
     Ansi ansi;
@@ -196,6 +209,14 @@ public class Tui {
     private boolean verbose;
     private boolean verboseOrLog;
     private Path output = Paths.get("");
+    private int parallelism = 1;
+    private ParseCache parseCache;
+    private InputFields inputFields;
+    private DataBundle bundle;
+    private boolean lowMemory;
+    private boolean linkImages;
+    private RemoteFetcher remoteFetcher;
+    private RunMetrics metrics = new RunMetrics(false);
     private final Set<Path> inputRoot = new TreeSet<>();
 
     public Tui() {
@@ -251,6 +272,87 @@ public class Tui {
         this.output = output;
     }
 
+    /**
+     * Set the number of workers used for parallel work.
+     * Values less than 1 use all available processors.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism < 1
+                ? Runtime.getRuntime().availableProcessors()
+                : parallelism;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Keep parsed input files in this cache, and reuse them while the input files are unchanged.
+     *
+     * @param parseCache cache to use, or null to always parse input files
+     */
+    public void setParseCache(ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    public ParseCache parseCache() {
+        return parseCache;
+    }
+
+    /**
+     * Only read these top-level fields from files in data directories.
+     * Files that are named explicitly are always read in full.
+     *
+     * @param inputFields fields used by the index, or null to read whole files
+     */
+    public void setInputFields(InputFields inputFields) {
+        this.inputFields = inputFields;
+    }
+
+    /**
+     * Keep entries that are not converted in a compact (encoded) form once the index is prepared.
+     * Uses less memory, at the cost of decoding entries again when they are read.
+     */
+    public void setLowMemory(boolean lowMemory) {
+        this.lowMemory = lowMemory;
+    }
+
+    public boolean lowMemory() {
+        return lowMemory;
+    }
+
+    /**
+     * Hard-link local images into the vault instead of copying them.
+     * If links can't be created (e.g. the vault is on another file system), images are copied.
+     */
+    public void setLinkImages(boolean linkImages) {
+        this.linkImages = linkImages;
+    }
+
+    /**
+     * Set the fetcher used to download remote images (timeouts, retries, cache).
+     * A fetcher with default settings and no cache is used if none is set.
+     */
+    public void setRemoteFetcher(RemoteFetcher remoteFetcher) {
+        this.remoteFetcher = remoteFetcher;
+    }
+
+    /** Record timing and throughput of this run (--metrics) */
+    public void setMetrics(RunMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public RunMetrics metrics() {
+        return metrics;
+    }
+
+    synchronized RemoteFetcher remoteFetcher() {
+        if (remoteFetcher == null) {
+            remoteFetcher = new RemoteFetcher(this);
+        }
+        return remoteFetcher;
+    }
+
     public void setTemplates(Templates templates) {
         this.templates = templates;
     }
@@ -270,20 +372,64 @@ public class Tui {
         }
     }
 
-    private void outLine(String text, Text line) {
-        out.println(line);
-        if (log != null) {
-            log.println(text);
+    /**
+     * Hold output written by this thread (messages, log entries) in a list instead of writing it,
+     * until it is released with {@link #release(List)}.
+     *
+     * @param held list for held output, or null to write output immediately
+     * @return the list used before (or null)
+     */
+    public static List<Runnable> holdOutput(List<Runnable> held) {
+        List<Runnable> previous = heldOutput.get();
+        if (held == null) {
+            heldOutput.remove();
+        } else {
+            heldOutput.set(held);
         }
+        return previous;
     }
 
-    private void errLine(String text, Text line) {
-        err.println(line);
-        if (log != null) {
-            log.println(text);
+    /** Write held output, and clear the list */
+    public static void release(List<Runnable> held) {
+        held.forEach(Runnable::run);
+        held.clear();
+    }
+
+    /**
+     * Number of errors and warnings reported by this thread so far.
+     * Compare values before and after some work to find out if it reported a problem.
+     */
+    public static int problemCount() {
+        return problems.get()[0];
+    }
+
+    private void emit(Runnable write) {
+        List<Runnable> held = heldOutput.get();
+        if (held == null) {
+            write.run();
+        } else {
+            held.add(write);
         }
     }
 
+    private void outLine(String text, Text line) {
+        emit(() -> {
+            out.println(line);
+            if (log != null) {
+                log.println(text);
+            }
+        });
+    }
+
+    private void errLine(String text, Text line) {
+        emit(() -> {
+            err.println(line);
+            if (log != null) {
+                log.println(text);
+            }
+        });
+    }
+
     public boolean isDebug() {
         return debugOrLog;
     }
@@ -298,13 +444,15 @@ public class Tui {
 
     public void debugf(Msg msg, String output, Object... params) {
         if (debugOrLog) {
-            output = format(msg.wrap(output), params);
-            if (debug) {
-                out.println(ansi.new Text(Msg.DEBUG.color(output), colors));
-            }
-            if (log != null) {
-                log.println(Msg.DEBUG.wrap(output));
-            }
+            String text = format(msg.wrap(output), params);
+            emit(() -> {
+                if (debug) {
+                    out.println(ansi.new Text(Msg.DEBUG.color(text), colors));
+                }
+                if (log != null) {
+                    log.println(Msg.DEBUG.wrap(text));
+                }
+            });
         }
     }
 
@@ -314,19 +462,22 @@ public class Tui {
 
     public void verbosef(Msg msg, String output, Object... params) {
         if (verboseOrLog) {
-            output = format(Msg.VERBOSE.wrap(msg.wrap(output)), params);
-            if (verbose) {
-                out.println(ansi.new Text(output));
-            }
-            if (log != null) {
-                log.println(output);
-            }
+            String text = format(Msg.VERBOSE.wrap(msg.wrap(output)), params);
+            emit(() -> {
+                if (verbose) {
+                    out.println(ansi.new Text(text));
+                }
+                if (log != null) {
+                    log.println(text);
+                }
+            });
         }
     }
 
     public void log(Throwable t, boolean keepException) {
         if (log != null) {
-            log.println(captureStackTrace(t, keepException));
+            String trace = captureStackTrace(t, keepException);
+            emit(() -> log.println(trace));
         }
     }
 
@@ -337,7 +488,8 @@ public class Tui {
     public void logf(Msg msg, String output, Object... params) {
         if (log != null) {
             output = format(msg.wrap(output), params);
-            log.println(output);
+            String text = output;
+            emit(() -> log.println(text));
             if (msg == Msg.UNKNOWN || msg == Msg.UNRESOLVED) {
                 log(new Exception(output), false);
             }
@@ -362,6 +514,7 @@ public class Tui {
     }
 
     public void warnf(String output, Object... params) {
+        problems.get()[0]++;
         output = format(Msg.WARN.wrap(output), params);
         outLine(output, ansi.new Text(output));
     }
@@ -389,11 +542,13 @@ public class Tui {
     }
 
     private void error(Throwable ex, String errorMsg) {
+        problems.get()[0]++;
         String message = Msg.ERR.wrap(errorMsg
                 .replace("java.nio.file.NoSuchFileException: ", "File not found: "));
         errLine(message, colors.errorText(message));
         if (ex != null && log != null) {
-            log.println(captureStackTrace(ex, true));
+            String trace = captureStackTrace(ex, true);
+            emit(() -> log.println(trace));
         }
     }
 
@@ -412,39 +567,57 @@ public class Tui {
         }
     }
 
+    /**
+     * Find the input root (a directory, or the bundle) that contains the relative path.
+     * Use {@link #readJsonFile(Path)} to read a JSON file found this way.
+     */
     public Optional<Path> resolvePath(Path path) {
         if (path == null) {
             return Optional.empty();
         }
         // find the right source root (there could be several)
-        return inputRoot.stream()
+        Optional<Path> root = inputRoot.stream()
                 .filter(x -> x.resolve(path).toFile().exists())
                 .findFirst();
+        DataBundle b = bundle;
+        if (root.isEmpty() && b != null && b.contains(b.path().resolve(path))) {
+            return Optional.of(b.path());
+        }
+        return root;
     }
 
     public void copyFonts(Collection<FontRef> fonts) {
+        // Several references can share a font family (target): generate each once,
+        // from the last reference (which would have been written last)
+        Map<Path, FontRef> targets = new LinkedHashMap<>();
         for (FontRef fontRef : fonts) {
-            Path targetPath = output.resolve(Path.of("css-snippets", slugify(fontRef.fontFamily) + ".css"));
-            targetPath.getParent().toFile().mkdirs();
-
-            verbosef(Msg.WRITING, "Generating CSS snippet for %s", fontRef.sourcePath);
-            if (fontRef.sourcePath.startsWith("http")) {
-                try (InputStream is = URI.create(fontRef.sourcePath.replace(" ", "%20")).toURL().openStream()) {
-                    Files.writeString(targetPath, templates.renderCss(fontRef, is));
-                } catch (IOException e) {
-                    errorf("Unable to copy font. %s", e);
-                }
-            } else {
-                Optional<Path> resolvedSource = resolvePath(Path.of(fontRef.sourcePath));
-                if (resolvedSource.isEmpty()) {
-                    errorf("Unable to find font '%s'", fontRef.sourcePath);
-                    continue;
-                }
-                try (BufferedInputStream is = new BufferedInputStream(Files.newInputStream(resolvedSource.get()))) {
-                    Files.writeString(targetPath, templates.renderCss(fontRef, is));
-                } catch (IOException e) {
-                    errorf("Unable to copy font. %s", e);
-                }
+            targets.put(output.resolve(Path.of("css-snippets", slugify(fontRef.fontFamily) + ".css")), fontRef);
+        }
+        CopyStage stage = new CopyStage(this, "fonts", false);
+        try (var phase = metrics.phase("copy fonts")) {
+            inParallel("ttrpg-copy", targets.entrySet(), e -> copyFont(e.getValue(), e.getKey(), stage));
+        }
+        stage.printSummary();
+    }
+
+    private void copyFont(FontRef fontRef, Path targetPath, CopyStage stage) {
+        verbosef(Msg.WRITING, "Generating CSS snippet for %s", fontRef.sourcePath);
+        if (fontRef.sourcePath.startsWith("http")) {
+            try (InputStream is = URI.create(fontRef.sourcePath.replace(" ", "%20")).toURL().openStream()) {
+                stage.write(targetPath, templates.renderCss(fontRef, is));
+            } catch (IOException e) {
+                errorf("Unable to copy font. %s", e);
+            }
+        } else {
+            Optional<Path> resolvedSource = resolvePath(Path.of(fontRef.sourcePath));
+            if (resolvedSource.isEmpty()) {
+                errorf("Unable to find font '%s'", fontRef.sourcePath);
+                return;
+            }
+            try (BufferedInputStream is = new BufferedInputStream(Files.newInputStream(resolvedSource.get()))) {
+                stage.write(targetPath, templates.renderCss(fontRef, is));
+            } catch (IOException e) {
+                errorf("Unable to copy font. %s", e);
             }
         }
     }
@@ -452,48 +625,54 @@ public class Tui {
     public void copyImages(Collection<ImageRef> images) {
         verbosef(Msg.PROGRESS, "Processing images");
 
+        // Several references can share a target: copy each target once
+        Map<Path, ImageRef> targets = new LinkedHashMap<>();
         for (ImageRef image : images) {
-            Path targetPath = image.targetFilePath() == null
-                    ? null
-                    : output.resolve(image.targetFilePath());
-            if (targetPath == null || targetPath.toFile().exists()) {
-                // remote resources we are not copying, or a target path that already exists
-                continue;
-            }
-            if (image.sourcePath() == null) {
-                copyRemoteImage(image, targetPath);
-                continue;
-            }
-            if (image.sourcePath().toString().startsWith("stream/")) {
-                copyImageResource(image, targetPath);
-                continue;
+            if (image.targetFilePath() != null) { // null: remote resources we are not copying
+                targets.putIfAbsent(output.resolve(image.targetFilePath()), image);
             }
+        }
+        CopyStage stage = new CopyStage(this, "images", linkImages);
+        try (var phase = metrics.phase("copy images")) {
+            inParallel("ttrpg-copy", targets.entrySet(), e -> copyImage(e.getValue(), e.getKey(), stage));
+        }
+        stage.printSummary();
+        if (remoteFetcher != null) {
+            remoteFetcher.printSummary();
+        }
+    }
 
-            // target path must be pre-resolved to compendium or rules root
-            // so just make sure the image dir exists
-            targetPath.getParent().toFile().mkdirs();
-            try {
-                Files.copy(image.sourcePath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException e) {
-                errorf("Unable to copy image. %s", e);
-            }
+    private void copyImage(ImageRef image, Path targetPath, CopyStage stage) {
+        if (stage.exists(targetPath)) {
+            return;
+        }
+        if (image.sourcePath() == null) {
+            copyRemoteImage(image, targetPath, stage);
+            return;
+        }
+        if (image.sourcePath().toString().startsWith("stream/")) {
+            copyImageResource(image, targetPath, stage);
+            return;
+        }
+        // target path must be pre-resolved to compendium or rules root
+        try {
+            stage.copy(image.sourcePath(), targetPath);
+        } catch (IOException e) {
+            errorf("Unable to copy image. %s", e);
         }
     }
 
-    private void copyImageResource(ImageRef image, Path targetPath) {
+    private void copyImageResource(ImageRef image, Path targetPath, CopyStage stage) {
         String sourcePath = image.sourcePath().toString().replace("stream", "");
-        targetPath.getParent().toFile().mkdirs();
 
         try (InputStream in = TtrpgConfig.class.getResourceAsStream(sourcePath)) {
-            Files.copy(in, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            stage.copy(in, targetPath);
         } catch (IOException e) {
             errorf("Unable to copy resource. %s", e);
         }
     }
 
-    private void copyRemoteImage(ImageRef image, Path targetPath) {
-        targetPath.getParent().toFile().mkdirs();
-
+    private void copyRemoteImage(ImageRef image, Path targetPath, CopyStage stage) {
         String url = image.url();
         if (url == null) {
             errorf("ImageRef %s has no URL", image.targetFilePath());
@@ -504,26 +683,26 @@ public class Tui {
             return;
         }
 
-        Tui.instance().debugf("copy image %s", url);
-        try (ReadableByteChannel readableByteChannel = Channels.newChannel(new URL(url).openStream())) {
-            try (FileOutputStream fileOutputStream = new FileOutputStream(targetPath.toFile())) {
-                fileOutputStream.getChannel().transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
-            }
+        debugf("copy image %s", url);
+        try {
+            stage.copied(remoteFetcher().fetch(url, targetPath));
         } catch (IOException e) {
             errorf("Unable to copy remote image (%s). ", url, e);
         }
     }
 
     public boolean readFile(Path p, List<Fix> fixes, BiConsumer<String, JsonNode> callback) {
-        inputRoot.add(p.getParent().toAbsolutePath());
+        return readFile(p, fixes, null, callback);
+    }
+
+    boolean readFile(Path p, List<Fix> fixes, InputFields fields, BiConsumer<String, JsonNode> callback) {
+        DataBundle b = bundle;
+        if (b == null || !b.contains(p)) {
+            inputRoot.add(p.getParent().toAbsolutePath());
+        }
         try {
-            File f = p.toFile();
-            String contents = Files.readString(p);
-            for (Fix fix : fixes) {
-                contents = contents.replaceAll(fix.match, fix.replace);
-            }
-            JsonNode node = MAPPER.readTree(contents);
-            callback.accept(f.getName(), node);
+            JsonNode node = parseFile(p, fixes, fields);
+            callback.accept(p.toFile().getName(), node);
         } catch (IOException e) {
             errorf(e, "Unable to read source file at path %s (%s)", p, e.getMessage());
             return false;
@@ -531,18 +710,95 @@ public class Tui {
         return true;
     }
 
+    /**
+     * Read a JSON file that is not a data file (e.g. a generated lookup), from disk
+     * or from the bundle. It is not added to the parse cache.
+     */
+    public JsonNode readJsonFile(Path p) throws IOException {
+        DataBundle b = bundle;
+        if (b != null && b.contains(p)) {
+            return b.read(p, null);
+        }
+        return parseJson(p, List.of());
+    }
+
+    JsonNode parseFile(Path p, List<Fix> fixes, InputFields fields) throws IOException {
+        DataBundle b = bundle;
+        if (b != null && b.contains(p)) {
+            return b.read(p, fields); // fixes were applied when the bundle was created
+        }
+        ParseCache cache = parseCache;
+        return cache == null
+                ? parseJson(p, fixes, fields)
+                : cache.read(p, fixes, fields, content -> parseJson(p, fixes, fields, content));
+    }
+
+    JsonNode parseJson(Path p, List<Fix> fixes) throws IOException {
+        return parseJson(p, fixes, null);
+    }
+
+    /**
+     * Parse the file, keeping only the given top-level fields (if any).
+     * Files without fixes are parsed directly from bytes (see {@link InputReader});
+     * fixes apply to the text of the file.
+     */
+    JsonNode parseJson(Path p, List<Fix> fixes, InputFields fields) throws IOException {
+        return parseJson(p, fixes, fields, null);
+    }
+
+    /** @param content digest to update with the bytes of the file (or null) */
+    JsonNode parseJson(Path p, List<Fix> fixes, InputFields fields, MessageDigest content) throws IOException {
+        if (fixes.isEmpty()) {
+            if (fields != null) {
+                JsonNode node = InputReader.parse(p, content, fields::read);
+                if (node != null) {
+                    return node;
+                }
+                content = null; // already read
+            }
+            return InputReader.parse(p, content, InputReader::readTree);
+        }
+
+        String contents;
+        if (content == null) {
+            contents = Files.readString(p);
+        } else {
+            byte[] bytes = Files.readAllBytes(p);
+            content.update(bytes);
+            contents = new String(bytes, StandardCharsets.UTF_8);
+        }
+        for (Fix fix : fixes) {
+            contents = fix.apply(contents);
+        }
+        if (fields != null) {
+            try (JsonParser parser = MAPPER.createParser(contents)) {
+                JsonNode node = fields.read(parser);
+                if (node != null) {
+                    return node;
+                }
+            }
+        }
+        return MAPPER.readTree(contents);
+    }
+
     public boolean readDirectory(String relative, Path dir, BiConsumer<String, JsonNode> callback) {
+        List<InputFile> files = new ArrayList<>();
+        boolean listed = collectDirectory(relative, dir, files);
+        try {
+            return readFiles(files, callback) && listed;
+        } catch (Exception e) {
+            errorf(e, "Error reading %s (%s)", dir.toString(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean collectDirectory(String relative, Path dir, List<InputFile> files) {
         debugf(Msg.FOLDER.wrap(dir.toString()));
 
         inputRoot.add(dir.toAbsolutePath());
 
         boolean result = true;
-        String basename = dir.getFileName().toString();
-        if ("ancestries".equals(basename)) {
-            basename = "ancestry";
-        } else if (TtrpgConfig.getConfig().datasource() == Datasource.toolsPf2e && "bestiary".equals(basename)) {
-            basename = "creature";
-        }
+        String dirName = dir.getFileName().toString();
         try (Stream<Path> stream = Files.list(dir)) {
             Iterator<Path> i = stream.iterator();
             while (i.hasNext()) {
@@ -550,9 +806,10 @@ public class Tui {
                 File f = p.toFile();
                 String name = p.getFileName().toString();
                 if (f.isDirectory()) {
-                    result &= readDirectory(relative + p.getFileName() + '/', p, callback);
-                } else if ((name.startsWith("fluff") || name.startsWith(basename)) && name.endsWith(".json")) {
-                    result &= readFile(p, TtrpgConfig.getFixes(relative + name), callback);
+                    result &= collectDirectory(relative + p.getFileName() + '/', p, files);
+                } else if (isDataFile(dirName, name)) {
+                    inputRoot.add(p.getParent().toAbsolutePath());
+                    files.add(new InputFile(p, TtrpgConfig.getFixes(relative + name)));
                 }
             }
         } catch (Exception e) {
@@ -562,6 +819,67 @@ public class Tui {
         return result;
     }
 
+    /** Files in data directories are read if they are fluff, or named after the directory (e.g. bestiary/bestiary-mm.json) */
+    static boolean isDataFile(String dirName, String fileName) {
+        String basename = dirName;
+        if ("ancestries".equals(basename)) {
+            basename = "ancestry";
+        } else if (TtrpgConfig.getConfig().datasource() == Datasource.toolsPf2e && "bestiary".equals(basename)) {
+            basename = "creature";
+        }
+        return (fileName.startsWith("fluff") || fileName.startsWith(basename)) && fileName.endsWith(".json");
+    }
+
+    /**
+     * Read data files from a bundle (see {@link DataBundle}): the files {@link #readToolsDir} would read,
+     * then other bundled inputs (homebrew, ...). Other files in the bundle (e.g. books and adventures)
+     * are read from it by path.
+     */
+    public boolean readBundle(Path p, BiConsumer<String, JsonNode> callback) {
+        DataBundle b;
+        try {
+            b = DataBundle.open(p);
+        } catch (IOException e) {
+            errorf(e, "Unable to read bundle %s (%s)", p, e.getMessage());
+            return false;
+        }
+        Datasource game = TtrpgConfig.getConfig().datasource();
+        if (!game.name().equals(b.game())) {
+            errorf("Bundle %s contains data for %s; expected %s", p, b.game(), game.name());
+            return false;
+        }
+        String version = String.join(" ", new VersionProvider().getVersion());
+        if (!version.equals(b.version())) {
+            warnf("Bundle %s was created by a different version (%s)", p, b.version());
+        }
+        if (!DataBundle.fixesHash().equals(b.fixes())) {
+            warnf("Bundle %s was created with different fixes; configured fixes are not applied to its contents "
+                    + "(create the bundle again to apply them)", p);
+        }
+        verbosef(Msg.PROGRESS, "Reading %s files from bundle %s", b.size(), p);
+        bundle = b;
+        inputRoot.add(p.toAbsolutePath().getParent());
+        ParseCache cache = parseCache;
+        if (cache != null) {
+            cache.addBundle(b);
+        }
+
+        boolean result = true;
+        List<InputFile> files = new ArrayList<>();
+        for (String input : TtrpgConfig.getFileSources()) {
+            List<Path> found = b.dataFiles(input);
+            if (found.isEmpty()) {
+                errorf("Bundle %s does not contain %s: is it a bundle of a tools data directory?", p, input);
+                result = false;
+            }
+            found.forEach(f -> files.add(new InputFile(f, List.of())));
+        }
+        for (String extra : b.extras()) {
+            b.dataFiles(extra).forEach(f -> files.add(new InputFile(f, List.of())));
+        }
+        return readFiles(files, callback) && result;
+    }
+
     public boolean readToolsDir(Path toolsBase, BiConsumer<String, JsonNode> callback) {
         Collection<String> inputs = TtrpgConfig.getFileSources();
         Collection<String> sourceFiles = TtrpgConfig.getFileSources();
@@ -580,15 +898,129 @@ public class Tui {
         inputRoot.add(toolsBase.getParent());
 
         boolean result = true;
+        List<InputFile> files = new ArrayList<>();
         for (String input : inputs) {
             Path p = toolsBase.resolve(input);
             if (p.toFile().isFile()) {
-                result &= readFile(p, TtrpgConfig.getFixes(input), callback);
+                inputRoot.add(p.getParent().toAbsolutePath());
+                files.add(new InputFile(p, TtrpgConfig.getFixes(input)));
             } else {
-                result &= readDirectory(input + "/", p, callback);
+                result &= collectDirectory(input + "/", p, files);
             }
         }
-        return result;
+        return readFiles(files, callback) && result;
+    }
+
+    /**
+     * Read and parse a list of files, passing each parsed tree to the callback
+     * in list order. When more than one worker is configured, files are read and
+     * parsed by a bounded pool while this thread feeds the callback, so the order
+     * (and first-wins indexing behavior) is the same as a serial read.
+     */
+    boolean readFiles(List<InputFile> files, BiConsumer<String, JsonNode> callback) {
+        int workers = Math.min(parallelism, files.size());
+        if (workers <= 1) {
+            boolean result = true;
+            for (InputFile f : files) {
+                result &= readFile(f.path(), f.fixes(), inputFields, callback);
+            }
+            return result;
+        }
+
+        InputFields fields = inputFields;
+        verbosef(Msg.PROGRESS, "Reading %s files using %s workers", files.size(), workers);
+        ExecutorService executor = newWorkerPool("ttrpg-read", workers);
+        try {
+            // Limit the number of parsed trees waiting to be imported
+            int window = workers * 2;
+            Deque<PendingFile> pending = new ArrayDeque<>(window);
+            Iterator<InputFile> next = files.iterator();
+
+            boolean result = true;
+            while (next.hasNext() || !pending.isEmpty()) {
+                while (next.hasNext() && pending.size() < window) {
+                    InputFile f = next.next();
+                    pending.addLast(new PendingFile(f, executor.submit(() -> parseFile(f.path(), f.fixes(), fields))));
+                }
+                PendingFile p = pending.removeFirst();
+                try {
+                    callback.accept(p.file().path().toFile().getName(), p.node().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    errorf(cause, "Unable to read source file at path %s (%s)", p.file().path(), cause.getMessage());
+                    result = false;
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errorf(e, "Interrupted while reading source files");
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Apply the task to each item using the configured number of workers.
+     * The first failure (in item order) is rethrown once all tasks have been submitted.
+     */
+    public <T> void inParallel(String name, Collection<T> items, Consumer<T> task) {
+        int workers = Math.min(parallelism, items.size());
+        if (workers <= 1) {
+            items.forEach(task);
+            return;
+        }
+        ExecutorService pool = newWorkerPool(name, workers);
+        try {
+            List<Future<?>> pending = new ArrayList<>(items.size());
+            for (T item : items) {
+                pending.add(pool.submit(() -> task.accept(item)));
+            }
+            for (Future<?> f : pending) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + name + " tasks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Create a fixed-size pool of daemon threads for parallel work.
+     */
+    public ExecutorService newWorkerPool(String name, int workers) {
+        AtomicInteger count = new AtomicInteger();
+        boolean trackAllocation = metrics.enabled();
+        return Executors.newFixedThreadPool(workers, r -> {
+            Runnable worker = trackAllocation
+                    ? () -> {
+                        try {
+                            r.run();
+                        } finally {
+                            RunMetrics.threadFinished();
+                        }
+                    }
+                    : r;
+            Thread t = new Thread(worker, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    record InputFile(Path path, List<Fix> fixes) {
+    }
+
+    record PendingFile(InputFile file, Future<JsonNode> node) {
     }
 
     public void writeJsonFile(Path outputFile, Map<String, Object> values) throws IOException {
@@ -0,0 +1,210 @@
+package dev.ebullient.convert.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Hashes of the files written to an output directory, kept between runs.
+ * <p>
+ * With a manifest, the {@link MarkdownWriter} skips files whose rendered content matches
+ * what the previous run wrote, as long as the file on disk has not been touched since:
+ * the size and modification time recorded for it still match. Files that were written
+ * by a previous run but not by this one are stale: they are reported, and removed if
+ * pruning is enabled.
+ */
+public class WriteManifest {
+    public static final String FILE_NAME = ".ttrpg-convert-manifest.json";
+    static final int VERSION = 2;
+
+    final Tui tui;
+    final Path output;
+    final Map<String, Entry> previous;
+    final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    WriteManifest(Tui tui, Path output, Map<String, Entry> previous) {
+        this.tui = tui;
+        this.output = output.toAbsolutePath().normalize();
+        this.previous = previous;
+    }
+
+    /**
+     * Read the manifest from the output directory. If there is none (or it can't be used),
+     * every file is compared with what is on disk, and a new manifest is created.
+     */
+    public static WriteManifest read(Tui tui, Path output) {
+        Map<String, Entry> previous = new HashMap<>();
+        Path manifest = output.resolve(FILE_NAME);
+        if (Files.exists(manifest)) {
+            try {
+                JsonNode node = Tui.MAPPER.readTree(manifest.toFile());
+                int version = node.path("version").asInt();
+                if (version == VERSION) {
+                    node.path("files").fields()
+                            .forEachRemaining(e -> previous.put(e.getKey(), new Entry(
+                                    e.getValue().path("hash").asText(),
+                                    e.getValue().path("size").asLong(-1),
+                                    e.getValue().path("modified").asLong(-1))));
+                } else if (version == 1) {
+                    // hashes only: used to find stale files, content is compared
+                    node.path("files").fields()
+                            .forEachRemaining(e -> previous.put(e.getKey(), new Entry(e.getValue().asText(), -1, -1)));
+                } else {
+                    tui.warnf("Ignoring %s: unknown version.", manifest);
+                }
+            } catch (IOException e) {
+                tui.errorf(e, "Unable to read %s: %s", manifest, e);
+                previous.clear();
+            }
+        }
+        tui.debugf(Msg.WRITING, "Incremental: %d files in previous manifest", previous.size());
+        return new WriteManifest(tui, output, previous);
+    }
+
+    /**
+     * Record the hash of content written to the target file.
+     *
+     * @return true if the content is unchanged since the previous run,
+     *         and the file on disk has not been modified since
+     */
+    public boolean unchanged(Path target, byte[] content) throws IOException {
+        return unchanged(target, content, content.length);
+    }
+
+    /** @see #unchanged(Path, byte[]) */
+    public boolean unchanged(Path target, byte[] content, int length) throws IOException {
+        String key = key(target);
+        String hash = hash(content, length);
+
+        Entry entry = previous.get(key);
+        if (entry != null && entry.hash.equals(hash) && entry.size == length
+                && entry.equals(stat(target, hash))) {
+            current.put(key, entry);
+            return true;
+        }
+        // size and modification time are filled in once the file is written
+        current.put(key, new Entry(hash, -1, -1));
+        return false;
+    }
+    /**
+     * Report (and optionally remove) stale files, and save the manifest for the next run.
+     */
+    public void finish(boolean prune) {
+        List<String> stale = new ArrayList<>();
+        for (String key : new TreeMap<>(previous).keySet()) {
+            Path file = output.resolve(key).normalize();
+            if (!current.containsKey(key) && file.startsWith(output) && Files.isRegularFile(file)) {
+                stale.add(key);
+            }
+        }
+
+        Map<String, Entry> files = new TreeMap<>();
+        for (var e : current.entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.size < 0) {
+                try {
+                    Entry written = stat(output.resolve(e.getKey()), entry.hash);
+                    entry = written == null ? entry : written;
+                } catch (IOException ex) {
+                    tui.debugf(Msg.WRITING, "Unable to read attributes of %s: %s", e.getKey(), ex);
+                }
+            }
+            files.put(e.getKey(), entry);
+        }
+        if (prune) {
+            for (String key : stale) {
+                remove(output.resolve(key));
+            }
+            if (!stale.isEmpty()) {
+                tui.printlnf(Msg.OK, "Removed %d files that are no longer generated.", stale.size());
+            }
+        } else if (!stale.isEmpty()) {
+            // Remember stale files so they can be pruned later
+            for (String key : stale) {
+                files.put(key, previous.get(key));
+                tui.verbosef(Msg.WRITING, "Stale: %s", key);
+            }
+            tui.warnf("%d files from a previous run are no longer generated. Use --prune to remove them%s.",
+                    stale.size(), tui.isVerbose() ? "" : " (--verbose to list them)");
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("version", VERSION);
+        values.put("files", files.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toMap(), (a, b) -> a, TreeMap::new)));
+        try {
+            tui.writeJsonFile(output.resolve(FILE_NAME), values);
+        } catch (IOException e) {
+            tui.errorf(e, "Unable to write %s: %s", output.resolve(FILE_NAME), e);
+        }
+    }
+
+    /** Remove the file, and any parent directories (within the output directory) left empty */
+    void remove(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            tui.verbosef(Msg.WRITING, "Removed %s", output.relativize(file));
+            Path dir = file.getParent();
+            while (dir != null && !dir.equals(output) && dir.startsWith(output) && isEmpty(dir)) {
+                Files.delete(dir);
+                dir = dir.getParent();
+            }
+        } catch (IOException e) {
+            tui.errorf(e, "Unable to remove %s: %s", file, e);
+        }
+    }
+
+    String key(Path target) {
+        return output.relativize(target.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    /** Size and modification time of the file on disk, or null if there is no such file */
+    static Entry stat(Path file, String hash) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new Entry(hash, attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    static boolean isEmpty(Path dir) throws IOException {
+        try (var entries = Files.list(dir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    static String hash(byte[] content, int length) {
+        MessageDigest digest = digest();
+        digest.update(content, 0, length);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Content hash, size and modification time (nanoseconds) of a written file */
+    record Entry(String hash, long size, long modified) {
+        Map<String, Object> toMap() {
+            return new TreeMap<>(Map.of("hash", hash, "size", size, "modified", modified));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package dev.ebullient.convert.tools;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A parsed index key: {@code type|name|source} (with optional extra segments
+ * between name and source, e.g. for class features).
+ * <p>
+ * Keys that are added to the index are interned by {@link Interner}: each is parsed once,
+ * and resolving the type of an indexed key is a single map lookup. Other keys (link text,
+ * failed lookups) are parsed when they are used, and are not kept.
+ * The string form ({@link #key()}) is what is stored in the index, written by {@code --index},
+ * and matched by config rules.
+ */
+public final class IndexKey<T extends IndexType> {
+    private final String key;
+    private final T type;
+    private final String name;
+    private final String source;
+
+    IndexKey(String key, T type, String name, String source) {
+        this.key = key;
+        this.type = type;
+        this.name = name;
+        this.source = source;
+    }
+
+    /** @return the (lowercase) key string */
+    public String key() {
+        return key;
+    }
+
+    /** @return the type of this key, or null if the type segment is not recognized */
+    public T type() {
+        return type;
+    }
+
+    /** @return the name segment (second segment) of the key */
+    public String name() {
+        return name;
+    }
+
+    /** @return the last segment of keys with three or more segments, or null */
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode(); // String caches its hash
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof IndexKey<?> other && key.equals(other.key));
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /** Resolves the type from the first {@code end} characters of a key */
+    @FunctionalInterface
+    public interface TypeSegment<T> {
+        T type(String key, int end);
+    }
+
+    /** Intern table for the keys of one tool (one {@link IndexType} enum) */
+    public static class Interner<T extends IndexType> {
+        private final Map<String, IndexKey<T>> keys = new ConcurrentHashMap<>();
+        private final TypeSegment<T> typeSegment;
+
+        public Interner(Function<String, T> typeFromText) {
+            this((key, end) -> typeFromText.apply(key.substring(0, end)));
+        }
+
+        public Interner(TypeSegment<T> typeSegment) {
+            this.typeSegment = typeSegment;
+        }
+
+        /**
+         * Intern a key that is added to the index.
+         *
+         * @return the interned key for this key string; parsed the first time it is seen
+         */
+        public IndexKey<T> intern(String key) {
+            IndexKey<T> result = keys.get(key);
+            if (result == null) {
+                result = parse(key);
+                IndexKey<T> previous = keys.putIfAbsent(result.key, result);
+                if (previous != null) {
+                    result = previous;
+                }
+            }
+            return result;
+        }
+
+        /** @return the interned key for this key string, or a parsed key (not interned) */
+        public IndexKey<T> lookup(String key) {
+            IndexKey<T> result = keys.get(key);
+            return result == null ? parse(key) : result;
+        }
+
+        /** @return the type of this key; only the type segment of a key that is not interned is read */
+        public T type(String key) {
+            IndexKey<T> result = keys.get(key);
+            return result == null ? typeSegment.type(key, typeEnd(key)) : result.type;
+        }
+
+        IndexKey<T> parse(String key) {
+            int first = typeEnd(key);
+            T type = typeSegment.type(key, first);
+            if (first == key.length()) {
+                return new IndexKey<>(key, type, "", null);
+            }
+            int second = key.indexOf('|', first + 1);
+            if (second < 0) {
+                return new IndexKey<>(key, type, key.substring(first + 1), null);
+            }
+            return new IndexKey<>(key, type,
+                    key.substring(first + 1, second),
+                    key.substring(key.lastIndexOf('|') + 1));
+        }
+
+        static int typeEnd(String key) {
+            int first = key.indexOf('|');
+            return first < 0 ? key.length() : first;
+        }
+
+        public int size() {
+            return keys.size();
+        }
+
+        /** Forget interned keys (when the index is reset) */
+        public void clear() {
+            keys.clear();
+        }
+    }
+
+    /**
+     * Type names (lowercase) in an open-addressed table: a name can be found
+     * in part of a longer string, ignoring case, without copying it.
+     */
+    public static final class TypeNames<T> {
+        private final String[] names;
+        private final Object[] types;
+        private final int mask;
+
+        public TypeNames(Map<String, T> byLowercaseName) {
+            int size = Integer.highestOneBit(Math.max(8, byLowercaseName.size() * 2) - 1) << 1;
+            names = new String[size];
+            types = new Object[size];
+            mask = size - 1;
+            byLowercaseName.forEach((name, type) -> {
+                int i = hash(name, 0, name.length()) & mask;
+                while (names[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                names[i] = name;
+                types[i] = type;
+            });
+        }
+
+        /** @return the type named by {@code text[start, end)} (ignoring case), or null */
+        @SuppressWarnings("unchecked")
+        public T find(String text, int start, int end) {
+            int length = end - start;
+            for (int i = hash(text, start, end) & mask; names[i] != null; i = (i + 1) & mask) {
+                String name = names[i];
+                if (name.length() == length && text.regionMatches(true, start, name, 0, length)) {
+                    return (T) types[i];
+                }
+            }
+            return null;
+        }
+
+        static int hash(String text, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + Character.toLowerCase(text.charAt(i));
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package dev.ebullient.convert.tools;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -50,6 +59,11 @@ public abstract class JsonSourceCopier<T extends IndexType> implements JsonTextC
     /** Merge {@code copyFrom} into {@code target} according to copy metadata. */
     protected abstract JsonNode mergeNodes(T type, String originKey, JsonNode copyFrom, ObjectNode target);
 
+    /** Keys of copies being resolved on this thread (innermost last), to detect copy cycles */
+    private final ThreadLocal<LinkedHashSet<String>> copyChain = ThreadLocal.withInitial(LinkedHashSet::new);
+    /** Keys of copies in (or copied from) a copy cycle: reported once, never merged */
+    private final Set<String> copyCycles = ConcurrentHashMap.newKeySet();
+
     /** Handle any {@code _copy} fields which are present in the given node. This is the main entry point. */
     public JsonNode handleCopy(T type, JsonNode copyTo) {
         String copyToKey = type.createKey(copyTo);
@@ -65,8 +79,28 @@ public abstract class JsonSourceCopier<T extends IndexType> implements JsonTextC
                 tui().errorf("(%s): Unable to find source %s to copy from", copyToKey, copyFromKey);
                 return copyTo;
             }
+            if (copyCycles.contains(copyToKey)) {
+                return copyTo;
+            }
+            LinkedHashSet<String> chain = copyChain.get();
+            if (chain.contains(copyFromKey)) {
+                reportCycle(chain, copyFromKey, copyToKey);
+                return copyTo;
+            }
             // is the copy a copy?
-            copyFrom = handleCopy(type, copyFrom);
+            chain.add(copyToKey);
+            try {
+                copyFrom = handleCopy(type, copyFrom);
+            } finally {
+                chain.remove(copyToKey);
+            }
+            if (copyCycles.contains(copyToKey)) {
+                return copyTo;
+            }
+            if (copyCycles.contains(copyFromKey) && copyCycles.add(copyToKey)) {
+                tui().errorf("(%s): Unable to copy from %s, which is part of a copy cycle", copyToKey, copyFromKey);
+                return copyTo;
+            }
             try {
                 // edit in place: if you don't, lower-level copies will keep being revisted.
                 ObjectNode target = (ObjectNode) copyTo;
@@ -79,6 +113,136 @@ public abstract class JsonSourceCopier<T extends IndexType> implements JsonTextC
         return copyTo;
     }
 
+    private void reportCycle(Set<String> chain, String copyFromKey, String copyToKey) {
+        List<String> cycle = new ArrayList<>();
+        boolean inCycle = false;
+        for (String key : chain) {
+            inCycle |= key.equals(copyFromKey);
+            if (inCycle) {
+                cycle.add(key);
+            }
+        }
+        cycle.add(copyToKey);
+        if (copyCycles.addAll(cycle)) {
+            cycle.add(copyFromKey);
+            tui().errorf("Copy cycle (%s). This is a data entry error; these copies are not resolved.",
+                    String.join(" -> ", cycle));
+        }
+    }
+
+    /**
+     * Keys of the nodes a copy reads while it is resolved: the node it copies from,
+     * and any other nodes (templates) that contribute to it.
+     */
+    protected List<String> copyDependencies(T type, JsonNode copyTo) {
+        return List.of(type.createKey(MetaFields._copy.getFrom(copyTo)));
+    }
+
+    /**
+     * Resolve all copies among the given keys ahead of other processing.
+     * <p>
+     * The nodes a copy depends on are resolved before the copy itself, so
+     * {@link #handleCopy} finds them resolved and does not recurse.
+     * Copies that do not share any dependencies are resolved in parallel
+     * (one task per connected group of nodes).
+     *
+     * @param keys keys of nodes to resolve (in order)
+     * @param typeFromKey type of node for a key
+     */
+    public void resolveCopies(Collection<String> keys, Function<String, T> typeFromKey) {
+        Map<String, List<String>> dependsOn = new LinkedHashMap<>();
+        for (String key : keys) {
+            JsonNode node = getOriginNode(key);
+            if (node != null && MetaFields._copy.existsIn(node)) {
+                dependsOn.put(key, copyDependencies(typeFromKey.apply(key), node));
+            }
+        }
+        if (dependsOn.isEmpty()) {
+            return;
+        }
+
+        // Group connected nodes (union-find), in order of the first copy in each group
+        Map<String, String> parents = new HashMap<>();
+        dependsOn.forEach((key, deps) -> deps.forEach(dep -> union(parents, key, dep)));
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String key : dependsOn.keySet()) {
+            groups.computeIfAbsent(find(parents, key), k -> new ArrayList<>()).add(key);
+        }
+        tui().debugf(Msg.SOURCE, "Resolving %d copies in %d groups", dependsOn.size(), groups.size());
+
+        OrderedTasks<Void> tasks = new OrderedTasks<>(tui(), "ttrpg-copy");
+        for (List<String> group : groups.values()) {
+            tasks.submit(() -> {
+                for (String key : dependencyOrder(group, dependsOn)) {
+                    JsonNode node = getOriginNode(key);
+                    if (node != null) {
+                        handleCopy(typeFromKey.apply(key), node);
+                    }
+                }
+                return null;
+            });
+        }
+        tasks.join();
+    }
+
+    /** Copies in the group, with the copies each one depends on before it (depth-first, no recursion) */
+    private List<String> dependencyOrder(List<String> group, Map<String, List<String>> dependsOn) {
+        Set<String> visited = new LinkedHashSet<>();
+        List<String> order = new ArrayList<>(group.size());
+        Deque<String> stack = new ArrayDeque<>();
+        Deque<Boolean> expanded = new ArrayDeque<>();
+        for (String start : group) {
+            if (!visited.add(start)) {
+                continue;
+            }
+            stack.push(start);
+            expanded.push(false);
+            while (!stack.isEmpty()) {
+                String key = stack.peek();
+                if (expanded.peek()) {
+                    stack.pop();
+                    expanded.pop();
+                    order.add(key);
+                    continue;
+                }
+                expanded.pop();
+                expanded.push(true);
+                for (String dep : dependsOn.get(key)) {
+                    // nodes without a copy need no resolution; a visited dependency is either
+                    // resolved already or part of a cycle (reported by handleCopy)
+                    if (dependsOn.containsKey(dep) && visited.add(dep)) {
+                        stack.push(dep);
+                        expanded.push(false);
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static String find(Map<String, String> parents, String key) {
+        String root = key;
+        String parent;
+        while ((parent = parents.get(root)) != null) {
+            root = parent;
+        }
+        // compress the path
+        while (!key.equals(root)) {
+            String next = parents.get(key);
+            parents.put(key, root);
+            key = next;
+        }
+        return root;
+    }
+
+    private static void union(Map<String, String> parents, String a, String b) {
+        String rootA = find(parents, a);
+        String rootB = find(parents, b);
+        if (!rootA.equals(rootB)) {
+            parents.put(rootB, rootA);
+        }
+    }
+
     /**
      * Actually do the copy, copying required values from {@code copyFrom} into {@code copyTo}.
      *
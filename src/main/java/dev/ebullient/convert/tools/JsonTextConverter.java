@@ -42,6 +42,36 @@ public interface JsonTextConverter<T extends IndexType> {
     static final Pattern footnotePattern = Pattern.compile("\\{@footnote ([^}]+)}");
     static final Pattern textAverageRoll = Pattern.compile(" (\\d+) \\((`dice:[^`]+text\\(([^)]+)\\)`)\\)");
     static final Pattern averageRoll = Pattern.compile(" (\\d+) \\(`(dice:[^`]+)` (\\([^)]+\\))\\)");
+    static final Pattern positiveModifier = Pattern.compile("(?<!-)\\+? ?(\\d+)");
+    static final Pattern singleDie = Pattern.compile("^1?d\\d+$");
+    static final Pattern singleDieWithText = Pattern.compile("^`dice:1?d\\d+\\|.*?` \\(`1?d\\d+`\\)");
+    static final Pattern singleDieRoll = Pattern.compile("^`dice:(1)?d(\\d+)\\|.*");
+
+    // Tag replacements shared by all game systems
+    static final TagReplacement hitYourSpellAttackTag = TagReplacement.of("\\{@hitYourSpellAttack ([^}]+)}", "$1");
+    static final TagReplacement hitYourSpellAttackEmptyTag = TagReplacement.of("\\{@hitYourSpellAttack}",
+            "your spell attack modifier");
+    static final TagReplacement linkTag = TagReplacement.of("\\{@link ([^}|]+)\\|([^}]+)}", "$1 ($2)");
+    static final TagReplacement dcTag = TagReplacement.of("\\{@dc ([^}]+)}", "DC $1");
+    static final TagReplacement rechargeTag = TagReplacement.of("\\{@recharge ([^}]+?)}", "(Recharge $1-6)");
+    static final TagReplacement rechargeEmptyTag = TagReplacement.of("\\{@recharge}", "(Recharge 6)");
+    static final TagReplacement filterTag = TagReplacement.of("\\{@filter ([^|}]+)\\|?[^}]*}", "$1");
+    static final TagReplacement cultTag = TagReplacement.of("\\{@cult ([^|}]+)\\|[^}]*}", "$1");
+    static final TagReplacement bookTag = TagReplacement.of("\\{@book ([^}|]+)\\|?[^}]*}", "\"$1\"");
+    static final TagReplacement cTag = TagReplacement.of("\\{@c ([^}]+?)}", "$1");
+    static final TagReplacement centerTag = TagReplacement.of("\\{@center ([^}]+?)}", "$1");
+    static final TagReplacement bTag = TagReplacement.of("\\{@b ([^}]+?)}", "**$1**");
+    static final TagReplacement boldTag = TagReplacement.of("\\{@bold ([^}]+?)}", "**$1**");
+
+    // Dice roller syntax doesn't work in HTML tables: plain text (display text or roll string)
+    static final List<TagReplacement> diceAsPlainText = List.of(
+            TagReplacement.of("\\{@d20}", "d20"),
+            TagReplacement.of(
+                    "\\{@(?:dice|damage|autodice|hit|d20|initiative|scaledice|scaledamage) ([^}|]+)\\|([^|}]+)[^}]*}",
+                    "$2"),
+            TagReplacement.of("\\{@(?:dice|damage|autodice|hit|d20|initiative|scaledice|scaledamage) ([^}|]+)}", "$1"),
+            hitYourSpellAttackTag,
+            hitYourSpellAttackEmptyTag);
 
     void appendToText(List<String> inner, JsonNode target, String heading);
 
@@ -114,14 +144,7 @@ public interface JsonTextConverter<T extends IndexType> {
         if (parseState().inHtmlTable()) {
             // Dice roller syntax doesn't work in HTML tables;
             // strip dice tags to plain text (display text or roll string)
-            return input
-                    .replaceAll("\\{@d20}", "d20")
-                    .replaceAll(
-                            "\\{@(?:dice|damage|autodice|hit|d20|initiative|scaledice|scaledamage) ([^}|]+)\\|([^|}]+)[^}]*}",
-                            "$2")
-                    .replaceAll("\\{@(?:dice|damage|autodice|hit|d20|initiative|scaledice|scaledamage) ([^}|]+)}", "$1")
-                    .replaceAll("\\{@hitYourSpellAttack ([^}]+)}", "$1")
-                    .replaceAll("\\{@hitYourSpellAttack}", "your spell attack modifier");
+            return TagReplacement.applyAll(diceAsPlainText, input);
         }
         if (input.equals("{@d20}")) {
             // this is a weird case where the input is just a d20 roll
@@ -130,8 +153,8 @@ public interface JsonTextConverter<T extends IndexType> {
 
         DiceFormulaState formulaState = parseState().diceFormulaState();
 
-        input = input.replaceAll("\\{@hitYourSpellAttack ([^}]+)}", "$1")
-                .replaceAll("\\{@hitYourSpellAttack}", "your spell attack modifier");
+        input = hitYourSpellAttackTag.apply(input);
+        input = hitYourSpellAttackEmptyTag.apply(input);
 
         Matcher m = dicePattern.matcher(input);
         if (!m.find()) {
@@ -155,8 +178,7 @@ public interface JsonTextConverter<T extends IndexType> {
                 // {@d20 0|10}, {@d20 2|+2|Perception}, {@d20 -1|\u22121|Father Belderone}
                 // {@hit +7}, {@hit 6|+6|Slam}, {@hit 6|+6 bonus}, {@hit +3|+3 to hit}
                 // @initiative -- like @hit
-                String posGroup = "(?<!-)\\+? ?(\\d+)";
-                String mod = rollString.replaceAll(posGroup, "+$1");
+                String mod = positiveModifier.matcher(rollString).replaceAll("+$1");
                 String mod20 = "1d20" + mod;
 
                 if (scaleSkillName != null) {
@@ -276,7 +298,7 @@ public interface JsonTextConverter<T extends IndexType> {
     }
 
     default String codeString(String text, DiceFormulaState formulaState) {
-        if (text.matches("^1?d\\d+$")) {
+        if (singleDie.matcher(text).matches()) {
             return formulaState.plainText() ? text : "`%s`".formatted(text);
         }
         text = text.replace("1d20", "");
@@ -298,9 +320,8 @@ public interface JsonTextConverter<T extends IndexType> {
 
         if (text.contains("reach levels")) {
             // don't look for averages here. This is spell progression
-        } else if (text.matches("^`dice:1?d\\d+\\|.*?` \\(`1?d\\d+`\\)")) {
-            text = text.replaceAll("^`dice:(1)?d(\\d+)\\|.*",
-                    "`dice:1d$2|noform|noparens|avg|text($1d$2)`");
+        } else if (singleDieWithText.matcher(text).matches()) {
+            text = singleDieRoll.matcher(text).replaceAll("`dice:1d$2|noform|noparens|avg|text($1d$2)`");
         } else {
             // otherwise look for average rolls
             // 7 (`dice:1d6+4|noform|avg` (`1d6 + 4`)) --> `dice:1d6+4|noform|avg|text(7)` (`1d6 + 4`)
@@ -0,0 +1,110 @@
+package dev.ebullient.convert.tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+import dev.ebullient.convert.tools.OrderedTasks.Turn;
+
+/**
+ * A map where the first registration wins, in the order a serial conversion
+ * would have made it, even if tasks run concurrently.
+ * <p>
+ * If an earlier task registers a different value after later tasks have already
+ * used theirs, those later tasks are converted again. A task that is converted again
+ * gives up its registrations, and makes them again (as a serial conversion would).
+ *
+ * @see OrderedTasks
+ */
+public class OrderedRegistry<K, V> {
+    private final Map<K, Claim<V>> claims = new HashMap<>();
+    private final BiPredicate<V, V> equivalent;
+
+    public OrderedRegistry(BiPredicate<V, V> equivalent) {
+        this.equivalent = equivalent;
+    }
+
+    /**
+     * Return the registered value for this key, registering the candidate
+     * (created outside of any lock) if the current task is the first to ask.
+     */
+    public V register(K key, Supplier<V> candidate) {
+        Turn turn = OrderedTasks.currentTurn();
+        synchronized (this) {
+            Claim<V> claim = claims.get(key);
+            if (claim != null && !claim.released && !turn.before(claim.turn)) {
+                return claim.usedBy(turn);
+            }
+        }
+
+        V value = candidate.get();
+
+        synchronized (this) {
+            Claim<V> claim = claims.get(key);
+            if (claim == null || claim.released || turn.before(claim.turn)) {
+                Claim<V> earlier = new Claim<>(turn, value);
+                if (claim != null) {
+                    if (equivalent.test(claim.value, value)) {
+                        earlier.users.addAll(claim.users);
+                    } else {
+                        claim.users.stream()
+                                .filter(u -> u != turn)
+                                .forEach(Turn::redo);
+                    }
+                }
+                claims.put(key, earlier);
+                claim = earlier;
+                OrderedTasks.onRedo(() -> release(earlier));
+            }
+            return claim.usedBy(turn);
+        }
+    }
+
+    public synchronized V get(K key) {
+        Claim<V> claim = claims.get(key);
+        return claim == null || claim.released ? null : claim.value;
+    }
+
+    public synchronized Collection<V> values() {
+        return claims.values().stream()
+                .filter(c -> !c.released)
+                .map(c -> c.value)
+                .toList();
+    }
+
+    /** Forget the registration: the next task to ask registers its own value */
+    public synchronized void remove(K key) {
+        claims.remove(key);
+    }
+
+    private synchronized void release(Claim<V> claim) {
+        claim.released = true;
+    }
+
+    public synchronized void clear() {
+        claims.clear();
+    }
+
+    static class Claim<V> {
+        final Turn turn;
+        final V value;
+        final List<Turn> users = new ArrayList<>();
+        boolean released;
+
+        Claim(Turn turn, V value) {
+            this.turn = turn;
+            this.value = value;
+        }
+
+        V usedBy(Turn turn) {
+            if (turn.owner != null && (users.isEmpty() || users.get(users.size() - 1) != turn)) {
+                users.add(turn);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package dev.ebullient.convert.tools;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import dev.ebullient.convert.io.Tui;
+
+/**
+ * Run conversion tasks concurrently, with the same outcome as running them
+ * one after another in submission order.
+ * <p>
+ * Most conversion work is independent. A few shared structures are not:
+ * the first registration wins (image targets, resolved skills), or iteration
+ * order depends on insertion order (background trait tables). Code that
+ * touches those uses the current {@link Turn}:
+ * <ul>
+ * <li>{@link #inOrder()} waits until all earlier tasks have completed</li>
+ * <li>{@link Turn#redo()} asks for a task to be converted again after
+ * all tasks have finished, e.g. when it used a value that an earlier task
+ * replaced</li>
+ * <li>{@link #onRedo(Runnable)} registers an action that reverts a side effect
+ * of the current task before it is converted again</li>
+ * </ul>
+ * Outside of a task, these are no-ops.
+ * <p>
+ * When tasks run concurrently, messages and log entries written by a task are held,
+ * and written in submission order when the tasks are joined. Output of a task that is
+ * converted again is discarded with the first conversion. Records that suppress
+ * repeated messages (unresolved keys, unknown sources) register an undo action, so the
+ * message is written again by the second conversion.
+ * Memoized values (slugs, links) and lazily filled lookup maps are not reverted:
+ * they depend only on the prepared index, so the second conversion computes the same values.
+ */
+public class OrderedTasks<T> {
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ThreadLocal<Turn> current = new ThreadLocal<>();
+
+    private final ExecutorService pool;
+    private final List<Task<T>> tasks = new ArrayList<>();
+
+    // Number of leading tasks (in submission order) that have completed
+    private int completed = 0;
+    private final BitSet done = new BitSet();
+
+    public OrderedTasks(Tui tui, String name) {
+        int workers = tui.parallelism();
+        this.pool = workers > 1
+                ? tui.newWorkerPool(name, workers)
+                : null;
+    }
+
+    /** The turn of the task running on this thread, or a new turn (after all others) if there is none */
+    public static Turn currentTurn() {
+        Turn turn = current.get();
+        return turn == null
+                ? new Turn(null, -1, sequence.incrementAndGet())
+                : turn;
+    }
+
+    /** Wait until all tasks submitted before the current one have completed */
+    public static void inOrder() {
+        Turn turn = current.get();
+        if (turn != null) {
+            turn.owner.awaitPredecessors(turn.index);
+        }
+    }
+
+    /** Revert a side effect of the current task if it is converted again */
+    public static void onRedo(Runnable undo) {
+        Turn turn = current.get();
+        if (turn != null) {
+            synchronized (turn.undo) {
+                turn.undo.add(undo);
+            }
+        }
+    }
+
+    /** Run the work on a worker thread (or immediately, if work is not done in parallel) */
+    public void submit(Supplier<T> work) {
+        Task<T> task = createTask(work);
+        if (pool == null) {
+            run(task);
+        } else {
+            task.future = pool.submit(() -> run(task));
+        }
+    }
+
+    /** Run the work on this thread once all previously submitted tasks have completed */
+    public void runInline(Supplier<T> work) {
+        Task<T> task = createTask(work);
+        awaitPredecessors(task.turn.index);
+        run(task);
+    }
+
+    /**
+     * Wait for all tasks to complete, convert tasks that asked for it again (in order),
+     * and return the results in submission order. The first failure is rethrown.
+     */
+    public List<T> join() {
+        try {
+            for (Task<T> task : tasks) {
+                if (task.future != null) {
+                    task.future.get();
+                }
+                if (task.failure != null) {
+                    tasks.subList(0, task.turn.index + 1).forEach(t -> Tui.release(t.turn.output));
+                    throw task.failure;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Task<T> task : tasks) {
+            if (task.turn.redo) {
+                task.turn.redo = false;
+                task.turn.undo.forEach(Runnable::run);
+                task.turn.undo.clear();
+                task.turn.output.clear();
+                run(task);
+            }
+            Tui.release(task.turn.output);
+            if (task.failure != null) {
+                throw task.failure;
+            }
+            task.turn.undo.clear();
+            results.add(task.result);
+        }
+        tasks.clear();
+        return results;
+    }
+
+    private synchronized Task<T> createTask(Supplier<T> work) {
+        Task<T> task = new Task<>(new Turn(this, tasks.size(), sequence.incrementAndGet()), work);
+        tasks.add(task);
+        return task;
+    }
+
+    private Void run(Task<T> task) {
+        Turn previous = current.get();
+        current.set(task.turn);
+        List<Runnable> held = pool == null
+                ? null
+                : Tui.holdOutput(task.turn.output);
+        try {
+            task.result = task.work.get();
+            task.failure = null;
+        } catch (RuntimeException e) {
+            task.failure = e;
+        } finally {
+            if (pool != null) {
+                Tui.holdOutput(held);
+            }
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+            complete(task.turn.index);
+        }
+        return null;
+    }
+
+    private synchronized void complete(int index) {
+        done.set(index);
+        while (done.get(completed)) {
+            completed++;
+        }
+        notifyAll();
+    }
+
+    private synchronized void awaitPredecessors(int index) {
+        while (completed < index) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while converting", e);
+            }
+        }
+    }
+
+    /**
+     * Position of a task in the serial order.
+     */
+    public static final class Turn {
+        final OrderedTasks<?> owner;
+        final int index;
+        final long position;
+        final List<Runnable> undo = new ArrayList<>();
+        final List<Runnable> output = new ArrayList<>();
+        volatile boolean redo;
+
+        Turn(OrderedTasks<?> owner, int index, long position) {
+            this.owner = owner;
+            this.index = index;
+            this.position = position;
+        }
+
+        /** True if this turn comes before the other in the serial order */
+        public boolean before(Turn other) {
+            return position < other.position;
+        }
+
+        /** Convert this task again once all tasks have completed */
+        public void redo() {
+            if (owner != null) {
+                redo = true;
+            }
+        }
+    }
+
+    static class Task<T> {
+        final Turn turn;
+        final Supplier<T> work;
+        Future<?> future;
+        T result;
+        RuntimeException failure;
+
+        Task(Turn turn, Supplier<T> work) {
+            this.turn = turn;
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.ebullient.convert.tools;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A precompiled replacement for a single {@code {@tag ...}} form.
+ * <p>
+ * Each pattern starts with a literal tag prefix (e.g. {@code \{@dc }); the replacement
+ * is skipped entirely unless the text contains that prefix. The result is the same
+ * as {@code text.replaceAll(regex, replacement)}.
+ */
+public record TagReplacement(String prefix, Pattern pattern, String replacement) {
+
+    /**
+     * @param regex regular expression that must begin with {@code \{@} followed by the tag name
+     * @param replacement replacement string, as for {@link String#replaceAll(String, String)}
+     */
+    public static TagReplacement of(String regex, String replacement) {
+        if (!regex.startsWith("\\{@")) {
+            throw new IllegalArgumentException("Tag replacement must start with \\{@: " + regex);
+        }
+        int end = 3;
+        while (end < regex.length() && Character.isLetterOrDigit(regex.charAt(end))) {
+            end++;
+        }
+        return new TagReplacement("{@" + regex.substring(3, end), Pattern.compile(regex), replacement);
+    }
+
+    public String apply(String text) {
+        if (!text.contains(prefix)) {
+            return text;
+        }
+        return pattern.matcher(text).replaceAll(replacement);
+    }
+
+    /**
+     * @return true if the text contains {@code {@tag } for any of the given tag names
+     */
+    public static boolean containsTag(String text, Set<String> tags) {
+        int pos = text.indexOf("{@");
+        while (pos >= 0) {
+            int end = pos + 2;
+            while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                end++;
+            }
+            if (end < text.length() && text.charAt(end) == ' ' && tags.contains(text.substring(pos + 2, end))) {
+                return true;
+            }
+            pos = text.indexOf("{@", end);
+        }
+        return false;
+    }
+
+    /** Apply each replacement in order */
+    public static String applyAll(List<TagReplacement> replacements, String text) {
+        for (TagReplacement r : replacements) {
+            text = r.apply(text);
+        }
+        return text;
+    }
+}
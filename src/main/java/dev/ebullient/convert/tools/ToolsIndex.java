@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import dev.ebullient.convert.config.CompendiumConfig;
 import dev.ebullient.convert.config.Datasource;
 import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.InputFields;
 import dev.ebullient.convert.io.MarkdownWriter;
 import dev.ebullient.convert.tools.dnd5e.Tools5eIndex;
 import dev.ebullient.convert.tools.pf2e.Pf2eIndex;
@@ -85,6 +86,14 @@ public interface ToolsIndex {
 
     ToolsIndex importTree(String filename, JsonNode node);
 
+    /**
+     * @return top-level fields of data files that {@link #importTree(String, JsonNode)} uses,
+     *         or null if it needs whole files
+     */
+    default InputFields inputFields() {
+        return null;
+    }
+
     MarkdownConverter markdownConverter(MarkdownWriter writer);
 
     void writeFullIndex(Path resolve) throws IOException;
@@ -5,10 +5,12 @@ import static dev.ebullient.convert.StringUtil.isPresent;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -31,9 +33,22 @@ public class HomebrewIndex implements JsonSource {
         this.index = index;
     }
 
-    public void importBrew(Consumer<HomebrewMetaTypes> processHomebrewTree) {
-        for (HomebrewMetaTypes homebrew : homebrewMetaTypes.values()) {
-            processHomebrewTree.accept(homebrew);
+    /**
+     * Import homebrew trees. Entries are collected from each tree in parallel,
+     * then added to the index one tree at a time, always in the same order.
+     *
+     * @param collectHomebrewTree collect entries from a tree; returns the task that adds them to the index
+     */
+    public void importBrew(Function<HomebrewMetaTypes, Runnable> collectHomebrewTree) {
+        // a tree that defines more than one source is imported once
+        List<HomebrewMetaTypes> brews = homebrewMetaTypes.values().stream().distinct().toList();
+        Runnable[] imports = new Runnable[brews.size()];
+        tui().inParallel("ttrpg-homebrew", IntStream.range(0, brews.size()).boxed().toList(),
+                i -> imports[i] = collectHomebrewTree.apply(brews.get(i)));
+
+        for (int i = 0; i < brews.size(); i++) {
+            HomebrewMetaTypes homebrew = brews.get(i);
+            imports[i].run();
             for (var featureType : homebrew.optionalFeatureTypes.keySet()) {
                 index.optFeatureIndex.addOptionalFeatureType(featureType, homebrew);
             }
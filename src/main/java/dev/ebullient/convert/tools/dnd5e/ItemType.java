@@ -4,8 +4,8 @@ import static dev.ebullient.convert.StringUtil.isPresent;
 import static dev.ebullient.convert.StringUtil.toAnchorTag;
 import static dev.ebullient.convert.StringUtil.valueOrDefault;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -52,7 +52,7 @@ public record ItemType(
                 : linkText;
     }
 
-    public static final Map<String, ItemType> typeMap = new HashMap<>();
+    public static final Map<String, ItemType> typeMap = new ConcurrentHashMap<>();
 
     public static ItemType forKey(String key) {
         if (!isPresent(key)) {
@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -36,7 +37,7 @@ import dev.ebullient.convert.tools.dnd5e.qute.QuteSubclass;
 public class Json2QuteClass extends Json2QuteCommon {
     final static Pattern footnotePattern = Pattern.compile("\\^\\[([^\\]]+)\\]");
 
-    final static Map<String, ClassFeature> keyToClassFeature = new HashMap<>();
+    final static Map<String, ClassFeature> keyToClassFeature = new ConcurrentHashMap<>();
 
     final Map<String, List<String>> startingText = new HashMap<>();
     final boolean isSidekick;
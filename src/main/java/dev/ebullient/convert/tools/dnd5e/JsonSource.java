@@ -11,6 +11,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -29,6 +30,7 @@ import dev.ebullient.convert.qute.SourceAndPage;
 import dev.ebullient.convert.tools.JsonNodeReader;
 import dev.ebullient.convert.tools.JsonSourceCopier.MetaFields;
 import dev.ebullient.convert.tools.JsonTextConverter;
+import dev.ebullient.convert.tools.OrderedTasks;
 import dev.ebullient.convert.tools.ParseState;
 import dev.ebullient.convert.tools.ToolsIndex.TtrpgValue;
 import dev.ebullient.convert.tools.dnd5e.HomebrewIndex.HomebrewMetaTypes;
@@ -843,11 +845,17 @@ public interface JsonSource extends JsonTextReplacement {
                 table.add(0, "**" + replaceText(caption) + "**");
             }
 
-            switch (blockid) {
-                case "personality-trait" -> Json2QuteBackground.traits.addAll(table);
-                case "ideal" -> Json2QuteBackground.ideals.addAll(table);
-                case "bond" -> Json2QuteBackground.bonds.addAll(table);
-                case "flaw" -> Json2QuteBackground.flaws.addAll(table);
+            Set<String> backgroundTable = switch (blockid) {
+                case "personality-trait" -> Json2QuteBackground.traits;
+                case "ideal" -> Json2QuteBackground.ideals;
+                case "bond" -> Json2QuteBackground.bonds;
+                case "flaw" -> Json2QuteBackground.flaws;
+                default -> null;
+            };
+            if (backgroundTable != null) {
+                // shared tables: add rows in the same order as a serial conversion
+                OrderedTasks.inOrder();
+                backgroundTable.addAll(table);
             }
 
             JsonNode intro = TableFields.intro.getFrom(tableNode);
@@ -11,11 +11,11 @@ import static dev.ebullient.convert.StringUtil.valueOrDefault;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
@@ -32,6 +32,7 @@ import dev.ebullient.convert.io.Msg;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.qute.ImageRef;
 import dev.ebullient.convert.tools.JsonTextConverter;
+import dev.ebullient.convert.tools.TagReplacement;
 import dev.ebullient.convert.tools.dnd5e.OptionalFeatureIndex.OptionalFeatureCondition;
 import dev.ebullient.convert.tools.dnd5e.qute.AbilityScores;
 
@@ -42,6 +43,12 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
             + "|feat|hazard|item|itemMastery|itemProperty|itemType|legroup|object|psionic|race|reward"
             + "|sense|skill|spell|status|subclass|table|variantrule|vehicle"
             + "|optfeature|classFeature|subclassFeature|trap) ([^}]+)}");
+    // tags matched by linkifyPattern (including the empty tag)
+    static final Set<String> linkifyTags = Set.of(
+            "", "action", "background", "card", "class", "condition", "creature", "creatureFluff", "deck", "deity",
+            "disease", "facility", "feat", "hazard", "item", "itemMastery", "itemProperty", "itemType", "legroup",
+            "object", "psionic", "race", "reward", "sense", "skill", "spell", "status", "subclass", "table",
+            "variantrule", "vehicle", "optfeature", "classFeature", "subclassFeature", "trap");
     static final Pattern chancePattern = Pattern.compile("\\{@chance ([^}]+)}");
     static final Pattern fontPattern = Pattern.compile("\\{@font ([^}]+)}");
     static final Pattern homebrewPattern = Pattern.compile("\\{@homebrew ([^}]+)}");
@@ -59,9 +66,87 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
     static final Pattern optionalFeaturesFilter = Pattern.compile("\\{@filter ([^|}]+)\\|optionalfeatures\\|([^}]*)}");
     static final Pattern superscriptCitationPattern = Pattern.compile("\\{@(sup|cite) ([^}]+)}");
     static final Pattern promptPattern = Pattern.compile("#\\$prompt_number(?::(.*?))?\\$#");
+    static final Pattern promptTitlePrefix = Pattern.compile("^Enter ?(a|your|the)? ");
+    static final Pattern diceTableHeader = Pattern.compile("^\\d*d\\d+( \\|.*)?$");
+    static final Pattern signedDigits = Pattern.compile("[+-]?\\d+");
+    static final Pattern digits = Pattern.compile("\\d+");
+    static final Pattern bracketedText = Pattern.compile("\\[.*\\]");
+    static final Pattern supTags = Pattern.compile("</?sup>");
+    static final TagReplacement diceWithCard = TagReplacement.of("\\{@dice ([^}|]+)\\|?([^}]*)}", "$1 | $2");
+    static final TagReplacement diceRollOnly = TagReplacement.of("\\{@dice ([^}|]+)\\|?[^}]*}", "$1");
+    // Simple tags, replaced in this order
+    static final List<TagReplacement> simpleTagReplacements = List.of(
+            // "Internal links: {@5etools This Is Your Life|lifegen.html}",
+            // "External links: {@link https://discord.gg/5etools} or {@link
+            // Discord|https://discord.gg/5etools}"
+            linkTag, // this must come first
+            TagReplacement.of("\\{@link ([^}|]+)}", "$1"), // this must come first
+            TagReplacement.of("\\{@5etools ([^}|]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@5etoolsAudio ([^}|]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@loader ([^}|]+)\\|([^}]+)}", "$1 ^[$2]"),
+            TagReplacement.of("\\{@area ([^|}]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@vehupgrade ([^|}]+)\\|?[^}]*}", "$1"), // TODO: vehicle upgrade type
+            dcTag,
+            rechargeTag,
+            rechargeEmptyTag,
+            TagReplacement.of("\\{@coinflip ([^|}]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@coinflip}", "flip a coin"),
+            filterTag,
+            TagReplacement.of("\\{@boon ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2"),
+            TagReplacement.of("\\{@boon ([^|}]+)\\|[^}]*}", "$1"),
+            TagReplacement.of("\\{@boon ([^|}]+)}", "$1"),
+            TagReplacement.of("\\{@charoption ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2"),
+            TagReplacement.of("\\{@charoption ([^|}]+)\\|[^}]*}", "$1"),
+            TagReplacement.of("\\{@charoption ([^|}]+)}", "$1"),
+            TagReplacement.of("\\{@crochet ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2"),
+            TagReplacement.of("\\{@crochet ([^|}]+)\\|[^}]*}", "$1"),
+            TagReplacement.of("\\{@crochet ([^}|]+)}", "$1"),
+            TagReplacement.of("\\{@recipe ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2"),
+            TagReplacement.of("\\{@recipe ([^|}]+)\\|[^}]*}", "$1"),
+            TagReplacement.of("\\{@recipe ([^|}]+)}", "$1"),
+            TagReplacement.of("\\{@cult ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2"),
+            cultTag,
+            TagReplacement.of("\\{@cult ([^|}]+)}", "$1"),
+            TagReplacement.of("\\{@language ([^|}]+)\\|[^|}]*\\|([^|}]*)}", "$2"),
+            TagReplacement.of("\\{@language ([^|}]+)\\|[^}]*}", "$1"),
+            TagReplacement.of("\\{@language ([^|}]+)}", "$1"),
+            bookTag,
+            TagReplacement.of("\\{@h}", "*Hit:* "), // render.js Renderer.tag
+            TagReplacement.of("\\{@m}", "*Miss:* "),
+            TagReplacement.of("\\{@hom}", "*Hit or Miss:* "), // render.js Renderer.tag
+            TagReplacement.of("\\{@actSaveSuccess}", "*Success:*"), // render.js Renderer.tag
+            TagReplacement.of("\\{@actSaveSuccessOrFail}", "*Failure or Success:*"), // render.js Renderer.tag
+            TagReplacement.of("\\{@actResponse}", "Response:"), // render.js Renderer.tag
+            TagReplacement.of("\\{@actTrigger}", "Trigger:"), // render.js Renderer.tag
+            TagReplacement.of("\\{@dcYourSpellSave}", "your spell save DC"), // render.js Renderer.tag
+            TagReplacement.of("\\{@spell\\s*}", ""), // error in homebrew
+            TagReplacement.of("\\{@color ([^|}]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@style ([^|}]+)\\|?[^}]*}", "$1"),
+            bTag,
+            boldTag,
+            cTag,
+            centerTag,
+            TagReplacement.of("\\{@i ([^}]+?)}", "*$1*"),
+            TagReplacement.of("\\{@italic ([^}]+)}", "*$1*"),
+            TagReplacement.of("\\{@s ([^}]+?)}", "~~$1~~"),
+            TagReplacement.of("\\{@strike ([^}]+)}", "~~$1~~"),
+            TagReplacement.of("\\{@u ([^}]+?)}", "_$1_"),
+            TagReplacement.of("\\{@underline ([^}]+?)}", "_$1_"),
+            TagReplacement.of("\\{@comic ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@comicH1 ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@comicH2 ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@comicH3 ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@comicH4 ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@comicNote ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@highlight ([^}]+?)}", "==$1=="),
+            TagReplacement.of("\\{@code ([^}]+?)}", "`$1`"),
+            TagReplacement.of("\\{@kbd ([^}]+?)}", "`$1`"),
+            TagReplacement.of("\\{@b}", " "),
+            TagReplacement.of("\\{@i}", " "));
+    static final TagReplacement adventureLink = TagReplacement.of("\\{@adventure ([^|}]+)\\|[^}]*}", "$1");
     static final String subclassFeatureMask = "subclassfeature\\|(.*)\\|.*?\\|.*?\\|.*?\\|.*?\\|(\\d+)\\|.*";
 
-    static final Set<String> missingKeys = new HashSet<>();
+    static final Set<String> missingKeys = ConcurrentHashMap.newKeySet();
 
     Tools5eIndex index();
 
@@ -141,15 +226,15 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
             // don't do the usual dice formatting in a column header
             x = replacePromptStrings(x);
             if (x.endsWith("Card}")) {
-                x = x.replaceAll("\\{@dice ([^}|]+)\\|?([^}]*)}", "$1 | $2");
+                x = diceWithCard.apply(x);
             } else {
-                x = x.replaceAll("\\{@dice ([^}|]+)\\|?[^}]*}", "$1");
+                x = diceRollOnly.apply(x);
             }
             x = replaceText(x);
         } else {
             x = replaceText(x);
         }
-        if (x.matches("^\\d*d\\d+( \\|.*)?$")) {
+        if (diceTableHeader.matcher(x).matches()) {
             return "dice: " + x;
         }
         return x;
@@ -162,8 +247,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
             String[] parts = match.group(1).split(",");
             for (String t : parts) {
                 if (t.startsWith("title=")) {
-                    title = t.substring(6)
-                            .replaceAll("^Enter ?(a|your|the)? ", "")
+                    title = promptTitlePrefix.matcher(t.substring(6)).replaceAll("")
                             .replace("!", "")
                             .trim();
                 } else {
@@ -191,272 +275,247 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
 
         // render.js this._renderString_renderTag
         try {
-            result = replacePromptStrings(result);
+            if (result.contains("#$prompt_number")) {
+                result = replacePromptStrings(result);
+            }
+            if (!result.contains("{@")) {
+                // every remaining replacement is for a tag
+                return result;
+            }
 
             // {@dice .. }, {@damage ..}{@hit ..}, {@d20 ..}, {@initiative ...},
             // {@scaledice..}, {@scaledamage..}
             result = replaceWithDiceRoller(result);
 
-            result = chancePattern.matcher(result).replaceAll((match) -> {
-                // "Chance tags; similar to dice roller tags, but output success/failure.
-                // {@chance 50}; {@chance 50|display text}; {@chance 50|display text|rolled by
-                // name};
-                // {@chance 50|display text|rolled by name|on success text};
-                // {@chance 50|display text|rolled by name|on success text|on failure text}.",
-                String[] parts = match.group(1).split("\\|");
-                return parts.length > 1
-                        ? parts[1]
-                        : parts[0] + " percent";
-            });
-
-            result = abilitySavePattern.matcher(result).replaceAll(this::replaceSkillOrAbility);
-            result = skillCheckPattern.matcher(result).replaceAll(this::replaceSkillCheck);
-            result = savingThrowPattern.matcher(result).replaceAll(this::replaceSavingThrow);
-            result = actSaveFailPattern.matcher(result).replaceAll(this::replaceActSaveFail);
-            result = actResponse.matcher(result).replaceAll((match) -> {
-                // {@actResponse}
-                // {@actResponse d}*Wisdom
-                // textStack[0] += `<i>Response${text.includes("d") ? "\u2014" : ":"}</i>`;
-                String param = match.group(1);
-                // use underscores here, it often bumps directly against other italic text
-                return "_Response%s_".formatted(param != null && param.contains("d") ? "—" : ":");
-            });
-
-            result = superscriptCitationPattern.matcher(result).replaceAll((match) -> {
-                // {@sup {@cite Casting Times|FleeMortals|A}}
-                // {@sup whatever}
-                // {@cite Casting Times|FleeMortals|A}
-                // {@cite Casting Times|FleeMortals|{@sup A}}
-                if (match.group(1).equals("sup")) {
-                    String text = replaceText(match.group(2));
-                    if (text.startsWith("[^") || text.startsWith("^[")) {
-                        // do not put citations in superscript (obsidian/markdown will do it)
-                        return text;
+            if (result.contains("{@chance")) {
+                result = chancePattern.matcher(result).replaceAll((match) -> {
+                    // "Chance tags; similar to dice roller tags, but output success/failure.
+                    // {@chance 50}; {@chance 50|display text}; {@chance 50|display text|rolled by
+                    // name};
+                    // {@chance 50|display text|rolled by name|on success text};
+                    // {@chance 50|display text|rolled by name|on success text|on failure text}.",
+                    String[] parts = match.group(1).split("\\|");
+                    return parts.length > 1
+                            ? parts[1]
+                            : parts[0] + " percent";
+                });
+            }
+
+            if (result.contains("{@ability") || result.contains("{@savingThrow")) {
+                result = abilitySavePattern.matcher(result).replaceAll(this::replaceSkillOrAbility);
+            }
+
+            if (result.contains("{@skillCheck")) {
+                result = skillCheckPattern.matcher(result).replaceAll(this::replaceSkillCheck);
+            }
+
+            if (result.contains("{@actSave")) {
+                result = savingThrowPattern.matcher(result).replaceAll(this::replaceSavingThrow);
+            }
+
+            if (result.contains("{@actSaveFail")) {
+                result = actSaveFailPattern.matcher(result).replaceAll(this::replaceActSaveFail);
+            }
+
+            if (result.contains("{@actResponse")) {
+                result = actResponse.matcher(result).replaceAll((match) -> {
+                    // {@actResponse}
+                    // {@actResponse d}*Wisdom
+                    // textStack[0] += `<i>Response${text.includes("d") ? "\u2014" : ":"}</i>`;
+                    String param = match.group(1);
+                    // use underscores here, it often bumps directly against other italic text
+                    return "_Response%s_".formatted(param != null && param.contains("d") ? "—" : ":");
+                });
+            }
+
+            if (result.contains("{@sup") || result.contains("{@cite")) {
+                result = superscriptCitationPattern.matcher(result).replaceAll((match) -> {
+                    // {@sup {@cite Casting Times|FleeMortals|A}}
+                    // {@sup whatever}
+                    // {@cite Casting Times|FleeMortals|A}
+                    // {@cite Casting Times|FleeMortals|{@sup A}}
+                    if (match.group(1).equals("sup")) {
+                        String text = replaceText(match.group(2));
+                        if (text.startsWith("[^") || text.startsWith("^[")) {
+                            // do not put citations in superscript (obsidian/markdown will do it)
+                            return text;
+                        }
+                        return "<sup>" + text + "</sup>";
                     }
-                    return "<sup>" + text + "</sup>";
-                }
-                return handleCitation(match.group(2));
-            });
-
-            result = homebrewPattern.matcher(result).replaceAll((match) -> {
-                // {@homebrew changes|modifications}, {@homebrew additions} or {@homebrew
-                // |removals}
-                String s = match.group(1);
-                int pos = s.indexOf('|');
-                if (pos == 0) { // removal
-                    return "[...] ^[The following text has been removed with this homebrew: " + s.substring(1) + "]";
-                } else if (pos < 0) { // addition
-                    return s + " ^[This is a homebrew addition]";
-                }
-                String oldText = s.substring(0, pos);
-                String newText = s.substring(pos + 1);
-
-                return newText + " ^[This is a homebrew addition, replacing the following: " + oldText + "]";
-            });
-
-            result = linkTo5eImgRepo.matcher(result).replaceAll((match) -> {
-                // External links to materials in the 5eTools image repo (usually pdf):
-                // {@5etoolsImg Players Handbook Cover|covers/PHB.webp}
-                // const fauxEntry = {
-                //     type: "link",
-                //     href: {
-                //         type: "external",
-                //         url: UrlUtil.link(this.getMediaUrl("img", page)),
-                //     },
-                //     text: displayText,
-                // };
-                String orig = match.group(0);
-                if (!orig.contains("|")) {
-                    return orig;
-                }
+                    return handleCitation(match.group(2));
+                });
+            }
 
-                String[] parts = match.group(1).split("\\|");
-                String imgRepo = TtrpgConfig.getConstant(TtrpgConfig.DEFAULT_IMG_ROOT);
-                String url = ImageRef.Builder.fixUrl(imgRepo + (imgRepo.endsWith("/") ? "" : "/") + parts[1]);
+            if (result.contains("{@homebrew")) {
+                result = homebrewPattern.matcher(result).replaceAll((match) -> {
+                    // {@homebrew changes|modifications}, {@homebrew additions} or {@homebrew
+                    // |removals}
+                    String s = match.group(1);
+                    int pos = s.indexOf('|');
+                    if (pos == 0) { // removal
+                        return "[...] ^[The following text has been removed with this homebrew: " + s.substring(1) + "]";
+                    } else if (pos < 0) { // addition
+                        return s + " ^[This is a homebrew addition]";
+                    }
+                    String oldText = s.substring(0, pos);
+                    String newText = s.substring(pos + 1);
 
-                return "[%s](%s)".formatted(parts[0], url);
-            });
+                    return newText + " ^[This is a homebrew addition, replacing the following: " + oldText + "]";
+                });
+            }
 
-            result = linkifyPattern.matcher(result)
-                    .replaceAll(this::linkify);
+            if (result.contains("{@5etoolsImg")) {
+                result = linkTo5eImgRepo.matcher(result).replaceAll((match) -> {
+                    // External links to materials in the 5eTools image repo (usually pdf):
+                    // {@5etoolsImg Players Handbook Cover|covers/PHB.webp}
+                    // const fauxEntry = {
+                    //     type: "link",
+                    //     href: {
+                    //         type: "external",
+                    //         url: UrlUtil.link(this.getMediaUrl("img", page)),
+                    //     },
+                    //     text: displayText,
+                    // };
+                    String orig = match.group(0);
+                    if (!orig.contains("|")) {
+                        return orig;
+                    }
 
-            result = optionalFeaturesFilter.matcher(result)
-                    .replaceAll(this::linkifyOptionalFeatureType);
+                    String[] parts = match.group(1).split("\\|");
+                    String imgRepo = TtrpgConfig.getConstant(TtrpgConfig.DEFAULT_IMG_ROOT);
+                    String url = ImageRef.Builder.fixUrl(imgRepo + (imgRepo.endsWith("/") ? "" : "/") + parts[1]);
 
-            result = quickRefPattern.matcher(result).replaceAll((match) -> {
-                String[] parts = match.group(1).split("\\|");
-                if (parts.length > 4) {
-                    return parts[4];
-                }
-                return parts[0];
-            });
-
-            result = fontPattern.matcher(result).replaceAll((match) -> {
-                String[] parts = match.group(1).split("\\|");
-                String fontFamily = Tools5eSources.getFontReference(parts[1]);
-                if (fontFamily != null) {
-                    return "<span style=\"font-family: %s\">%s</span>".formatted(
-                            fontFamily, parts[0]);
-                }
-                return parts[0];
-            });
-
-            result = attackPattern.matcher(result).replaceAll((match) -> {
-                List<String> type = new ArrayList<>();
-                String method = "";
-                // render.js Renderer.attackTagToFull
-                // const ptType = tags.includes("m") ? "Melee " : tags.includes("r") ? "Ranged "
-                // : tags.includes("g") ? "Magical " : tags.includes("a") ? "Area " : "";
-                // const ptMethod = tags.includes("w") ? "Weapon " : tags.includes("s") ? "Spell
-                // " : tags.includes("p") ? "Power " : "";
-                if (match.group(1).contains("m")) {
-                    type.add("Melee ");
-                }
-                if (match.group(1).contains("r")) {
-                    type.add("Ranged ");
-                }
-                if (match.group(1).contains("g")) {
-                    type.add("Magical ");
-                }
-                if (match.group(1).contains("a")) {
-                    type.add("Area ");
-                }
+                    return "[%s](%s)".formatted(parts[0], url);
+                });
+            }
 
-                if (match.group(1).contains("w")) {
-                    method = "Weapon ";
-                } else if (match.group(1).contains("s")) {
-                    method = "Spell ";
-                } else if (match.group(1).contains("p")) {
-                    method = "Power ";
-                }
+            if (TagReplacement.containsTag(result, linkifyTags)) {
+                result = linkifyPattern.matcher(result)
+                        .replaceAll(this::linkify);
+            }
 
-                if (method.isBlank()) {
-                    return String.format("*%sAttack Roll:*", joinConjunct(", ", " or ", type));
-                } else {
-                    return String.format("*%s%sAttack:*", joinConjunct(", ", " or ", type), method);
-                }
-            });
+            if (result.contains("{@filter")) {
+                result = optionalFeaturesFilter.matcher(result)
+                        .replaceAll(this::linkifyOptionalFeatureType);
+            }
+
+            if (result.contains("{@quickref")) {
+                result = quickRefPattern.matcher(result).replaceAll((match) -> {
+                    String[] parts = match.group(1).split("\\|");
+                    if (parts.length > 4) {
+                        return parts[4];
+                    }
+                    return parts[0];
+                });
+            }
+
+            if (result.contains("{@font")) {
+                result = fontPattern.matcher(result).replaceAll((match) -> {
+                    String[] parts = match.group(1).split("\\|");
+                    String fontFamily = Tools5eSources.getFontReference(parts[1]);
+                    if (fontFamily != null) {
+                        return "<span style=\"font-family: %s\">%s</span>".formatted(
+                                fontFamily, parts[0]);
+                    }
+                    return parts[0];
+                });
+            }
+
+            if (result.contains("{@atk")) {
+                result = attackPattern.matcher(result).replaceAll((match) -> {
+                    List<String> type = new ArrayList<>();
+                    String method = "";
+                    // render.js Renderer.attackTagToFull
+                    // const ptType = tags.includes("m") ? "Melee " : tags.includes("r") ? "Ranged "
+                    // : tags.includes("g") ? "Magical " : tags.includes("a") ? "Area " : "";
+                    // const ptMethod = tags.includes("w") ? "Weapon " : tags.includes("s") ? "Spell
+                    // " : tags.includes("p") ? "Power " : "";
+                    if (match.group(1).contains("m")) {
+                        type.add("Melee ");
+                    }
+                    if (match.group(1).contains("r")) {
+                        type.add("Ranged ");
+                    }
+                    if (match.group(1).contains("g")) {
+                        type.add("Magical ");
+                    }
+                    if (match.group(1).contains("a")) {
+                        type.add("Area ");
+                    }
+
+                    if (match.group(1).contains("w")) {
+                        method = "Weapon ";
+                    } else if (match.group(1).contains("s")) {
+                        method = "Spell ";
+                    } else if (match.group(1).contains("p")) {
+                        method = "Power ";
+                    }
+
+                    if (method.isBlank()) {
+                        return String.format("*%sAttack Roll:*", joinConjunct(", ", " or ", type));
+                    } else {
+                        return String.format("*%s%sAttack:*", joinConjunct(", ", " or ", type), method);
+                    }
+                });
+            }
 
             try {
-                result = result
-                        // "Internal links: {@5etools This Is Your Life|lifegen.html}",
-                        // "External links: {@link https://discord.gg/5etools} or {@link
-                        // Discord|https://discord.gg/5etools}"
-                        .replaceAll("\\{@link ([^}|]+)\\|([^}]+)}", "$1 ($2)") // this must come first
-                        .replaceAll("\\{@link ([^}|]+)}", "$1") // this must come first
-                        .replaceAll("\\{@5etools ([^}|]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@5etoolsAudio ([^}|]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@loader ([^}|]+)\\|([^}]+)}", "$1 ^[$2]")
-                        .replaceAll("\\{@area ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@vehupgrade ([^|}]+)\\|?[^}]*}", "$1") // TODO: vehicle upgrade type
-                        .replaceAll("\\{@dc ([^}]+)}", "DC $1")
-                        .replaceAll("\\{@recharge ([^}]+?)}", "(Recharge $1-6)")
-                        .replaceAll("\\{@recharge}", "(Recharge 6)")
-                        .replaceAll("\\{@coinflip ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@coinflip}", "flip a coin")
-                        .replaceAll("\\{@filter ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@boon ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@boon ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@boon ([^|}]+)}", "$1")
-                        .replaceAll("\\{@charoption ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@charoption ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@charoption ([^|}]+)}", "$1")
-                        .replaceAll("\\{@crochet ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@crochet ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@crochet ([^}|]+)}", "$1")
-                        .replaceAll("\\{@recipe ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@recipe ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@recipe ([^|}]+)}", "$1")
-                        .replaceAll("\\{@cult ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@cult ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@cult ([^|}]+)}", "$1")
-                        .replaceAll("\\{@language ([^|}]+)\\|[^|}]*\\|([^|}]*)}", "$2")
-                        .replaceAll("\\{@language ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@language ([^|}]+)}", "$1")
-                        .replaceAll("\\{@book ([^}|]+)\\|?[^}]*}", "\"$1\"")
-                        .replaceAll("\\{@h}", "*Hit:* ") // render.js Renderer.tag
-                        .replaceAll("\\{@m}", "*Miss:* ")
-                        .replaceAll("\\{@hom}", "*Hit or Miss:* ")// render.js Renderer.tag
-                        .replaceAll("\\{@actSaveSuccess}", "*Success:*") // render.js Renderer.tag
-                        .replaceAll("\\{@actSaveSuccessOrFail}", "*Failure or Success:*") // render.js Renderer.tag
-                        .replaceAll("\\{@actResponse}", "Response:") // render.js Renderer.tag
-                        .replaceAll("\\{@actTrigger}", "Trigger:") // render.js Renderer.tag
-                        .replaceAll("\\{@dcYourSpellSave}", "your spell save DC") // render.js Renderer.tag
-                        .replaceAll("\\{@spell\\s*}", "") // error in homebrew
-                        .replaceAll("\\{@color ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@style ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@b ([^}]+?)}", "**$1**")
-                        .replaceAll("\\{@bold ([^}]+?)}", "**$1**")
-                        .replaceAll("\\{@c ([^}]+?)}", "$1")
-                        .replaceAll("\\{@center ([^}]+?)}", "$1")
-                        .replaceAll("\\{@i ([^}]+?)}", "*$1*")
-                        .replaceAll("\\{@italic ([^}]+)}", "*$1*")
-                        .replaceAll("\\{@s ([^}]+?)}", "~~$1~~")
-                        .replaceAll("\\{@strike ([^}]+)}", "~~$1~~")
-                        .replaceAll("\\{@u ([^}]+?)}", "_$1_")
-                        .replaceAll("\\{@underline ([^}]+?)}", "_$1_")
-                        .replaceAll("\\{@comic ([^}]+?)}", "$1")
-                        .replaceAll("\\{@comicH1 ([^}]+?)}", "$1")
-                        .replaceAll("\\{@comicH2 ([^}]+?)}", "$1")
-                        .replaceAll("\\{@comicH3 ([^}]+?)}", "$1")
-                        .replaceAll("\\{@comicH4 ([^}]+?)}", "$1")
-                        .replaceAll("\\{@comicNote ([^}]+?)}", "$1")
-                        .replaceAll("\\{@highlight ([^}]+?)}", "==$1==")
-                        .replaceAll("\\{@code ([^}]+?)}", "`$1`")
-                        .replaceAll("\\{@kbd ([^}]+?)}", "`$1`")
-                        .replaceAll("\\{@b}", " ")
-                        .replaceAll("\\{@i}", " ");
+                result = TagReplacement.applyAll(simpleTagReplacements, result);
             } catch (Exception e) {
                 tui().errorf(e, "Unable to parse string from %s: %s", getSources().getKey(), input);
             }
 
-            result = footnotePattern.matcher(result).replaceAll((match) -> {
-                // {@footnote directly in text|This is primarily for homebrew purposes, as the
-                // official texts (so far) avoid using footnotes},
-                // {@footnote optional reference information|This is the footnote. References
-                // are free text.|Footnote 1, page 20}.",
-                // We're converting these to _inline_ markdown footnotes, as numbering is
-                // difficult to track
-                String[] parts = match.group(1).split("\\|");
-                if (parts[0].contains("<sup>")) {
-                    // This already assumes what the footnote name will be
-                    // TODO: Note content is lost on this path at the moment
-                    return parts[0];
-                }
-                if (parts.length > 2) {
-                    return "%s ^[%s, _%s_]".formatted(parts[0], parts[1], parts[2]);
-                }
-                return "%s ^[%s]".formatted(parts[0], parts[1]);
-            });
-
-            result = notePattern.matcher(result).replaceAll((match) -> {
-                return switch (match.group(1)) {
-                    case "note" -> {
-                        // {@note This is a note}
-                        if (nested) {
-                            yield "<span class='note'>**Note:** " + replaceText(match.group(2).trim()) + "</span>";
-                        } else {
-                            List<String> text = new ArrayList<>();
-                            text.add("> [!note]");
-                            for (String line : match.group(2).split("\n")) {
-                                text.add("> " + replaceText(line.trim()));
-                            }
-                            yield String.join("\n", text);
-                        }
+            if (result.contains("{@footnote")) {
+                result = footnotePattern.matcher(result).replaceAll((match) -> {
+                    // {@footnote directly in text|This is primarily for homebrew purposes, as the
+                    // official texts (so far) avoid using footnotes},
+                    // {@footnote optional reference information|This is the footnote. References
+                    // are free text.|Footnote 1, page 20}.",
+                    // We're converting these to _inline_ markdown footnotes, as numbering is
+                    // difficult to track
+                    String[] parts = match.group(1).split("\\|");
+                    if (parts[0].contains("<sup>")) {
+                        // This already assumes what the footnote name will be
+                        // TODO: Note content is lost on this path at the moment
+                        return parts[0];
                     }
-                    case "tip" -> {
-                        // {@tip tooltip tags|a note}
-                        String[] parts = match.group(2).split("\\|");
-                        yield "<span class='tip' title='%s'>%s</span>".formatted(parts[1], parts[0]);
+                    if (parts.length > 2) {
+                        return "%s ^[%s, _%s_]".formatted(parts[0], parts[1], parts[2]);
                     }
-                    default -> {
-                        yield match.group(0);
-                    }
-                };
-            });
+                    return "%s ^[%s]".formatted(parts[0], parts[1]);
+                });
+            }
+
+            if (result.contains("{@note") || result.contains("{@tip")) {
+                result = notePattern.matcher(result).replaceAll((match) -> {
+                    return switch (match.group(1)) {
+                        case "note" -> {
+                            // {@note This is a note}
+                            if (nested) {
+                                yield "<span class='note'>**Note:** " + replaceText(match.group(2).trim()) + "</span>";
+                            } else {
+                                List<String> text = new ArrayList<>();
+                                text.add("> [!note]");
+                                for (String line : match.group(2).split("\n")) {
+                                    text.add("> " + replaceText(line.trim()));
+                                }
+                                yield String.join("\n", text);
+                            }
+                        }
+                        case "tip" -> {
+                            // {@tip tooltip tags|a note}
+                            String[] parts = match.group(2).split("\\|");
+                            yield "<span class='tip' title='%s'>%s</span>".formatted(parts[1], parts[0]);
+                        }
+                        default -> {
+                            yield match.group(0);
+                        }
+                    };
+                });
+            }
 
             // after other replacements
-            return result.replaceAll("\\{@adventure ([^|}]+)\\|[^}]*}", "$1");
+            return adventureLink.apply(result);
 
         } catch (IllegalArgumentException e) {
             tui().errorf(e, "Failure replacing text: %s", e.getMessage());
@@ -505,7 +564,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
         SkillOrAbility abilityScore = index().findSkillOrAbility(ability, getSources());
 
         final String text;
-        if (!abilityCheck && !score.matches("[+-]?\\d+")) {
+        if (!abilityCheck && !signedDigits.matcher(score).matches()) {
             // Saving throws can have e.g. `+ PB`
             text = valueOrDefault(parts, 1, score);
         } else {
@@ -548,7 +607,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
         String text = valueOrDefault(parts, 1, linkifySkill(skill));
 
         String dice = score[1];
-        if (score[1].matches("\\d+")) {
+        if (digits.matcher(score[1]).matches()) {
             int value = Integer.parseInt(score[1]);
             dice = "%s%s".formatted(value >= 0 ? "+" : "", value);
         }
@@ -920,8 +979,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
         Tools5eIndexType type = Tools5eIndexType.variantrule;
         String[] parts = variant.trim().split("\\|");
         String source = valueOrDefault(parts, 1, Tools5eIndexType.variantrule.defaultSourceString());
-        String linkText = valueOrDefault(parts, 2, parts[0])
-                .replaceAll("\\[.*\\]", "");
+        String linkText = bracketedText.matcher(valueOrDefault(parts, 2, parts[0])).replaceAll("");
 
         String key = findKey(type, parts[0], source);
 
@@ -1023,7 +1081,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Tools5eIndexType>
             return citationTag;
         }
         String key = index().getAliasOrDefault(Tools5eIndexType.citation.createKey(parts[0], parts[1]));
-        String annotation = replaceText(parts[2]).replaceAll("</?sup>", "");
+        String annotation = supTags.matcher(replaceText(parts[2])).replaceAll("");
         JsonNode jsonSource = index().getNode(key);
         if (index().isExcluded(key) || jsonSource == null) {
             return annotation;
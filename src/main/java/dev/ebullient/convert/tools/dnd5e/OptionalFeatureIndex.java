@@ -5,10 +5,8 @@ import static dev.ebullient.convert.StringUtil.joinConjunct;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -20,6 +18,7 @@ import dev.ebullient.convert.config.CompendiumConfig;
 import dev.ebullient.convert.io.Msg;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonNodeReader;
+import dev.ebullient.convert.tools.OrderedRegistry;
 import dev.ebullient.convert.tools.dnd5e.HomebrewIndex.HomebrewMetaTypes;
 import dev.ebullient.convert.tools.dnd5e.Json2QuteClass.ClassFields;
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -27,7 +26,8 @@ import io.quarkus.runtime.annotations.RegisterForReflection;
 @RegisterForReflection
 public class OptionalFeatureIndex implements JsonSource {
     private final Map<String, OptionalFeatureType> optFeatureIndex = new HashMap<>();
-    private final Set<String> unresolvedFeatureTypes = new HashSet<>();
+    // Reported once, by the first entry (in serial order) that looks for the type
+    private final OrderedRegistry<String, Boolean> unresolvedFeatureTypes = new OrderedRegistry<>((a, b) -> false);
     private final Tools5eIndex index;
 
     OptionalFeatureIndex(Tools5eIndex index) {
@@ -113,14 +113,22 @@ public class OptionalFeatureIndex implements JsonSource {
     public OptionalFeatureType get(String featureType) {
         var lowerType = featureType.toLowerCase();
         OptionalFeatureType type = optFeatureIndex.get(lowerType);
-        if (type == null && unresolvedFeatureTypes.add(lowerType)) {
-            tui().logf(Msg.UNRESOLVED, "OptionalFeatureType %s not found", lowerType);
+        if (type == null) {
+            unresolvedFeatureTypes.register(lowerType, () -> {
+                tui().logf(Msg.UNRESOLVED, "OptionalFeatureType %s not found", lowerType);
+                return Boolean.TRUE;
+            });
         }
         return type;
     }
 
     public void clear() {
         optFeatureIndex.clear();
+        unresolvedFeatureTypes.clear();
+    }
+
+    void clearUnresolved() {
+        unresolvedFeatureTypes.clear();
     }
 
     public Map<String, OptionalFeatureType> getMap() {
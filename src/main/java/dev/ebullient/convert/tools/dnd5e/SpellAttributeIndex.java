@@ -0,0 +1,152 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import dev.ebullient.convert.tools.dnd5e.SpellIndex.FilterConditions;
+
+/**
+ * Attribute index for spell list filters (e.g. {@code level=0|class=Wizard}).
+ * <p>
+ * Each spell is assigned an ordinal; each attribute value (level, school, class,
+ * spell attack, ritual, filter source) maps to a bitset of spells. A filter is the
+ * intersection of the union of bitsets for each condition.
+ * <p>
+ * Spells can be added (and gain classes) while filters are being resolved,
+ * so the index is updated as that happens. Results for a filter string are cached
+ * until the index changes.
+ * <p>
+ * Used only while the spell index is built (in prepare, on one thread).
+ */
+class SpellAttributeIndex {
+    private final List<SpellEntry> spells = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private final BitSet all = new BitSet();
+    private final BitSet ritual = new BitSet();
+    private final Map<String, BitSet> byLevel = new HashMap<>();
+    private final Map<String, BitSet> bySchool = new HashMap<>();
+    private final Map<String, BitSet> byClass = new HashMap<>();
+    private final Map<String, BitSet> bySpellAttack = new HashMap<>();
+    /** Filter source values are arbitrary: bitsets are computed on first use */
+    private final Map<String, BitSet> bySource = new HashMap<>();
+
+    private final Map<String, BitSet> resultCache = new HashMap<>();
+
+    SpellAttributeIndex(Iterable<SpellEntry> entries) {
+        entries.forEach(this::add);
+    }
+
+    /** Add a spell (no-op if already present) */
+    void add(SpellEntry spell) {
+        if (ordinals.containsKey(spell.spellKey)) {
+            return;
+        }
+        int i = spells.size();
+        spells.add(spell);
+        ordinals.put(spell.spellKey, i);
+
+        all.set(i);
+        if (spell.ritual) {
+            ritual.set(i);
+        }
+        bitsFor(byLevel, spell.level).set(i);
+        if (spell.school != null) {
+            bitsFor(bySchool, spell.school.code()).set(i);
+        }
+        for (String attack : spell.spellAttack) {
+            bitsFor(bySpellAttack, attack.toUpperCase()).set(i);
+        }
+        for (String c : spell.classes) {
+            bitsFor(byClass, c).set(i);
+        }
+        Tools5eSources spellSources = Tools5eSources.findSources(spell.spellNode);
+        for (var e : bySource.entrySet()) {
+            if (spellSources.includedBy(Set.of(e.getKey()))) {
+                e.getValue().set(i);
+            }
+        }
+        resultCache.clear();
+    }
+
+    /** Called after a spell has been added to a class spell list */
+    void updateClasses(SpellEntry spell) {
+        Integer i = ordinals.get(spell.spellKey);
+        if (i == null) {
+            return;
+        }
+        for (String c : spell.classes) {
+            BitSet bits = bitsFor(byClass, c);
+            if (!bits.get(i)) {
+                bits.set(i);
+                resultCache.clear();
+            }
+        }
+    }
+
+    /** Apply the action to each spell that matches all filter conditions */
+    void forEachMatch(String filter, FilterConditions conditions, Consumer<SpellEntry> action) {
+        BitSet result = resultCache.computeIfAbsent(filter, k -> match(conditions));
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            action.accept(spells.get(i));
+        }
+    }
+
+    private BitSet match(FilterConditions conditions) {
+        BitSet result = (BitSet) all.clone();
+        if (!conditions.classes.isEmpty()) {
+            result.and(anyOf(byClass, conditions.classes));
+        }
+        if (!conditions.levels.isEmpty()) {
+            result.and(anyOf(byLevel, conditions.levels));
+        }
+        if (!conditions.schools.isEmpty()) {
+            result.and(anyOf(bySchool, conditions.schools));
+        }
+        if (!conditions.sources.isEmpty()) {
+            BitSet matches = new BitSet();
+            for (String source : conditions.sources) {
+                matches.or(bySource.computeIfAbsent(source, this::includedBySource));
+            }
+            result.and(matches);
+        }
+        if (!conditions.spellAttack.isEmpty()) {
+            result.and(anyOf(bySpellAttack, conditions.spellAttack));
+        }
+        if (conditions.componentsMisc.contains("ritual")) {
+            result.and(ritual);
+        }
+        return result;
+    }
+
+    private BitSet includedBySource(String source) {
+        BitSet bits = new BitSet();
+        Set<String> sources = Set.of(source);
+        for (int i = 0; i < spells.size(); i++) {
+            if (Tools5eSources.findSources(spells.get(i).spellNode).includedBy(sources)) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    private static BitSet anyOf(Map<String, BitSet> index, Set<String> values) {
+        BitSet bits = new BitSet();
+        for (String v : values) {
+            BitSet b = index.get(v);
+            if (b != null) {
+                bits.or(b);
+            }
+        }
+        return bits;
+    }
+
+    private static BitSet bitsFor(Map<String, BitSet> index, String value) {
+        return index.computeIfAbsent(value, k -> new BitSet());
+    }
+}
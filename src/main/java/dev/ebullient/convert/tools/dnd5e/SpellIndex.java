@@ -2,6 +2,7 @@ package dev.ebullient.convert.tools.dnd5e;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -11,7 +12,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import dev.ebullient.convert.config.TtrpgConfig;
 import dev.ebullient.convert.io.Msg;
-import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonNodeReader;
 import dev.ebullient.convert.tools.dnd5e.SpellEntry.SpellReference;
 import dev.ebullient.convert.tools.dnd5e.Tools5eIndexType.IndexFields;
@@ -22,6 +22,11 @@ public class SpellIndex implements JsonSource {
 
     final Map<String, SpellEntry> spellsByKey = new TreeMap<>();
 
+    /** Parsed filter conditions, by filter text (while the index is built) */
+    private final Map<String, FilterConditions> filters = new HashMap<>();
+    /** Created when the first filter is resolved; discarded when the index is built */
+    private SpellAttributeIndex attributes;
+
     private final Tools5eIndex index;
 
     public SpellIndex(Tools5eIndex index) {
@@ -30,13 +35,33 @@ public class SpellIndex implements JsonSource {
 
     public void clear() {
         spellsByKey.clear();
+        filters.clear();
+        attributes = null;
     }
 
+    /**
+     * Find the entry for a spell.
+     * <p>
+     * Called while spells are converted (concurrently): the index is complete
+     * once {@link #buildSpellIndex(Collection)} returns, and is only read.
+     */
     public SpellEntry getSpellEntry(String key) {
+        key = index.getAliasOrDefault(key);
+        SpellEntry spellEntry = spellsByKey.get(key);
+        if (spellEntry != null) {
+            return spellEntry;
+        }
+        // getOrigin will log unresolved once.
+        JsonNode spellNode = index.getOrigin(key);
+        return spellNode == null ? null : new SpellEntry(key, spellNode);
+    }
+
+    /** Find or create the entry for a spell (while building the index) */
+    private SpellEntry findSpellEntry(String key) {
         key = index.getAliasOrDefault(key);
         // getOrigin will log unresolved once.
         return index.getOrigin(key) != null
-                ? spellsByKey.computeIfAbsent(key, k -> new SpellEntry(k, index.getOrigin(k)))
+                ? indexed(spellsByKey.computeIfAbsent(key, k -> new SpellEntry(k, index.getOrigin(k))))
                 : null;
     }
 
@@ -49,8 +74,22 @@ public class SpellIndex implements JsonSource {
      */
     public SpellEntry addSpell(String key, JsonNode spellNode) {
         key = index.getAliasOrDefault(key);
-        return spellsByKey.compute(key,
-                (k, v) -> v == null ? new SpellEntry(k, spellNode) : v);
+        return indexed(spellsByKey.compute(key,
+                (k, v) -> v == null ? new SpellEntry(k, spellNode) : v));
+    }
+
+    private SpellEntry indexed(SpellEntry spellEntry) {
+        if (attributes != null) {
+            attributes.add(spellEntry);
+        }
+        return spellEntry;
+    }
+
+    private void addSpellReference(SpellEntry spellEntry, String refererKey, boolean expanded) {
+        spellEntry.addSpellReference(refererKey, expanded);
+        if (attributes != null) {
+            attributes.updateClasses(spellEntry);
+        }
     }
 
     /**
@@ -62,11 +101,22 @@ public class SpellIndex implements JsonSource {
     public void buildSpellIndex(Collection<JsonNode> allNodes) {
         // Remove excluded spells ahead of any other iteration
         spellsByKey.entrySet().removeIf(e -> index.isExcluded(e.getKey()));
+        attributes = null; // created (from remaining spells) for the first filter
 
         // Read spells/sources.json; generate class index for filters
         readSpellSources();
         // now process additionalSpells nodes
         processAdditionalSpells(allNodes);
+
+        // Every included spell has an entry: lookups during conversion are read-only
+        for (var node : allNodes) {
+            Tools5eSources sources = Tools5eSources.findSources(node);
+            if (sources.getType() == Tools5eIndexType.spell) {
+                addSpell(sources.getKey(), node);
+            }
+        }
+        filters.clear();
+        attributes = null;
     }
 
     /**
@@ -154,7 +204,7 @@ public class SpellIndex implements JsonSource {
                     continue; // Skip old reprinted version; the canonical version is handled separately
                 }
                 if (!index().isExcluded(resolvedKey) && index().getOriginNoFallback(resolvedKey) != null) {
-                    spellEntry.addSpellReference(resolvedKey, expanded);
+                    addSpellReference(spellEntry, resolvedKey, expanded);
                 }
             }
         }
@@ -186,7 +236,7 @@ public class SpellIndex implements JsonSource {
                             continue; // Skip old reprinted version; the canonical version is handled separately
                         }
                         if (!index().isExcluded(resolvedKey) && index().getOriginNoFallback(resolvedKey) != null) {
-                            spellEntry.addSpellReference(resolvedKey, false);
+                            addSpellReference(spellEntry, resolvedKey, false);
                         }
                     }
                 }
@@ -212,7 +262,7 @@ public class SpellIndex implements JsonSource {
                 // Resolve aliases (e.g. race -> subrace) before lookup
                 String resolvedKey = index().getAliasOrDefault(refKey);
                 if (!index().isExcluded(resolvedKey) && index().getOriginNoFallback(resolvedKey) != null) {
-                    spellEntry.addSpellReference(resolvedKey, false);
+                    addSpellReference(spellEntry, resolvedKey, false);
                 }
             }
         }
@@ -268,7 +318,7 @@ public class SpellIndex implements JsonSource {
             return;
         }
         // Find the created spellEntry (by key)
-        SpellEntry spellEntry = getSpellEntry(spellKey);
+        SpellEntry spellEntry = findSpellEntry(spellKey);
         // Legacy / homebrew
         for (var n : SpellIndexFields.fromClassList.iterateArrayFrom(classes)) {
             tui().logf(Msg.SPELL, "readClasses/fromClassList: %s :: %s", spellKey, n);
@@ -313,7 +363,7 @@ public class SpellIndex implements JsonSource {
             return;
         }
 
-        spellEntry.addSpellReference(refKey, variantSource != null);
+        addSpellReference(spellEntry, refKey, variantSource != null);
     }
 
     /**
@@ -451,7 +501,20 @@ public class SpellIndex implements JsonSource {
         }
         tui().logf(Msg.SPELL, "resolveFilter (%2s) %s :: %s", constraint, refererKey, filter);
         // level=1;2;3;4;5|class=Cleric;Druid;Wizard|school=D
-        String[] filterParts = filter.asText().split("\\|");
+        String filterText = filter.asText();
+        FilterConditions filterConditions = filters.computeIfAbsent(filterText, this::parseFilter);
+        if (!filterConditions.componentsMisc.isEmpty() && !filterConditions.componentsMisc.contains("ritual")) {
+            tui().logf(Msg.UNKNOWN, "Unknown components & miscellaneous value: %s", filterConditions.componentsMisc);
+        }
+        if (attributes == null) {
+            attributes = new SpellAttributeIndex(spellsByKey.values());
+        }
+        attributes.forEachMatch(filterText, filterConditions,
+                spell -> spell.addReference(new SpellReference(refererKey, constraint, null, expanded, groupName)));
+    }
+
+    private FilterConditions parseFilter(String filterText) {
+        String[] filterParts = filterText.split("\\|");
         FilterConditions filterConditions = new FilterConditions();
 
         for (String f : filterParts) {
@@ -481,11 +544,7 @@ public class SpellIndex implements JsonSource {
                 }
             }
         }
-        for (SpellEntry spell : spellsByKey.values()) {
-            if (filterConditions.matchAll(spell)) {
-                spell.addReference(new SpellReference(refererKey, constraint, null, expanded, groupName));
-            }
-        }
+        return filterConditions;
     }
 
     /**
@@ -505,7 +564,7 @@ public class SpellIndex implements JsonSource {
         if (index.isExcluded(spellKey)) {
             return;
         }
-        var spellEntry = getSpellEntry(spellKey);
+        var spellEntry = findSpellEntry(spellKey);
         if (spellEntry != null) {
             spellEntry.addReference(refererKey, constraint, asLevel, expanded, groupName);
         }
@@ -563,46 +622,6 @@ public class SpellIndex implements JsonSource {
                     .map(x -> x.toLowerCase())
                     .collect(Collectors.toSet());
         }
-
-        boolean matchAll(SpellEntry spell) {
-            Tools5eSources spellSources = Tools5eSources.findSources(spell.spellNode);
-            return testClasses(spell)
-                    && testLevels(spell)
-                    && testSchools(spell)
-                    && testSources(spell, spellSources)
-                    && testSpellAttack(spell)
-                    && testSpellComponents(spell);
-        }
-
-        private boolean testClasses(SpellEntry spell) {
-            return classes.isEmpty() || classes.stream().anyMatch(x -> spell.inClassList(x));
-        }
-
-        private boolean testLevels(SpellEntry spell) {
-            return levels.isEmpty() || levels.contains(spell.level);
-        }
-
-        private boolean testSchools(SpellEntry spell) {
-            return schools.isEmpty() || schools.contains(spell.school.code());
-        }
-
-        private boolean testSources(SpellEntry spell, Tools5eSources spellSources) {
-            return sources.isEmpty() || spellSources.includedBy(sources);
-        }
-
-        private boolean testSpellAttack(SpellEntry spell) {
-            return spellAttack.isEmpty()
-                    || spell.spellAttack.stream().anyMatch(x -> spellAttack.contains(x.toUpperCase()));
-        }
-
-        private boolean testSpellComponents(SpellEntry spell) {
-            if (componentsMisc.contains("ritual")) {
-                return spell.ritual;
-            } else if (!componentsMisc.isEmpty()) {
-                Tui.instance().logf(Msg.UNKNOWN, "Unknown components & miscellaneous value: %s", componentsMisc);
-            }
-            return true;
-        }
     }
 
     enum SpellIndexFields implements JsonNodeReader {
@@ -6,8 +6,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +18,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
@@ -27,11 +31,16 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.ebullient.convert.config.CompendiumConfig;
 import dev.ebullient.convert.config.ReprintBehavior;
 import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.CompactNodes;
+import dev.ebullient.convert.io.InputFields;
 import dev.ebullient.convert.io.MarkdownWriter;
 import dev.ebullient.convert.io.Msg;
+import dev.ebullient.convert.io.ParseCache;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.qute.SourceAndPage;
+import dev.ebullient.convert.tools.JsonSourceCopier.MetaFields;
 import dev.ebullient.convert.tools.MarkdownConverter;
+import dev.ebullient.convert.tools.OrderedRegistry;
 import dev.ebullient.convert.tools.ToolsIndex;
 import dev.ebullient.convert.tools.dnd5e.HomebrewIndex.HomebrewFields;
 import dev.ebullient.convert.tools.dnd5e.HomebrewIndex.HomebrewMetaTypes;
@@ -44,6 +53,8 @@ import dev.ebullient.convert.tools.dnd5e.SpellSchool.CustomSpellSchool;
 import dev.ebullient.convert.tools.dnd5e.Tools5eIndexType.IndexFields;
 
 public class Tools5eIndex implements JsonSource, ToolsIndex {
+    static final String RESOLVED_COPIES = "5e-resolved-copies";
+
     private static Tools5eIndex instance;
 
     public static Tools5eIndex instance() {
@@ -68,6 +79,8 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
 
     // Initialization
     private final Map<String, JsonNode> nodeIndex = new TreeMap<>(); // --index
+    // Low-memory mode: entries that are not converted (value in nodeIndex is null)
+    private CompactNodes compactNodes;
 
     private final Map<String, JsonNode> subraces = new HashMap<>(); // --index
     private final Map<SourceAndPage, List<JsonNode>> tableIndex = new HashMap<>();
@@ -75,7 +88,7 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
     private final Map<String, String> aliases = new TreeMap<>(); // --index
     private final Map<String, String> reprints = new TreeMap<>(); // --index
     private final Map<String, String> subraceMap = new TreeMap<>(); // --index
-    private final Map<String, String> nameToLink = new HashMap<>();
+    private final Map<String, String> nameToLink = new ConcurrentHashMap<>();
 
     // Class feature, Subclass, and Subclass Feature nonsense
     private final Map<String, Set<String>> classFeatures = new TreeMap<>(); // --index
@@ -85,10 +98,16 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
     private final Map<String, Set<String>> legendaryGroupMonsters = new HashMap<>();
 
     // Table keys that are actually linked from included (non-table) content
-    private final Set<String> referencedTableKeys = new HashSet<>();
+    private final Set<String> referencedTableKeys = ConcurrentHashMap.newKeySet();
 
-    private final Set<String> unresolvableKeys = new TreeSet<>();
-    private final Map<String, SkillOrAbility> resolvedSkills = new HashMap<>();
+    // Caches populated while entries are converted and rendered (possibly concurrently)
+    private final Set<String> unresolvableKeys = new ConcurrentSkipListSet<>();
+    // Reported once, by the first entry (in serial order) that looks for the key
+    private final OrderedRegistry<String, Boolean> unresolvedReports = new OrderedRegistry<>((a, b) -> false);
+    // Homebrew may resolve a skill differently depending on the source that asks first
+    private final OrderedRegistry<String, SkillOrAbility> resolvedSkills = new OrderedRegistry<>(
+            (a, b) -> a == b || (a instanceof CustomSkillOrAbility && b instanceof CustomSkillOrAbility
+                    && a.value().equals(b.value())));
 
     private final Set<String> srdKeys = new HashSet<>();
 
@@ -101,9 +120,6 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
 
     private Map<String, JsonNode> filteredIndex = null;
 
-    // transitory index state
-    volatile HomebrewMetaTypes homebrew = null;
-
     public Tools5eIndex(CompendiumConfig config) {
         this.config = config;
         instance = this;
@@ -112,7 +128,7 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
     public Tools5eIndex importTree(String filename, JsonNode node) {
         if (!node.isObject() || homebrewIndex.addHomebrewSourcesIfPresent(filename, node)) {
             // defer reading contents of homebrew until after we've indexed the rest
-            // see prepare()  / importHomebrewTree()
+            // see prepare()  / collectHomebrewTree()
             return this;
         }
 
@@ -120,108 +136,155 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         config.readConfigurationIfPresent(node);
 
         // Index content types
-        indexTypes(filename, node);
+        indexTypes(filename, node, this::ingest);
 
         return this;
     }
 
-    private void importHomebrewTree(HomebrewMetaTypes homebrew) {
-        this.homebrew = homebrew;
-        try {
-            // Index content types
-            indexTypes(homebrew.filename, homebrew.homebrewNode);
-            Tools5eIndexType.adventureData.withArrayFrom(homebrew.homebrewNode, this::addToIndex); // homebrew
-            Tools5eIndexType.bookData.withArrayFrom(homebrew.homebrewNode, this::addToIndex); // homebrew
-        } finally {
-            this.homebrew = null;
+    @Override
+    public InputFields inputFields() {
+        Set<String> fields = new HashSet<>();
+        for (Tools5eIndexType type : Tools5eIndexType.values()) {
+            fields.add(type.nodeName());
         }
+        // arrays read with an explicit field name (see indexTypes)
+        fields.addAll(List.of("baseitem", "class", "classFeature", "creatureFluff",
+                "optionalfeature", "subclassFeature"));
+
+        // homebrew, book or adventure data, and user configuration use the whole document
+        Set<String> wholeDocument = new HashSet<>(CompendiumConfig.configurationFields());
+        wholeDocument.add(SourceField._meta.name());
+        wholeDocument.add("data");
+        fields.removeAll(wholeDocument);
+        return new InputFields(fields, wholeDocument);
+    }
+
+    /**
+     * Collect entries from a homebrew tree. Trees are collected in parallel:
+     * keys are created (not interned) and generic variants are populated,
+     * but nothing is added to the index.
+     *
+     * @return task that adds the collected entries to the index (see {@link HomebrewIndex#importBrew})
+     */
+    private Runnable collectHomebrewTree(HomebrewMetaTypes homebrew) {
+        List<PendingEntry> entries = new ArrayList<>();
+        IngestHandler collect = (how, type, node) -> {
+            switch (how) {
+                case magicVariant -> MagicVariant.populateGenericVariant(node);
+                case baseItem -> TtrpgValue.indexBaseItem.setIn(node, BooleanNode.TRUE);
+                default -> {
+                }
+            }
+            entries.add(new PendingEntry(how, type, type.createKey(node), node));
+        };
+
+        // Index content types
+        indexTypes(homebrew.filename, homebrew.homebrewNode, collect);
+        Tools5eIndexType.adventureData.withArrayFrom(homebrew.homebrewNode,
+                (type, node) -> collect.accept(Ingest.entry, type, node)); // homebrew
+        Tools5eIndexType.bookData.withArrayFrom(homebrew.homebrewNode,
+                (type, node) -> collect.accept(Ingest.entry, type, node)); // homebrew
+
+        return () -> {
+            for (PendingEntry entry : entries) {
+                if (entry.how() == Ingest.subrace) {
+                    subraces.put(entry.key(), entry.node());
+                    continue;
+                }
+                if (entry.how() == Ingest.data) {
+                    TtrpgConfig.includeAdditionalSource(SourceField.id.getTextOrEmpty(entry.node()));
+                }
+                addToIndex(entry.type(), entry.key(), entry.node(), homebrew);
+            }
+        };
     }
 
-    private void indexTypes(String filename, JsonNode node) {
+    private void indexTypes(String filename, JsonNode node, IngestHandler handler) {
+        BiConsumer<Tools5eIndexType, JsonNode> entry = (type, x) -> handler.accept(Ingest.entry, type, x);
 
         // Reference/Internal Types
 
-        Tools5eIndexType.backgroundFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.classFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.conditionFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.facilityFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.featFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.hazardFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.objectFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.optionalfeatureFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.raceFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.rewardFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.spellFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.subclassFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.trapFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.vehicleFluff.withArrayFrom(node, this::addToIndex);
-
-        Tools5eIndexType.monsterFluff.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.monsterFluff.withArrayFrom(node, "creatureFluff", this::addToIndex);
-
-        Tools5eIndexType.language.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.citation.withArrayFrom(node, this::addToIndex);
-
-        Tools5eIndexType.itemEntry.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemGroup.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemTypeAdditionalEntries.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.card.withArrayFrom(node, this::addToIndex);
-
-        Tools5eIndexType.magicvariant.withArrayFrom(node, this::addMagicVariantToIndex);
-        Tools5eIndexType.subrace.withArrayFrom(node, this::addToSubraceIndex);
-
-        Tools5eIndexType.monsterTemplate.withArrayFrom(node, this::addToIndex);
+        Tools5eIndexType.backgroundFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.classFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.conditionFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.facilityFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.featFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.hazardFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.itemFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.objectFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.optionalfeatureFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.raceFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.rewardFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.spellFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.subclassFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.trapFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.vehicleFluff.withArrayFrom(node, entry);
+
+        Tools5eIndexType.monsterFluff.withArrayFrom(node, entry);
+        Tools5eIndexType.monsterFluff.withArrayFrom(node, "creatureFluff", entry);
+
+        Tools5eIndexType.language.withArrayFrom(node, entry);
+        Tools5eIndexType.citation.withArrayFrom(node, entry);
+
+        Tools5eIndexType.itemEntry.withArrayFrom(node, entry);
+        Tools5eIndexType.itemGroup.withArrayFrom(node, entry);
+        Tools5eIndexType.itemTypeAdditionalEntries.withArrayFrom(node, entry);
+        Tools5eIndexType.card.withArrayFrom(node, entry);
+
+        Tools5eIndexType.magicvariant.withArrayFrom(node, (type, x) -> handler.accept(Ingest.magicVariant, type, x));
+        Tools5eIndexType.subrace.withArrayFrom(node, (type, x) -> handler.accept(Ingest.subrace, type, x));
+
+        Tools5eIndexType.monsterTemplate.withArrayFrom(node, entry);
 
         // Class-scoped resources (if the class is left out, the resource is not included)
 
-        Tools5eIndexType.subclass.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.classfeature.withArrayFrom(node, "classFeature", this::addToIndex);
-        Tools5eIndexType.subclassFeature.withArrayFrom(node, "subclassFeature", this::addToIndex);
+        Tools5eIndexType.subclass.withArrayFrom(node, entry);
+        Tools5eIndexType.classfeature.withArrayFrom(node, "classFeature", entry);
+        Tools5eIndexType.subclassFeature.withArrayFrom(node, "subclassFeature", entry);
 
         // Output Types
 
-        Tools5eIndexType.action.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.condition.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.disease.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemMastery.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemProperty.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.itemType.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.sense.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.skill.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.status.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.variantrule.withArrayFrom(node, this::addToIndex);
-
-        Tools5eIndexType.psionic.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.legendaryGroup.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.optfeature.withArrayFrom(node, "optionalfeature", this::addToIndex);
+        Tools5eIndexType.action.withArrayFrom(node, entry);
+        Tools5eIndexType.condition.withArrayFrom(node, entry);
+        Tools5eIndexType.disease.withArrayFrom(node, entry);
+        Tools5eIndexType.itemMastery.withArrayFrom(node, entry);
+        Tools5eIndexType.itemProperty.withArrayFrom(node, entry);
+        Tools5eIndexType.itemType.withArrayFrom(node, entry);
+        Tools5eIndexType.sense.withArrayFrom(node, entry);
+        Tools5eIndexType.skill.withArrayFrom(node, entry);
+        Tools5eIndexType.status.withArrayFrom(node, entry);
+        Tools5eIndexType.variantrule.withArrayFrom(node, entry);
+
+        Tools5eIndexType.psionic.withArrayFrom(node, entry);
+        Tools5eIndexType.legendaryGroup.withArrayFrom(node, entry);
+        Tools5eIndexType.optfeature.withArrayFrom(node, "optionalfeature", entry);
 
         // tables
 
-        Tools5eIndexType.table.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.tableGroup.withArrayFrom(node, this::addToIndex);
+        Tools5eIndexType.table.withArrayFrom(node, entry);
+        Tools5eIndexType.tableGroup.withArrayFrom(node, entry);
 
         // templated types
 
-        Tools5eIndexType.background.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.classtype.withArrayFrom(node, "class", this::addToIndex);
-        Tools5eIndexType.deck.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.deity.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.facility.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.feat.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.hazard.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.item.withArrayFrom(node, "baseitem", this::addBaseItemToIndex);
-        Tools5eIndexType.item.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.monster.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.object.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.race.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.reward.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.spell.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.trap.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.vehicle.withArrayFrom(node, this::addToIndex);
-
-        Tools5eIndexType.adventure.withArrayFrom(node, this::addToIndex);
-        Tools5eIndexType.book.withArrayFrom(node, this::addToIndex);
+        Tools5eIndexType.background.withArrayFrom(node, entry);
+        Tools5eIndexType.classtype.withArrayFrom(node, "class", entry);
+        Tools5eIndexType.deck.withArrayFrom(node, entry);
+        Tools5eIndexType.deity.withArrayFrom(node, entry);
+        Tools5eIndexType.facility.withArrayFrom(node, entry);
+        Tools5eIndexType.feat.withArrayFrom(node, entry);
+        Tools5eIndexType.hazard.withArrayFrom(node, entry);
+        Tools5eIndexType.item.withArrayFrom(node, "baseitem", (type, x) -> handler.accept(Ingest.baseItem, type, x));
+        Tools5eIndexType.item.withArrayFrom(node, entry);
+        Tools5eIndexType.monster.withArrayFrom(node, entry);
+        Tools5eIndexType.object.withArrayFrom(node, entry);
+        Tools5eIndexType.race.withArrayFrom(node, entry);
+        Tools5eIndexType.reward.withArrayFrom(node, entry);
+        Tools5eIndexType.spell.withArrayFrom(node, entry);
+        Tools5eIndexType.trap.withArrayFrom(node, entry);
+        Tools5eIndexType.vehicle.withArrayFrom(node, entry);
+
+        Tools5eIndexType.adventure.withArrayFrom(node, entry);
+        Tools5eIndexType.book.withArrayFrom(node, entry);
 
         // 5e tools book/adventure data
         if (node.has("data") && !filename.isEmpty()) {
@@ -229,13 +292,27 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             int dot = filename.indexOf('.');
             String basename = filename.substring(slash < 0 ? 0 : slash + 1, dot < 0 ? filename.length() : dot);
             String id = basename.replace("book-", "").replace("adventure-", "");
-            TtrpgConfig.includeAdditionalSource(id);
             ((ObjectNode) node).put("id", id);
-            addToIndex(basename.startsWith("book") ? Tools5eIndexType.bookData : Tools5eIndexType.adventureData,
+            handler.accept(Ingest.data,
+                    basename.startsWith("book") ? Tools5eIndexType.bookData : Tools5eIndexType.adventureData,
                     node);
         }
     }
 
+    /** Add an entry read from (non-homebrew) input to the index */
+    private void ingest(Ingest how, Tools5eIndexType type, JsonNode node) {
+        switch (how) {
+            case entry -> addToIndex(type, node);
+            case data -> {
+                TtrpgConfig.includeAdditionalSource(SourceField.id.getTextOrEmpty(node));
+                addToIndex(type, node);
+            }
+            case baseItem -> addBaseItemToIndex(type, node);
+            case magicVariant -> addMagicVariantToIndex(type, node);
+            case subrace -> addToSubraceIndex(type, node);
+        }
+    }
+
     void addToSubraceIndex(Tools5eIndexType type, JsonNode node) {
         subraces.put(type.createKey(node), node);
     }
@@ -252,16 +329,23 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
     }
 
     void addToIndex(Tools5eIndexType type, JsonNode node) {
-        String key = type.createKey(node);
+        addToIndex(type, type.createKey(node), node, null);
+    }
+
+    /**
+     * @param homebrew homebrew file the entry was read from, or null
+     */
+    private void addToIndex(Tools5eIndexType type, String key, JsonNode node, HomebrewMetaTypes homebrew) {
         if (nodeIndex.containsKey(key)) {
             return;
         }
+        // interned once it is indexed: later type lookups for this key are a single map lookup
+        key = Tools5eIndexType.internKey(key).key();
         nodeIndex.put(key, node);
         TtrpgValue.indexInputType.setIn(node, type.name());
         TtrpgValue.indexKey.setIn(node, key);
 
-        // Homebrew files are ingested in a lump:
-        // if homebrew is set, then we're reading a homebrew file
+        // Homebrew files are ingested in a lump (see collectHomebrewTree)
         TtrpgValue.isHomebrew.setIn(node, homebrew != null);
         if (homebrew != null) {
             homebrew.addCrossReference(type, key, node);
@@ -333,6 +417,12 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         }
 
         addSrdEntry(key, node);
+
+        if (homebrew == null && type.isFluffType() && tui().lowMemory()) {
+            // Low-memory mode: fluff is only read (with the entry it belongs to),
+            // so it is encoded as it is imported rather than after prepare
+            compact(key, node);
+        }
     }
 
     public void prepare() {
@@ -351,11 +441,22 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
 
         // Properly import homebrew sources
         tui().infof(Msg.BREW, "Importing homebrew sources");
-        homebrewIndex.importBrew(this::importHomebrewTree);
+        try (var phase = tui().metrics().phase("homebrew import")) {
+            homebrewIndex.importBrew(this::collectHomebrewTree);
+        }
         tui().verbosef(Msg.BREW, "Finished with homebrew sources");
 
         tui().debugf("Preparing index using configuration:\n%s", Tui.jsonStringify(config));
 
+        // Copy resolution depends on input data and the selected sources:
+        // reuse copies resolved by a previous run with the same inputs and selection
+        ParseCache cache = tui().parseCache();
+        String copyConfig = config.sourceSelection();
+        if (cache != null) {
+            JsonNode cachedCopies = cache.readDerived(RESOLVED_COPIES, copyConfig);
+            copier.useCachedCopies(cachedCopies instanceof ObjectNode o ? o : null, cachedCopies == null);
+        }
+
         // Add subraces to index
         defineSubraces();
 
@@ -370,14 +471,27 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         List<String> keys = new ArrayList<>(nodeIndex.keySet());
         List<Tuple> deities = new ArrayList<>();
 
+        // Resolve copies up front (sources before copies), so handleCopy (below) has nothing left to do
+        copier.resolveCopies(keys, Tools5eIndexType::getTypeFromKey);
+
         // For each node: handle copies, link sources
         for (String key : keys) {
             JsonNode jsonSource = nodeIndex.get(key);
+            // encoded on import (low-memory mode)
+            boolean encoded = jsonSource == null;
+            if (encoded) {
+                jsonSource = compactNodes.get(key);
+            }
 
             // check for / manage copies first.
             Tools5eIndexType type = Tools5eIndexType.getTypeFromKey(key);
+            boolean copy = MetaFields._copy.existsIn(jsonSource);
             jsonSource = copier.handleCopy(type, jsonSource);
-            nodeIndex.put(key, jsonSource); // update value with resolved/copied node
+            if (!encoded) {
+                nodeIndex.put(key, jsonSource); // update value with resolved/copied node
+            } else if (copy) {
+                compactNodes.put(key, jsonSource); // encode the resolved copy
+            }
 
             // Pre-creation of sources..
             switch (type) {
@@ -424,6 +538,11 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             }
         } // end for each entry
 
+        ObjectNode resolvedCopies = copier.endCachedCopies();
+        if (cache != null && resolvedCopies != null) {
+            cache.writeDerived(RESOLVED_COPIES, copyConfig, resolvedCopies);
+        }
+
         tui().progressf("Applying source filters");
         filteredIndex = new HashMap<>(nodeIndex.size());
 
@@ -566,6 +685,52 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         // And finally, create an index of classes/subclasses/feats for spells
         // based on included sources & avaiable spells.
         spellIndex.buildSpellIndex(filteredIndex.values());
+        config.logKeyRuleStats();
+        // Links resolved while preparing may have changed
+        Tools5eLinkifier.instance().clearCache();
+
+        if (tui().lowMemory()) {
+            compactUnconverted();
+        }
+    }
+
+    /**
+     * Low-memory mode: encode entries that will not be converted (excluded entries, homebrew fluff).
+     * Their keys remain in the node index (with a null value) and they are decoded when read.
+     * Fluff from other input is encoded when it is imported (see addToIndex).
+     */
+    private void compactUnconverted() {
+        Set<JsonNode> converted = Collections.newSetFromMap(new IdentityHashMap<>());
+        converted.addAll(filteredIndex.values());
+        for (var e : nodeIndex.entrySet()) {
+            JsonNode node = e.getValue();
+            if (node != null && !converted.contains(node) && compactNodes().put(e.getKey(), node)) {
+                e.setValue(null);
+            }
+        }
+        compactNodes().printSummary();
+    }
+
+    /** Low-memory mode: encode the entry, and release it from the node index */
+    private void compact(String key, JsonNode node) {
+        if (compactNodes().put(key, node)) {
+            nodeIndex.put(key, null);
+        }
+    }
+
+    private CompactNodes compactNodes() {
+        if (compactNodes == null) {
+            compactNodes = new CompactNodes(tui());
+        }
+        return compactNodes;
+    }
+
+    /** Read from the node index (decode the entry in low-memory mode) */
+    private JsonNode originNode(String key) {
+        JsonNode node = nodeIndex.get(key);
+        return node == null && compactNodes != null
+                ? compactNodes.get(key)
+                : node;
     }
 
     private void defineSubraces() {
@@ -891,6 +1056,7 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             return;
         }
         unresolvableKeys.remove(key); // this is now resolvable
+        unresolvedReports.remove(key);
         String old = aliases.putIfAbsent(key, alias);
         if (old != null && !old.equals(alias)) {
             tui().warnf("Oops! Duplicate simple key: %s; old: %s; new: %s", key, old, alias);
@@ -973,8 +1139,8 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             }
             if (itemProperty == null) {
                 // try homebrew (normalize from key)
-                String[] parts = key.split("\\|");
-                itemProperty = homebrewIndex.findHomebrewProperty(parts[1], sources);
+                String name = Tools5eIndexType.indexKey(key).name();
+                itemProperty = homebrewIndex.findHomebrewProperty(name, sources);
 
                 if (itemProperty != null) {
                     // add alias for resolved property
@@ -999,8 +1165,8 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             }
             if (itemType == null) {
                 // try homebrew (normalize from key)
-                String[] parts = key.split("\\|");
-                itemType = homebrewIndex.findHomebrewType(parts[1], sources);
+                String name = Tools5eIndexType.indexKey(key).name();
+                itemType = homebrewIndex.findHomebrewType(name, sources);
 
                 if (itemType != null) {
                     // add alias for resolved item type
@@ -1026,8 +1192,8 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             }
             if (mastery == null) {
                 // try homebrew (normalize from key)
-                String[] parts = key.split("\\|");
-                mastery = homebrewIndex.findHomebrewMastery(parts[1], sources);
+                String name = Tools5eIndexType.indexKey(key).name();
+                mastery = homebrewIndex.findHomebrewMastery(name, sources);
                 if (mastery != null) {
                     // add alias for resolved item mastery
                     String itemKey = mastery.indexKey();
@@ -1042,7 +1208,7 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         if (!isPresent(key)) {
             return null;
         }
-        SkillOrAbility skill = resolvedSkills.computeIfAbsent(key, k -> {
+        return resolvedSkills.register(key, () -> {
             SkillOrAbility sk = SkillOrAbility.fromTextValue(key);
             if (sk == null) {
                 sk = homebrewIndex.findHomebrewSkillOrAbility(key, sources);
@@ -1053,7 +1219,6 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
             }
             return sk;
         });
-        return skill;
     }
 
     public SpellSchool findSpellSchool(String code, Tools5eSources sources) {
@@ -1124,12 +1289,12 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
     }
 
     public JsonNode getOriginNoFallback(String finalKey) {
-        JsonNode result = nodeIndex.get(finalKey);
+        JsonNode result = originNode(finalKey);
         if (result == null) {
             // subraces are initially held in a separate map; check there (handle copies)
             result = subraces.get(finalKey);
-            if (result == null && unresolvableKeys.add(finalKey)) {
-                tui().logf(Msg.UNRESOLVED, "No element found for %s", finalKey);
+            if (result == null) {
+                reportUnresolved(finalKey);
             }
         }
         return result;
@@ -1137,17 +1302,18 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
 
     public JsonNode getOrigin(String finalKey) {
         if (unresolvableKeys.contains(finalKey)) {
+            reportUnresolved(finalKey);
             return null;
         }
 
-        JsonNode result = nodeIndex.get(finalKey);
+        JsonNode result = originNode(finalKey);
         if (result == null) {
             List<String> target = nodeIndex.keySet().stream()
                     .filter(k -> k.startsWith(finalKey))
                     .collect(Collectors.toList());
             if (target.size() == 1) {
                 String lookup = target.get(0);
-                result = nodeIndex.get(lookup);
+                result = originNode(lookup);
             } else if (target.size() > 1) {
                 List<String> reduce = target.stream()
                         .filter(x -> !x.matches(".*\\|ua[^|]*$"))
@@ -1161,70 +1327,89 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
                     return null;
                 } else if (reduce.size() == 1) {
                     String lookup = reduce.get(0);
-                    result = nodeIndex.get(lookup);
+                    result = originNode(lookup);
                 }
             }
-            if (result == null && unresolvableKeys.add(finalKey)) {
-                tui().logf(Msg.UNRESOLVED, "No element found for %s", finalKey);
+            if (result == null) {
+                reportUnresolved(finalKey);
             }
         }
         return result;
     }
 
+    private void reportUnresolved(String finalKey) {
+        unresolvableKeys.add(finalKey);
+        unresolvedReports.register(finalKey, () -> {
+            tui().logf(Msg.UNRESOLVED, "No element found for %s", finalKey);
+            return Boolean.TRUE;
+        });
+    }
+
     public String linkifyByName(Tools5eIndexType type, String name) {
         String prefix = String.format("%s|%s|", type, name).toLowerCase();
 
-        return nameToLink.computeIfAbsent(prefix, p -> {
-            // Akin to getAliasOrDefault, but we have to filter by prefix
-            List<String> target = List.of();
-
-            if (type == Tools5eIndexType.subrace || type == Tools5eIndexType.race) {
-                target = subraceMap.keySet().stream()
-                        .filter(k -> k.startsWith(prefix))
-                        .collect(Collectors.toList());
+        String link = nameToLink.get(prefix);
+        if (link == null) {
+            // Resolve outside of the map: linkify may look up other names
+            link = resolveLinkByName(type, name, prefix);
+            String previous = nameToLink.putIfAbsent(prefix, link);
+            if (previous != null) {
+                link = previous;
             }
+        }
+        return link;
+    }
 
-            if (target.isEmpty()) {
-                target = reprints.keySet().stream()
-                        .filter(k -> k.startsWith(prefix))
-                        .collect(Collectors.toList());
-            }
+    private String resolveLinkByName(Tools5eIndexType type, String name, String prefix) {
+        // Akin to getAliasOrDefault, but we have to filter by prefix
+        List<String> target = List.of();
 
-            if (target.isEmpty()) {
-                target = aliases.keySet().stream()
-                        .filter(k -> k.startsWith(prefix))
-                        .collect(Collectors.toList());
-            }
+        if (type == Tools5eIndexType.subrace || type == Tools5eIndexType.race) {
+            target = subraceMap.keySet().stream()
+                    .filter(k -> k.startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
 
-            if (target.isEmpty()) {
-                target = nodeIndex.keySet().stream()
-                        .filter(k -> k.startsWith(prefix))
-                        .collect(Collectors.toList());
-            }
+        if (target.isEmpty()) {
+            target = reprints.keySet().stream()
+                    .filter(k -> k.startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+
+        if (target.isEmpty()) {
+            target = aliases.keySet().stream()
+                    .filter(k -> k.startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+
+        if (target.isEmpty()) {
+            target = nodeIndex.keySet().stream()
+                    .filter(k -> k.startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
 
-            if (target.isEmpty()) {
-                tui().debugf(Msg.UNRESOLVED, "linkifyByName: unresolved element for \"%s\" using [%s]", name, prefix);
+        if (target.isEmpty()) {
+            tui().debugf(Msg.UNRESOLVED, "linkifyByName: unresolved element for \"%s\" using [%s]", name, prefix);
+            return name;
+        } else if (target.size() > 1) {
+            List<String> reduce = target.stream()
+                    .filter(x -> !x.matches(".*\\|ua[^|]*$"))
+                    .map(x -> getAliasOrDefault(x))
+                    .filter(x -> isIncluded(x))
+                    .distinct()
+                    .collect(Collectors.toList());
+            if (reduce.size() > 1) {
+                tui().debugf(Msg.MULTIPLE, "Found several elements for %s using [%s]: %s",
+                        name, prefix, target);
                 return name;
-            } else if (target.size() > 1) {
-                List<String> reduce = target.stream()
-                        .filter(x -> !x.matches(".*\\|ua[^|]*$"))
-                        .map(x -> getAliasOrDefault(x))
-                        .filter(x -> isIncluded(x))
-                        .distinct()
-                        .collect(Collectors.toList());
-                if (reduce.size() > 1) {
-                    tui().debugf(Msg.MULTIPLE, "Found several elements for %s using [%s]: %s",
-                            name, prefix, target);
-                    return name;
-                } else if (reduce.size() == 1) {
-                    target = reduce;
-                }
+            } else if (reduce.size() == 1) {
+                target = reduce;
             }
+        }
 
-            String key = getAliasOrDefault(target.get(0));
-            JsonNode node = filteredIndex.get(key); // only included items
-            return node == null ? name : type.linkify(this, node);
-        });
+        String key = getAliasOrDefault(target.get(0));
+        JsonNode node = filteredIndex.get(key); // only included items
+        return node == null ? name : type.linkify(this, node);
     }
 
     public boolean customContentIncluded() {
@@ -1382,11 +1567,28 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
                 '}';
     }
 
+    /**
+     * Forget what was resolved, reported, or collected while converting,
+     * so the same index can be converted again (tests compare conversions).
+     */
+    void resetConverted() {
+        unresolvableKeys.clear();
+        unresolvedReports.clear();
+        resolvedSkills.clear();
+        optFeatureIndex.clearUnresolved();
+        JsonTextReplacement.missingKeys.clear();
+        Tools5eSources.clearConverted();
+        Tools5eLinkifier.instance().clearCache();
+    }
+
     public void cleanup() {
         if (instance == this) {
             instance = null;
         }
         nodeIndex.clear();
+        if (compactNodes != null) {
+            compactNodes.clear();
+        }
         subraces.clear();
         tableIndex.clear();
         legendaryGroupMonsters.clear();
@@ -1413,6 +1615,25 @@ public class Tools5eIndex implements JsonSource, ToolsIndex {
         ItemMastery.clear();
         ItemProperty.clear();
         ItemType.clear();
+        Tools5eIndexType.clearKeys();
+    }
+
+    /** How an entry read from input is added to the index (see indexTypes) */
+    enum Ingest {
+        entry,
+        data,
+        baseItem,
+        magicVariant,
+        subrace,
+    }
+
+    @FunctionalInterface
+    interface IngestHandler {
+        void accept(Ingest how, Tools5eIndexType type, JsonNode node);
+    }
+
+    /** Entry collected from a homebrew tree, waiting to be added to the index */
+    record PendingEntry(Ingest how, Tools5eIndexType type, String key, JsonNode node) {
     }
 
     static class Tuple {
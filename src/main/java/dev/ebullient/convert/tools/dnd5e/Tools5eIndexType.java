@@ -3,13 +3,15 @@ package dev.ebullient.convert.tools.dnd5e;
 import static dev.ebullient.convert.StringUtil.isPresent;
 import static dev.ebullient.convert.StringUtil.valueOrDefault;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.BiConsumer;
-import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import dev.ebullient.convert.config.TtrpgConfig;
 import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.tools.IndexKey;
 import dev.ebullient.convert.tools.IndexType;
 import dev.ebullient.convert.tools.JsonNodeReader;
 import dev.ebullient.convert.tools.JsonTextConverter.SourceField;
@@ -110,30 +112,47 @@ public enum Tools5eIndexType implements IndexType, JsonNodeReader {
         return templateName;
     }
 
-    public static Tools5eIndexType fromText(String name) {
-        if ("creature".equalsIgnoreCase(name)) {
-            return monster;
-        }
-        if ("creatureFluff".equalsIgnoreCase(name)) {
-            return monsterFluff;
-        }
-        if ("optionalfeature".equalsIgnoreCase(name)) {
-            return optfeature;
-        }
-        if ("legroup".equalsIgnoreCase(name)) {
-            return legendaryGroup;
+    /** Lowercase type names, template names, and aliases */
+    private static final Map<String, Tools5eIndexType> byText = new HashMap<>();
+    static {
+        byText.put("creature", monster);
+        byText.put("creaturefluff", monsterFluff);
+        byText.put("optionalfeature", optfeature);
+        byText.put("legroup", legendaryGroup);
+        for (Tools5eIndexType x : values()) {
+            byText.putIfAbsent(x.templateName.toLowerCase(), x);
+            byText.putIfAbsent(x.name().toLowerCase(), x);
         }
-        return Stream.of(values())
-                .filter(x -> x.templateName.equalsIgnoreCase(name) || x.name().equalsIgnoreCase(name))
-                .findFirst().orElse(null);
+    }
+
+    private static final IndexKey.TypeNames<Tools5eIndexType> typeNames = new IndexKey.TypeNames<>(byText);
+    private static final IndexKey.Interner<Tools5eIndexType> keys = new IndexKey.Interner<>(
+            (key, end) -> typeNames.find(key, 0, end));
+
+    public static Tools5eIndexType fromText(String name) {
+        return name == null ? null : typeNames.find(name, 0, name.length());
+    }
+
+    /** @return the parsed form of this key (interned if the key is indexed) */
+    public static IndexKey<Tools5eIndexType> indexKey(String key) {
+        return keys.lookup(key);
+    }
+
+    /** Intern a key that is added to the index: later lookups for it are a single map lookup */
+    static IndexKey<Tools5eIndexType> internKey(String key) {
+        return keys.intern(key);
+    }
+
+    /** Forget interned keys (when the index is reset) */
+    static void clearKeys() {
+        keys.clear();
     }
 
     public static Tools5eIndexType getTypeFromKey(String key) {
         if (!isPresent(key)) {
             return null;
         }
-        String typeKey = key.substring(0, key.indexOf("|"));
-        return fromText(typeKey);
+        return keys.type(key);
     }
 
     public static Tools5eIndexType getTypeFromNode(JsonNode node) {
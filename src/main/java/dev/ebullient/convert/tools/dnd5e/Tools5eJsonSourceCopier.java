@@ -2,6 +2,7 @@ package dev.ebullient.convert.tools.dnd5e;
 
 import static dev.ebullient.convert.StringUtil.toTitleCase;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -15,10 +16,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
 import dev.ebullient.convert.io.Msg;
+import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonCopyException;
 import dev.ebullient.convert.tools.JsonSourceCopier;
 import dev.ebullient.convert.tools.dnd5e.Json2QuteMonster.MonsterFields;
@@ -58,10 +61,97 @@ public class Tools5eJsonSourceCopier extends JsonSourceCopier<Tools5eIndexType>
 
     final Tools5eIndex index;
 
+    // Copies resolved by a previous run (replayed), or by this one (recorded)
+    private ObjectNode cachedCopies;
+    private ObjectNode resolvedCopies;
+
     Tools5eJsonSourceCopier(Tools5eIndex index) {
         this.index = index;
     }
 
+    /**
+     * Use copies resolved by a previous run with the same input, and/or record the copies resolved
+     * by this one. Copies that failed to resolve, or reported errors or warnings while they were merged,
+     * are never cached: they are merged (and reported) again.
+     *
+     * @param cached previously resolved copies, or null
+     * @param record true to record copies resolved from now on
+     */
+    synchronized void useCachedCopies(ObjectNode cached, boolean record) {
+        this.cachedCopies = cached;
+        this.resolvedCopies = record ? Tui.MAPPER.createObjectNode() : null;
+    }
+
+    /** Stop using cached copies. Returns the copies resolved since {@link #useCachedCopies} (or null). */
+    synchronized ObjectNode endCachedCopies() {
+        ObjectNode resolved = resolvedCopies;
+        cachedCopies = null;
+        resolvedCopies = null;
+        return resolved;
+    }
+
+    @Override
+    public JsonNode handleCopy(Tools5eIndexType type, JsonNode copyTo) {
+        if ((cachedCopies == null && resolvedCopies == null) || !MetaFields._copy.existsIn(copyTo)) {
+            return super.handleCopy(type, copyTo);
+        }
+        String copyToKey = type.createKey(copyTo);
+
+        JsonNode cached = removeCachedCopy(copyToKey);
+        if (cached != null && cached.isObject() && copyTo.isObject()) {
+            // The copy source is also resolved in place by a full copy: keep that behavior
+            JsonNode copyFrom = getOriginNode(type.createKey(MetaFields._copy.getFrom(copyTo)));
+            if (copyFrom != null && copyFrom != copyTo) {
+                handleCopy(type, copyFrom);
+            }
+            // edit in place, as a full copy would
+            ObjectNode target = (ObjectNode) copyTo;
+            target.removeAll();
+            target.setAll((ObjectNode) cached);
+            return target;
+        }
+
+        int problems = Tui.problemCount();
+        JsonNode result = super.handleCopy(type, copyTo);
+        if (Tui.problemCount() == problems && !MetaFields._copy.existsIn(result)) {
+            recordResolvedCopy(copyToKey, result);
+        } else {
+            recordFailedCopy(copyToKey);
+        }
+        return result;
+    }
+
+    // Copies are resolved in parallel (see resolveCopies): guard the shared cache nodes
+
+    private synchronized JsonNode removeCachedCopy(String copyToKey) {
+        return cachedCopies == null ? null : cachedCopies.remove(copyToKey);
+    }
+
+    private synchronized void recordFailedCopy(String copyToKey) {
+        if (resolvedCopies != null) {
+            resolvedCopies.set(copyToKey, NullNode.getInstance());
+        }
+    }
+
+    private synchronized void recordResolvedCopy(String copyToKey, JsonNode result) {
+        if (resolvedCopies != null) {
+            // Several nodes with the same key: don't guess which is which, always merge them
+            resolvedCopies.set(copyToKey, resolvedCopies.has(copyToKey)
+                    ? NullNode.getInstance()
+                    : result.deepCopy());
+        }
+    }
+
+    @Override
+    protected List<String> copyDependencies(Tools5eIndexType type, JsonNode copyTo) {
+        List<String> dependencies = new ArrayList<>(super.copyDependencies(type, copyTo));
+        JsonNode _copy = MetaFields._copy.getFrom(copyTo);
+        for (JsonNode _template : MetaFields._templates.iterateArrayFrom(_copy)) {
+            dependencies.add(Tools5eIndexType.monsterTemplate.createKey(_template));
+        }
+        return dependencies;
+    }
+
     @Override
     public Tools5eIndex index() {
         return index;
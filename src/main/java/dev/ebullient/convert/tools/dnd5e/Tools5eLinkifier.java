@@ -5,6 +5,7 @@ import static dev.ebullient.convert.StringUtil.toAnchorTag;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.MemoCache;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonTextConverter.SourceField;
 import dev.ebullient.convert.tools.dnd5e.Json2QuteClass.SubclassKeyData;
@@ -27,6 +28,15 @@ public class Tools5eLinkifier {
     Tools5eIndex index;
     Tui tui;
 
+    /**
+     * Links (by key and link text). Links depend on what is included in the prepared index:
+     * the cache is cleared when the index is (re-)prepared.
+     */
+    private final MemoCache<LinkKey, String> links = new MemoCache<>("Link", 100_000);
+
+    record LinkKey(String key, String linkText) {
+    }
+
     private Tools5eLinkifier() {
         reset();
     }
@@ -106,7 +116,7 @@ public class Tools5eLinkifier {
                 || type == Tools5eIndexType.tableGroup) {
             return Tui.slugify(fileName); // file name is based on chapter, etc.
         }
-        return Tui.slugify(fileName.replaceAll(" \\(\\*\\)", "-gv")
+        return Tui.slugify(fileName.replace(" (*)", "-gv")
                 + sourceIfNotDefault(primarySource, type));
     }
 
@@ -173,6 +183,14 @@ public class Tools5eLinkifier {
 
     private String createLink(String linkText, String key, Tools5eSources linkSource) {
         Tools5eIndexType type = Tools5eIndexType.getTypeFromKey(key);
+        if (type == Tools5eIndexType.table || type == Tools5eIndexType.tableGroup) {
+            // not cached: links to tables are recorded
+            return createLink(linkText, key, linkSource, type);
+        }
+        return links.get(new LinkKey(key, linkText), k -> createLink(linkText, key, linkSource, type));
+    }
+
+    private String createLink(String linkText, String key, Tools5eSources linkSource, Tools5eIndexType type) {
         return switch (type) {
             case action,
                     condition,
@@ -449,7 +467,7 @@ public class Tools5eLinkifier {
     }
 
     public String decoratedName(JsonNode entry) {
-        Tools5eIndexType type = Tools5eIndexType.getTypeFromNode(entry);
+        Tools5eIndexType type = Tools5eSources.findOrTemporary(entry).getType();
         return decoratedName(type, entry);
     }
 
@@ -541,8 +559,14 @@ public class Tools5eLinkifier {
         return Tui.slugify(s);
     }
 
+    /** Called when the index has been prepared */
+    void clearCache() {
+        links.clear();
+    }
+
     void reset() {
         index = Tools5eIndex.instance();
         tui = Tui.instance();
+        links.clear();
     }
 }
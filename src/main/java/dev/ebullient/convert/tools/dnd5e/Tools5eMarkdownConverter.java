@@ -14,6 +14,7 @@ import dev.ebullient.convert.qute.QuteBase;
 import dev.ebullient.convert.qute.QuteNote;
 import dev.ebullient.convert.tools.IndexType;
 import dev.ebullient.convert.tools.MarkdownConverter;
+import dev.ebullient.convert.tools.OrderedTasks;
 import dev.ebullient.convert.tools.dnd5e.OptionalFeatureIndex.OptionalFeatureType;
 import dev.ebullient.convert.tools.dnd5e.qute.Tools5eQuteNote;
 
@@ -122,6 +123,10 @@ public class Tools5eMarkdownConverter implements MarkdownConverter {
     }
 
     private void _writeFiles(List<? extends IndexType> types, WritingQueue queue, boolean filterTables) {
+        // Entries written to their own file are converted concurrently (if configured).
+        // Combined documents are built on this thread, in order.
+        OrderedTasks<WritingQueue> tasks = new OrderedTasks<>(index.tui(), "ttrpg-convert");
+
         for (var entry : index.includedEntries()) {
             final String key = entry.getKey();
             final JsonNode jsonSource = entry.getValue();
@@ -134,22 +139,43 @@ public class Tools5eMarkdownConverter implements MarkdownConverter {
             }
 
             if (nodeType.writeFile()) {
-                writeQuteBaseFiles(nodeType, key, jsonSource, queue);
+                tasks.submit(() -> index.cfg().withParseState(() -> {
+                    long start = index.tui().metrics().start();
+                    WritingQueue converted = new WritingQueue();
+                    writeQuteBaseFiles(nodeType, key, jsonSource, converted);
+                    // counted once, if the entry is converted again
+                    OrderedTasks.onRedo(index.tui().metrics().entry(nodeType.name(), key, start));
+                    return converted;
+                }));
             } else if (nodeType.isOutputType() && nodeType.useQuteNote()) {
-                if (filterTables && (nodeType == Tools5eIndexType.table || nodeType == Tools5eIndexType.tableGroup)) {
-                    Tools5eSources sources = Tools5eSources.findSources(key);
-                    // Write if linked from rendered content, or explicitly targeted by a filter rule
-                    boolean explicitlyIncluded = sources != null
-                            && sources.filterRuleApplied()
-                            && sources.includedByConfig();
-                    if (index.isTableReferenced(key) || explicitlyIncluded) {
-                        writeQuteNoteFiles(nodeType, key, jsonSource, queue);
+                tasks.runInline(() -> index.cfg().withParseState(() -> {
+                    long start = index.tui().metrics().start();
+                    if (filterTables
+                            && (nodeType == Tools5eIndexType.table || nodeType == Tools5eIndexType.tableGroup)) {
+                        Tools5eSources sources = Tools5eSources.findSources(key);
+                        // Write if linked from rendered content, or explicitly targeted by a filter rule
+                        boolean explicitlyIncluded = sources != null
+                                && sources.filterRuleApplied()
+                                && sources.includedByConfig();
+                        if (index.isTableReferenced(key) || explicitlyIncluded) {
+                            writeQuteNoteFiles(nodeType, key, jsonSource, queue);
+                        } else {
+                            index.tui().logf(Msg.FILTER, "(drop | unreferenced) %s", key);
+                        }
                     } else {
-                        index.tui().logf(Msg.FILTER, "(drop | unreferenced) %s", key);
+                        writeQuteNoteFiles(nodeType, key, jsonSource, queue);
                     }
-                } else {
-                    writeQuteNoteFiles(nodeType, key, jsonSource, queue);
-                }
+                    OrderedTasks.onRedo(index.tui().metrics().entry(nodeType.name(), key, start));
+                    return null;
+                }));
+            }
+        }
+
+        // Keep the order of a serial conversion
+        for (WritingQueue converted : tasks.join()) {
+            if (converted != null) {
+                queue.baseCompendium.addAll(converted.baseCompendium);
+                queue.baseRules.addAll(converted.baseRules);
             }
         }
     }
@@ -6,12 +6,14 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -26,6 +28,8 @@ import dev.ebullient.convert.tools.CompendiumSources;
 import dev.ebullient.convert.tools.IndexType;
 import dev.ebullient.convert.tools.JsonNodeReader;
 import dev.ebullient.convert.tools.JsonTextConverter.SourceField;
+import dev.ebullient.convert.tools.OrderedRegistry;
+import dev.ebullient.convert.tools.OrderedTasks;
 import dev.ebullient.convert.tools.ToolsIndex.TtrpgValue;
 import dev.ebullient.convert.tools.dnd5e.JsonSource.JsonMediaHref;
 import dev.ebullient.convert.tools.dnd5e.JsonSource.TableFields;
@@ -34,17 +38,25 @@ import io.quarkus.qute.TemplateData;
 @TemplateData
 public class Tools5eSources extends CompendiumSources {
 
-    private static final Map<String, Tools5eSources> keyToSources = new HashMap<>();
-    private static final Map<String, ImageRef> imageSourceToRef = new HashMap<>();
+    // Entries are converted and rendered concurrently: these maps must tolerate that.
+    // The first reference to an image (in conversion order) decides where it is copied.
+    // Fonts are only registered while reading input; iteration order matters for css output.
+    private static final Map<String, Tools5eSources> keyToSources = new ConcurrentHashMap<>();
+    private static final OrderedRegistry<String, ImageRef> imageSourceToRef = new OrderedRegistry<>(
+            Tools5eSources::sameImageTarget);
     private static final Map<String, FontRef> fontSourceToRef = new HashMap<>();
-    private static final Map<String, List<QuteBase>> keyToInlineNotes = new HashMap<>();
-    private static final Set<String> basicRulesKeys = new HashSet<>();
-    private static final Set<String> basicRules2024Keys = new HashSet<>();
+    private static final Map<String, List<QuteBase>> keyToInlineNotes = new ConcurrentHashMap<>();
+    private static final Set<String> basicRulesKeys = ConcurrentHashMap.newKeySet();
+    private static final Set<String> basicRules2024Keys = ConcurrentHashMap.newKeySet();
 
     private static boolean isBasicRules(String key, JsonNode jsonElement) {
         if (basicRulesKeys.isEmpty()) {
-            final JsonNode basicRules = TtrpgConfig.activeGlobalConfig("basicRules");
-            basicRules.forEach(node -> basicRulesKeys.add(node.asText()));
+            synchronized (basicRulesKeys) {
+                if (basicRulesKeys.isEmpty()) {
+                    final JsonNode basicRules = TtrpgConfig.activeGlobalConfig("basicRules");
+                    basicRules.forEach(node -> basicRulesKeys.add(node.asText()));
+                }
+            }
         }
         return SourceAttributes.basicRules.coerceBooleanOrDefault(jsonElement, false)
                 || basicRulesKeys.contains(key);
@@ -52,8 +64,12 @@ public class Tools5eSources extends CompendiumSources {
 
     private static boolean isBasicRules2024(String key, JsonNode jsonElement) {
         if (basicRules2024Keys.isEmpty()) {
-            final JsonNode basicRules = TtrpgConfig.activeGlobalConfig("basicRules2024");
-            basicRules.forEach(node -> basicRules2024Keys.add(node.asText()));
+            synchronized (basicRules2024Keys) {
+                if (basicRules2024Keys.isEmpty()) {
+                    final JsonNode basicRules = TtrpgConfig.activeGlobalConfig("basicRules2024");
+                    basicRules.forEach(node -> basicRules2024Keys.add(node.asText()));
+                }
+            }
         }
         return SourceAttributes.basicRules2024.coerceBooleanOrDefault(jsonElement, false)
                 || basicRules2024Keys.contains(key);
@@ -115,28 +131,34 @@ public class Tools5eSources extends CompendiumSources {
         }
         Tools5eIndexType type = Tools5eIndexType.getTypeFromKey(key);
         TtrpgValue.indexKey.setIn(node, key);
-        return keyToSources.computeIfAbsent(key, k -> {
+        Tools5eSources sources = keyToSources.get(key);
+        if (sources == null) {
+            // Construct outside of the map: constructing sources may look up others
             Tools5eSources s = new Tools5eSources(type, key, node);
-            s.checkKnown();
-            return s;
-        });
+            sources = keyToSources.putIfAbsent(key, s);
+            if (sources == null) {
+                s.checkKnown();
+                sources = s;
+            }
+        }
+        return sources;
     }
 
     public static Tools5eSources findOrTemporary(JsonNode node) {
         if (node == null) {
             throw new IllegalArgumentException("Must pass a JsonNode");
         }
+        // Called while entries are converted concurrently: nested nodes can be shared,
+        // so the type and key of an unindexed node are derived, not stored in the node
         Tools5eIndexType type = Tools5eIndexType.getTypeFromNode(node);
         if (type == null) {
             type = SourceField.source.existsIn(node)
                     ? Tools5eIndexType.reference
                     : Tools5eIndexType.syntheticGroup;
-            TtrpgValue.indexInputType.setIn(node, type.name());
         }
         String key = TtrpgValue.indexKey.getTextOrNull(node);
         if (key == null) {
             key = type.createKey(node);
-            TtrpgValue.indexKey.setIn(node, key);
         }
         Tools5eSources sources = findSources(key);
         return sources == null
@@ -153,7 +175,9 @@ public class Tools5eSources extends CompendiumSources {
     }
 
     public void addInlineNote(QuteBase note) {
-        keyToInlineNotes.computeIfAbsent(this.key, k -> new ArrayList<>()).add(note);
+        List<QuteBase> notes = keyToInlineNotes.computeIfAbsent(this.key, k -> new CopyOnWriteArrayList<>());
+        notes.add(note);
+        OrderedTasks.onRedo(() -> notes.remove(note));
     }
 
     public static Collection<FontRef> getFonts() {
@@ -471,14 +495,23 @@ public class Tools5eSources extends CompendiumSources {
 
     public ImageRef buildTokenImageRef(Tools5eIndex index, String sourcePath, Path target, boolean useCompendium) {
         String key = sourcePath.toString();
-        ImageRef imageRef = new ImageRef.Builder()
+        ImageRef.Builder builder = new ImageRef.Builder()
                 .setRelativePath(target)
                 .setInternalPath(sourcePath)
                 .setRootFilepath(useCompendium ? index.compendiumFilePath() : index.rulesFilePath())
-                .setVaultRoot(useCompendium ? index.compendiumVaultRoot() : index.rulesVaultRoot())
-                .build(imageSourceToRef.get(key));
-        imageSourceToRef.putIfAbsent(key, imageRef);
-        return imageRef;
+                .setVaultRoot(useCompendium ? index.compendiumVaultRoot() : index.rulesVaultRoot());
+        return builder.build(imageSourceToRef.register(key, builder::build));
+    }
+
+    /** The first reference to an image decides where it is copied to */
+    private static boolean sameImageTarget(ImageRef a, ImageRef b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Objects.equals(a.url(), b.url())
+                && Objects.equals(a.sourcePath(), b.sourcePath())
+                && Objects.equals(a.targetFilePath(), b.targetFilePath())
+                && Objects.equals(a.getVaultPath(), b.getVaultPath());
     }
 
     public ImageRef buildImageRef(Tools5eIndex index, JsonMediaHref mediaHref, String imageBasePath, boolean useCompendium) {
@@ -534,9 +567,7 @@ public class Tools5eSources extends CompendiumSources {
             builder.setInternalPath(mediaHref.href.path);
         }
 
-        ImageRef imageRef = builder.build(imageSourceToRef.get(key));
-        imageSourceToRef.putIfAbsent(key, imageRef);
-        return imageRef;
+        return builder.build(imageSourceToRef.register(key, builder::build));
     }
 
     /** Amend optionalfeaturetype with sources of related optional features */
@@ -579,6 +610,12 @@ public class Tools5eSources extends CompendiumSources {
         basicRules2024Keys.clear();
     }
 
+    /** Forget images and inline notes collected while converting (sources remain) */
+    static void clearConverted() {
+        imageSourceToRef.clear();
+        keyToInlineNotes.clear();
+    }
+
     public static boolean isClassicEdition(JsonNode baseItem) {
         String edition = SourceAttributes.edition.getTextOrDefault(baseItem, "");
         return "classic".equalsIgnoreCase(edition);
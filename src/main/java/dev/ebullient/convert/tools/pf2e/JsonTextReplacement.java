@@ -17,6 +17,7 @@ import dev.ebullient.convert.io.Msg;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonNodeReader;
 import dev.ebullient.convert.tools.JsonTextConverter;
+import dev.ebullient.convert.tools.TagReplacement;
 
 public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
 
@@ -53,6 +54,49 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
     Pattern chancePattern = Pattern.compile("\\{@chance ([^}]+)}");
     Pattern notePattern = Pattern.compile("\\{@note (\\*|Note:)?\\s?([^}]+)}");
     Pattern quickRefPattern = Pattern.compile("\\{@quickref ([^}]+)}");
+    Pattern promptDefault = Pattern.compile("#\\$prompt_number.*default=(.*)\\$#");
+    Pattern markdownLink = Pattern.compile("\\[.+]\\(.+\\)");
+    Pattern apocryphal = Pattern.compile("\\s+\\([Aa]pocryphal\\)");
+    Pattern trailingNumber = Pattern.compile("\\s\\d+$");
+    Pattern parentheticalSuffix = Pattern.compile("\\s+\\((.*)\\)$");
+    Pattern versatileTrait = Pattern.compile("versatile <.*>");
+    Pattern angleBrackets = Pattern.compile("<(.*)>");
+    Pattern squareBrackets = Pattern.compile("\\[(.*)]");
+    TagReplacement supAsFootnote = TagReplacement.of("\\{@sup ([^}]+)}", "[^$1]");
+    TagReplacement supAsFootnoteRef = TagReplacement.of("\\{@sup ([^}]+)}", "[$1]: ");
+
+    // Simple tags, replaced in this order
+    List<TagReplacement> simpleTagReplacements = List.of(
+            linkTag, // this must come first
+            TagReplacement.of("\\{@pf2etools ([^}|]+)\\|?[^}]*}", "$1"),
+            TagReplacement.of("\\{@Pf2eTools ([^}|]+)\\|?[^}]*}", "$1"),
+            // {@footnote directly in text|This is primarily for homebrew purposes, as the official texts (so far) avoid using footnotes},
+            // {@footnote optional reference information|This is the footnote. References are free text.|Footnote 1, page 20}.",
+            TagReplacement.of("\\{@footnote ([^|}]+)\\|([^|}]+)\\|([^}]*)}", "$1 ^[$2, _$3_]"),
+            TagReplacement.of("\\{@footnote ([^|}]+)\\|([^}]*)}", "$1 ^[$2]"),
+            TagReplacement.of("\\{@reward ([^|}]+)\\|?[^}]*}", "$1"),
+            dcTag,
+            TagReplacement.of("\\{@flatDC ([^}]+)}", "$1"),
+            rechargeTag,
+            rechargeEmptyTag,
+            filterTag,
+            TagReplacement.of("\\{@cult ([^|}]+)\\|([^|}]+)\\|[^|}]*}", "$2"),
+            cultTag,
+            TagReplacement.of("\\{@language ([^|}]+)\\|?[^}]*}", "$1"),
+            bookTag,
+            TagReplacement.of("\\{@h}", "Hit: "),
+            cTag,
+            centerTag,
+            TagReplacement.of("\\{@s ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@strike ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@n ([^}]+?)}", "$1"),
+            bTag,
+            TagReplacement.of("\\{@B ([^}]+?)}", "**$1**"),
+            boldTag,
+            TagReplacement.of("\\{@i ([^}]+?)}", "_$1_"),
+            TagReplacement.of("\\{@italic ([^}]+)}", "_$1_"),
+            TagReplacement.of("\\{@indentFirst ([^}]+?)}", "$1"),
+            TagReplacement.of("\\{@indentSubsequent ([^}]+?)}", "$1"));
 
     Pf2eIndex index();
 
@@ -81,15 +125,18 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
                     .replace("#$prompt_number:title=Enter Charisma Modifier$#", "Charisma modifier")
                     .replace("#$prompt_number:title=Enter Lifestyle Modifier$#", "Charisma modifier")
                     .replace("#$prompt_number:title=Enter a Modifier$#", "Modifier")
-                    .replace("#$prompt_number:title=Enter a Modifier,default=10$#", "Modifier (default 10)")
-                    .replaceAll("#\\$prompt_number.*default=(.*)\\$#", "$1")
+                    .replace("#$prompt_number:title=Enter a Modifier,default=10$#", "Modifier (default 10)");
+            if (result.contains("#$prompt_number")) {
+                result = promptDefault.matcher(result).replaceAll("$1");
+            }
+            result = result
                     .replace("{@conditoin", "{@condition")
                     .replace("ffguard", "ff-guard"); // fix typo;
 
             if (parseState().inList() || parseState().inTable()) {
-                result = result.replaceAll("\\{@sup ([^}]+)}", "[^$1]");
+                result = supAsFootnote.apply(result);
             } else {
-                result = result.replaceAll("\\{@sup ([^}]+)}", "[$1]: ");
+                result = supAsFootnoteRef.apply(result);
             }
 
             result = replaceWithDiceRoller(result); // {@hit ..} and {@d20 ..}
@@ -112,7 +159,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
             result = runeItemPattern.matcher(result)
                     .replaceAll(this::linkifyRuneItem);
 
-            result = result.replaceAll("\\{@lore ", "{@skill ");
+            result = result.replace("{@lore ", "{@skill ");
 
             result = Pf2eIndexType.matchPattern.matcher(result)
                     .replaceAll(this::linkify);
@@ -129,38 +176,8 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
             // {@indentSubsequent is the counterpart to @indentFirst. }",
 
             try {
-                result = result
-                        .replace("{@hitYourSpellAttack}", "the summoner's spell attack modifier")
-                        .replaceAll("\\{@link ([^}|]+)\\|([^}]+)}", "$1 ($2)") // this must come first
-                        .replaceAll("\\{@pf2etools ([^}|]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@Pf2eTools ([^}|]+)\\|?[^}]*}", "$1")
-                        // {@footnote directly in text|This is primarily for homebrew purposes, as the official texts (so far) avoid using footnotes},
-                        // {@footnote optional reference information|This is the footnote. References are free text.|Footnote 1, page 20}.",
-                        .replaceAll("\\{@footnote ([^|}]+)\\|([^|}]+)\\|([^}]*)}", "$1 ^[$2, _$3_]")
-                        .replaceAll("\\{@footnote ([^|}]+)\\|([^}]*)}", "$1 ^[$2]")
-                        .replaceAll("\\{@reward ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@dc ([^}]+)}", "DC $1")
-                        .replaceAll("\\{@flatDC ([^}]+)}", "$1")
-                        .replaceAll("\\{@recharge ([^}]+?)}", "(Recharge $1-6)")
-                        .replaceAll("\\{@recharge}", "(Recharge 6)")
-                        .replaceAll("\\{@filter ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@cult ([^|}]+)\\|([^|}]+)\\|[^|}]*}", "$2")
-                        .replaceAll("\\{@cult ([^|}]+)\\|[^}]*}", "$1")
-                        .replaceAll("\\{@language ([^|}]+)\\|?[^}]*}", "$1")
-                        .replaceAll("\\{@book ([^}|]+)\\|?[^}]*}", "\"$1\"")
-                        .replaceAll("\\{@h}", "Hit: ")
-                        .replaceAll("\\{@c ([^}]+?)}", "$1")
-                        .replaceAll("\\{@center ([^}]+?)}", "$1")
-                        .replaceAll("\\{@s ([^}]+?)}", "$1")
-                        .replaceAll("\\{@strike ([^}]+?)}", "$1")
-                        .replaceAll("\\{@n ([^}]+?)}", "$1")
-                        .replaceAll("\\{@b ([^}]+?)}", "**$1**")
-                        .replaceAll("\\{@B ([^}]+?)}", "**$1**")
-                        .replaceAll("\\{@bold ([^}]+?)}", "**$1**")
-                        .replaceAll("\\{@i ([^}]+?)}", "_$1_")
-                        .replaceAll("\\{@italic ([^}]+)}", "_$1_")
-                        .replaceAll("\\{@indentFirst ([^}]+?)}", "$1")
-                        .replaceAll("\\{@indentSubsequent ([^}]+?)}", "$1");
+                result = result.replace("{@hitYourSpellAttack}", "the summoner's spell attack modifier");
+                result = TagReplacement.applyAll(simpleTagReplacements, result);
             } catch (Exception e) {
                 tui().errorf(e, "Unable to parse string from %s: %s", getSources().getKey(), input);
             }
@@ -282,16 +299,16 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
         String linkText = parts.length > 2 ? parts[2] : parts[0];
         String source = targetType.defaultSourceString();
 
-        if (linkText.matches("\\[.+]\\(.+\\)")) {
+        if (markdownLink.matcher(linkText).matches()) {
             // skip if already a link
             return linkText;
         }
         if (targetType == Pf2eIndexType.domain) {
-            parts[0] = parts[0].replaceAll("\\s+\\([Aa]pocryphal\\)", "");
+            parts[0] = apocryphal.matcher(parts[0]).replaceAll("");
             return linkifyRules(Pf2eIndexType.domain, linkText, "domains", toTitleCase(parts[0]));
         } else if (targetType == Pf2eIndexType.condition) {
-            return linkifyRules(Pf2eIndexType.condition, linkText.replaceAll("\\s\\d+$", ""),
-                    "conditions", toTitleCase(parts[0].replaceAll("\\s\\d+$", "")));
+            return linkifyRules(Pf2eIndexType.condition, trailingNumber.matcher(linkText).replaceAll(""),
+                    "conditions", toTitleCase(trailingNumber.matcher(parts[0]).replaceAll("")));
         }
 
         if (parts.length > 1) {
@@ -299,7 +316,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
         }
 
         if (targetType == Pf2eIndexType.spell) {
-            parts[0] = parts[0].replaceAll("\\s+\\((.*)\\)$", "-$1");
+            parts[0] = parentheticalSuffix.matcher(parts[0]).replaceAll("-$1");
         }
 
         // TODO: aliases?
@@ -334,15 +351,15 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
         if (parts.length < 2 && linkText.contains("<")) {
             traitName = traitName.split(" ")[0];
             // Get rid of angle brackets in trait names, so they don't read as HTML tags
-            if (linkText.matches("versatile <.*>")) {
+            if (versatileTrait.matcher(linkText).matches()) {
                 String damageType = linkText.split(" ")[1];
                 linkText = "versatile " + damageType.toUpperCase();
             }
-            linkText = linkText.replaceAll("<(.*)>", "$1");
+            linkText = angleBrackets.matcher(linkText).replaceAll("$1");
         } else if (traitName.startsWith("[")) {
             // Do the same replacement we did when doing the initial import
             // [...] becomes "Any ..."
-            traitName = traitName.replaceAll("\\[(.*)]", "Any $1");
+            traitName = squareBrackets.matcher(traitName).replaceAll("Any $1");
         } else if (traitName.length() <= 2) {
             Pf2eAlignmentValue alignment = Pf2eAlignmentValue.valueFrom(traitName);
             if (alignment != null) {
@@ -393,7 +410,7 @@ public interface JsonTextReplacement extends JsonTextConverter<Pf2eIndexType> {
     }
 
     default String linkifyRules(Pf2eIndexType type, String text, String rules, String anchor) {
-        if (text.matches("\\[.+]\\(.+\\)")) {
+        if (markdownLink.matcher(text).matches()) {
             // skip if already a link
             return text;
         }
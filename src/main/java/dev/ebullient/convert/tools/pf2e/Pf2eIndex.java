@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import dev.ebullient.convert.config.CompendiumConfig;
 import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.io.InputFields;
 import dev.ebullient.convert.io.MarkdownWriter;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.MarkdownConverter;
@@ -88,6 +89,18 @@ public class Pf2eIndex implements ToolsIndex, JsonSource {
         return this;
     }
 
+    @Override
+    public InputFields inputFields() {
+        Set<String> fields = new HashSet<>();
+        for (Pf2eIndexType type : Pf2eIndexType.values()) {
+            fields.add(type.nodeName());
+        }
+        // user configuration uses the whole document
+        Set<String> wholeDocument = CompendiumConfig.configurationFields();
+        fields.removeAll(wholeDocument);
+        return new InputFields(fields, wholeDocument);
+    }
+
     void addToIndex(Pf2eIndexType type, JsonNode node) {
         if (type == Pf2eIndexType.baseitem) {
             // always use item (baseitem is a detail that we have remembered if we need it)
@@ -225,6 +238,7 @@ public class Pf2eIndex implements ToolsIndex, JsonSource {
         imported.entrySet().stream()
                 .filter(e -> keyIsIncluded(e.getKey(), e.getValue()))
                 .forEach(e -> filteredIndex.put(e.getKey(), e.getValue()));
+        config.logKeyRuleStats();
     }
 
     private void createTraitReference(String key, JsonNode node, Pf2eSources sources) {
@@ -70,11 +70,13 @@ public class Pf2eMarkdown implements MarkdownConverter {
                 continue;
             }
 
+            long start = index.tui().metrics().start();
             if (nodeType.isOutputType() && !nodeType.useQuteNote()) {
                 writePf2eQuteBase(nodeType, key, jsonSource, queue);
             } else if (nodeType.isOutputType() && nodeType.useQuteNote()) {
                 writeNotesAndTables(nodeType, key, jsonSource, queue);
             }
+            index.tui().metrics().entry(nodeType.name(), key, start);
         }
 
         IndexContext ctx = new IndexContext(MarkdownWriter::toTitle, (path) -> MarkdownWriter.sortEntryByTitle);
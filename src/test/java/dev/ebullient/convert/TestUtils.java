@@ -411,6 +411,37 @@ public class TestUtils {
         }
     }
 
+    /** Both directories contain the same files, with the same content */
+    public static void assertSameDirectoryContents(Path expected, Path actual) {
+        List<String> expectedFiles = relativeFilesFrom(expected);
+        List<String> actualFiles = relativeFilesFrom(actual);
+        assertThat(actualFiles).containsExactlyElementsOf(expectedFiles);
+
+        List<String> errors = new ArrayList<>();
+        try {
+            for (String file : expectedFiles) {
+                if (Files.mismatch(expected.resolve(file), actual.resolve(file)) >= 0) {
+                    errors.add(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        assertThat(errors).describedAs("Files in %s that differ from %s", actual, expected).isEmpty();
+    }
+
+    private static List<String> relativeFilesFrom(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(p -> p.toFile().isFile())
+                    .map(p -> directory.relativize(p).toString())
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static void readAllToolsData(Tools5eIndex index, Path toolsData, String... dirs) throws IOException {
         // read the tools data
         index.tui().readToolsDir(toolsData, index::importTree);
@@ -424,6 +424,92 @@ public class Tools5eDataConvertTest {
         }
     }
 
+    @Test
+    void testLiveData_2014_lowMemory(QuarkusMainLauncher launcher) {
+        testOutput = rootTestOutput.resolve("low-memory");
+        if (TestUtils.PATH_5E_TOOLS_DATA.toFile().exists()) {
+            TestUtils.deleteDir(testOutput);
+
+            Tui.instance().infof("--- Low memory ----- ");
+
+            // The same content is generated with and without --low-memory
+            Path expected = testOutput.resolve("default");
+            Path actual = testOutput.resolve("low-memory");
+            for (Path output : List.of(expected, actual)) {
+                List<String> args = new ArrayList<>(List.of("--index",
+                        "-o", output.toString(),
+                        "-c", TestUtils.TEST_RESOURCES.resolve("5e/sample.yaml").toString()));
+                if (output == actual) {
+                    args.add("--low-memory");
+                }
+                args.add(TestUtils.PATH_5E_TOOLS_DATA.toString());
+
+                LaunchResult result = launcher.launch(args.toArray(String[]::new));
+                assertThat(result.exitCode())
+                        .withFailMessage("Command failed. Output:%n%s", TestUtils.dump(result))
+                        .isEqualTo(0);
+            }
+            TestUtils.assertSameDirectoryContents(expected, actual);
+        }
+    }
+
+    @Test
+    void testLiveData_2014_jobs(QuarkusMainLauncher launcher) {
+        testOutput = rootTestOutput.resolve("jobs");
+        if (TestUtils.PATH_5E_TOOLS_DATA.toFile().exists()) {
+            TestUtils.deleteDir(testOutput);
+
+            Tui.instance().infof("--- Parallel read and conversion ----- ");
+
+            // The same index and content are generated with one or several workers
+            Path expected = testOutput.resolve("jobs-1");
+            Path actual = testOutput.resolve("jobs-4");
+            for (Path output : List.of(expected, actual)) {
+                LaunchResult result = launcher.launch("--index",
+                        "-j", output == actual ? "4" : "1",
+                        "-o", output.toString(),
+                        "-c", TestUtils.TEST_RESOURCES.resolve("5e/sample.yaml").toString(),
+                        TestUtils.PATH_5E_TOOLS_DATA.toString());
+                assertThat(result.exitCode())
+                        .withFailMessage("Command failed. Output:%n%s", TestUtils.dump(result))
+                        .isEqualTo(0);
+            }
+            TestUtils.assertSameDirectoryContents(expected, actual);
+        }
+    }
+
+    @Test
+    void testLiveData_2014_bundle(QuarkusMainLauncher launcher) {
+        testOutput = rootTestOutput.resolve("bundle");
+        if (TestUtils.PATH_5E_TOOLS_DATA.toFile().exists()) {
+            TestUtils.deleteDir(testOutput);
+
+            Tui.instance().infof("--- Bundle ----- ");
+
+            Path bundle = testOutput.resolve("5etools.bundle");
+            LaunchResult result = launcher.launch("bundle",
+                    "-o", bundle.toString(),
+                    TestUtils.PATH_5E_TOOLS_DATA.toString());
+            assertThat(result.exitCode())
+                    .withFailMessage("Command failed. Output:%n%s", TestUtils.dump(result))
+                    .isEqualTo(0);
+
+            // The same content is generated from the bundle and from the data directory
+            Path expected = testOutput.resolve("directory");
+            Path actual = testOutput.resolve("from-bundle");
+            for (Path output : List.of(expected, actual)) {
+                result = launcher.launch("--index",
+                        "-o", output.toString(),
+                        "-c", TestUtils.TEST_RESOURCES.resolve("5e/sample.yaml").toString(),
+                        (output == actual ? bundle : TestUtils.PATH_5E_TOOLS_DATA).toString());
+                assertThat(result.exitCode())
+                        .withFailMessage("Command failed. Output:%n%s", TestUtils.dump(result))
+                        .isEqualTo(0);
+            }
+            TestUtils.assertSameDirectoryContents(expected, actual);
+        }
+    }
+
     // --- 2024 ---
 
     @Test
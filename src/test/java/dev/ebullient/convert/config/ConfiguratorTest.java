@@ -138,4 +138,51 @@ public class ConfiguratorTest {
             assertThat(config.imageOptions().copyInternal()).isFalse();
         });
     }
+
+    @Test
+    public void testKeyRules() throws Exception {
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        Configurator test = new Configurator(tui);
+
+        test.readConfigIfPresent(Tui.MAPPER.readTree("""
+                {
+                    "from": [ "PHB" ],
+                    "include": [ "race|changeling|mpmm" ],
+                    "exclude": [ "monster|expert|dc" ],
+                    "excludePattern": [ "race|.*|dmg", "item|.*(\\+1)|phb" ]
+                }
+                """));
+        CompendiumConfig config = TtrpgConfig.getConfig();
+
+        assertThat(config.keyIsIncluded("race|changeling|mpmm")).contains(true);
+        assertThat(config.keyIsIncluded("monster|expert|dc")).contains(false);
+        assertThat(config.keyIsIncluded("race|aasimar|dmg")).contains(false);
+        assertThat(config.keyIsIncluded("item|shield +1|phb")).contains(false);
+        assertThat(config.keyIsIncluded("item|shield|phb")).isEmpty();
+        assertThat(config.keyIsIncluded("race|aasimar|vgm")).isEmpty();
+
+        // decisions are reused, and reset when rules are added
+        assertThat(config.keyIsIncluded("race|aasimar|dmg")).contains(false);
+        assertThat(config.keyDecisionsReused.get()).isEqualTo(1);
+
+        test.readConfigIfPresent(Tui.MAPPER.readTree("""
+                { "include": [ "race|aasimar|dmg" ] }
+                """));
+        assertThat(config.keyIsIncluded("race|aasimar|dmg")).contains(true);
+
+        // a rule replaced by another: same number of rules, different decisions
+        assertThat(config.keyIsIncluded("monster|expert|mm")).isEmpty();
+        config.excludedKeys.remove("monster|expert|dc");
+        config.excludeKey("monster|expert|mm");
+        assertThat(config.keyIsIncluded("monster|expert|dc")).isEmpty();
+        assertThat(config.keyIsIncluded("monster|expert|mm")).contains(false);
+
+        // patterns that define the same group name are matched separately
+        test.readConfigIfPresent(Tui.MAPPER.readTree("""
+                { "excludePattern": [ "spell|(?<name>.*)|xge", "feat|(?<name>.*)|xge", "deity|(?<=\\|).*|dmg" ] }
+                """));
+        assertThat(config.keyIsIncluded("spell|toll the dead|xge")).contains(false);
+        assertThat(config.keyIsIncluded("feat|alert|xge")).contains(false);
+        assertThat(config.keyIsIncluded("feat|alert|phb")).isEmpty();
+    }
 }
@@ -0,0 +1,102 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class CompactNodesTest {
+
+    final Tui tui = new Tui();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        CompactNodes nodes = new CompactNodes(tui);
+
+        JsonNode monster = Tui.MAPPER.readTree("""
+                {
+                    "name": "Ancient Gold Dragon",
+                    "source": "MM",
+                    "page": 134,
+                    "xp": 9007199254740993,
+                    "cr": { "cr": "24", "lair": "25" },
+                    "speed": { "walk": 40, "fly": 80, "swim": 40 },
+                    "hp": { "average": 546.5, "formula": "28d20 + 252" },
+                    "legendary": null,
+                    "isNpc": false,
+                    "familiar": true,
+                    "entries": [
+                        "Gold dragons dwell in secluded lairs — «ÆØÅ» 金龍 🐉",
+                        { "type": "list", "items": [ "one", { "type": "item", "entries": [] } ] },
+                        [],
+                        {}
+                    ],
+                    "empty": ""
+                }
+                """);
+        JsonNode scalar = Tui.MAPPER.readTree("\"just text\"");
+
+        assertThat(nodes.put("monster|ancient gold dragon|mm", monster)).isTrue();
+        assertThat(nodes.put("scalar", scalar)).isTrue();
+        assertThat(nodes.size()).isEqualTo(2);
+        assertThat(nodes.contains("monster|ancient gold dragon|mm")).isTrue();
+        assertThat(nodes.contains("monster|young gold dragon|mm")).isFalse();
+        assertThat(nodes.get("monster|young gold dragon|mm")).isNull();
+
+        JsonNode decoded = nodes.get("monster|ancient gold dragon|mm");
+        assertThat(decoded).isEqualTo(monster);
+        assertThat(decoded).isNotSameAs(monster);
+        assertThat(decoded.get("xp").asLong()).isEqualTo(9007199254740993L);
+        assertThat(decoded.at("/hp/average").asDouble()).isEqualTo(546.5);
+        assertThat(nodes.get("scalar")).isEqualTo(scalar);
+
+        // Recently read entries are kept decoded
+        assertThat(nodes.get("monster|ancient gold dragon|mm")).isSameAs(decoded);
+    }
+
+    @Test
+    public void testPutReplacesEntry() {
+        CompactNodes nodes = new CompactNodes(tui);
+
+        ObjectNode original = Tui.MAPPER.createObjectNode().put("name", "Goblin").put("hp", 7);
+        nodes.put("monster|goblin|mm", original);
+        JsonNode hot = nodes.get("monster|goblin|mm");
+        long bytes = nodes.encodedBytes.get();
+
+        ObjectNode copy = original.deepCopy().put("hp", 12).put("note", "resolved copy");
+        nodes.put("monster|goblin|mm", copy);
+        assertThat(nodes.size()).isEqualTo(1);
+        assertThat(nodes.encodedBytes.get()).isGreaterThan(bytes);
+
+        // the previously decoded entry is not returned
+        JsonNode decoded = nodes.get("monster|goblin|mm");
+        assertThat(decoded).isNotSameAs(hot);
+        assertThat(decoded).isEqualTo(copy);
+    }
+
+    @Test
+    public void testHotEntriesAreBounded() {
+        CompactNodes nodes = new CompactNodes(tui);
+        int count = CompactNodes.HOT_ENTRIES * 2;
+        for (int i = 0; i < count; i++) {
+            nodes.put("item|" + i, Tui.MAPPER.createObjectNode().put("value", i));
+        }
+        JsonNode first = nodes.get("item|0");
+        for (int i = 0; i < count; i++) {
+            assertThat(nodes.get("item|" + i).get("value").asInt()).isEqualTo(i);
+        }
+        assertThat(nodes.hot.size()).isEqualTo(CompactNodes.HOT_ENTRIES);
+
+        // evicted entries are decoded again
+        JsonNode again = nodes.get("item|0");
+        assertThat(again).isNotSameAs(first);
+        assertThat(again).isEqualTo(first);
+        assertThat(nodes.decodes.get()).isEqualTo(count + 1);
+
+        nodes.clear();
+        assertThat(nodes.size()).isEqualTo(0);
+        assertThat(nodes.get("item|0")).isNull();
+    }
+}
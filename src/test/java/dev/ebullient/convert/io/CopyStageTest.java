@@ -0,0 +1,40 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.convert.TestUtils;
+
+public class CopyStageTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-copy");
+
+    @Test
+    public void testCopyAndLink() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Path source = outputPath.resolve("source/image.png");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "not really an image");
+
+        Tui tui = new Tui();
+        CopyStage copy = new CopyStage(tui, "images", false);
+        Path copied = outputPath.resolve("vault/img/copied.png");
+        assertThat(copy.exists(copied)).isFalse();
+        copy.copy(source, copied);
+        assertThat(copied).hasContent("not really an image");
+        assertThat(copy.copied.files()).isEqualTo(1);
+        assertThat(copy.exists(copied)).isTrue();
+        assertThat(copy.skipped.files()).isEqualTo(1);
+
+        // hard link on the same file system (copied if links are not supported)
+        CopyStage link = new CopyStage(tui, "images", true);
+        Path linked = outputPath.resolve("vault/img/linked.png");
+        link.copy(source, linked);
+        assertThat(linked).hasContent("not really an image");
+        assertThat(link.copied.files() + link.linked.files()).isEqualTo(1);
+    }
+}
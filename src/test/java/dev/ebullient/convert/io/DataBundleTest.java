@@ -0,0 +1,103 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+
+public class DataBundleTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-bundle");
+
+    final Tui tui = new Tui();
+
+    @Test
+    public void testBundleContents() throws IOException {
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        TestUtils.deleteDir(outputPath);
+
+        Path data = outputPath.resolve("data");
+        write(data.resolve("races.json"), "{\"race\":[{\"name\":\"Elf\",\"source\":\"PHB\"}]}");
+        write(data.resolve("bestiary/bestiary-mm.json"), "{\"monster\":[{\"name\":\"Goblin\",\"source\":\"MM\"}]}");
+        write(data.resolve("bestiary/fluff-bestiary-mm.json"), "{\"monsterFluff\":[{\"name\":\"Goblin\"}]}");
+        write(data.resolve("bestiary/legendarygroups.json"), "{\"legendaryGroup\":[]}");
+        write(data.resolve("book/book-phb.json"), "{\"data\":[{\"type\":\"section\"}]}");
+        Path brew = outputPath.resolve("brew.json");
+        write(brew, "{\"_meta\":{\"sources\":[{\"json\":\"brew\"}]},\"monster\":[{\"name\":\"Gnome\"}]}");
+
+        Path target = outputPath.resolve("test" + DataBundle.SUFFIX);
+        DataBundle.write(tui, Datasource.tools5e, data, List.of(brew), target);
+        assertThat(DataBundle.isBundle(target)).isTrue();
+        assertThat(DataBundle.isBundle(brew)).isFalse();
+
+        DataBundle bundle = DataBundle.open(target);
+        assertThat(bundle.game()).isEqualTo("tools5e");
+        assertThat(bundle.size()).isEqualTo(6);
+        assertThat(bundle.extras()).containsExactly("extra/0/brew.json");
+
+        // files in a directory are selected as they are on disk
+        assertThat(bundle.dataFiles("bestiary")).containsExactly(
+                target.resolve("bestiary/bestiary-mm.json"),
+                target.resolve("bestiary/fluff-bestiary-mm.json"));
+        assertThat(bundle.dataFiles("races.json")).containsExactly(target.resolve("races.json"));
+
+        Path book = target.resolve("book/book-phb.json");
+        assertThat(bundle.contains(book)).isTrue();
+        assertThat(bundle.contains(target.resolve("book/book-dmg.json"))).isFalse();
+        assertThat(bundle.read(book, null)).isEqualTo(Tui.MAPPER.readTree(data.resolve("book/book-phb.json").toFile()));
+
+        InputFields fields = new InputFields(List.of("monster"), List.of("_meta"));
+        JsonNode monsters = bundle.read(target.resolve("bestiary/bestiary-mm.json"), fields);
+        assertThat(monsters.at("/monster/0/name").asText()).isEqualTo("Goblin");
+        JsonNode homebrew = bundle.read(target.resolve("extra/0/brew.json"), fields);
+        assertThat(homebrew.has("_meta")).isTrue();
+        assertThat(bundle.fixes()).isEqualTo(DataBundle.fixesHash());
+
+        // bundling the same data again gives the same bundle
+        Path again = outputPath.resolve("again" + DataBundle.SUFFIX);
+        DataBundle.write(tui, Datasource.tools5e, data, List.of(brew), again);
+        assertThat(DataBundle.open(again).hash()).isEqualTo(bundle.hash());
+    }
+
+    @Test
+    public void testReadIndexFromBundle() throws IOException {
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        TestUtils.deleteDir(outputPath);
+
+        // a (minimal) tools data directory, and a generated lookup that isn't a data file
+        Path data = outputPath.resolve("data");
+        for (String source : TtrpgConfig.getFileSources()) {
+            if (source.endsWith(".json")) {
+                write(data.resolve(source), "{}");
+            } else {
+                write(data.resolve(source).resolve(source + "-test.json"), "{}");
+            }
+        }
+        String lookup = "{\"phb\":{\"fireball\":{\"class\":{\"PHB\":{\"Wizard\":true}}}}}";
+        write(data.resolve("generated/gendata-spell-source-lookup.json"), lookup);
+
+        Path target = outputPath.resolve("data" + DataBundle.SUFFIX);
+        DataBundle.write(tui, Datasource.tools5e, data, List.of(), target);
+        TestUtils.deleteDir(data);
+
+        assertThat(tui.readBundle(target, (name, node) -> {
+        })).isTrue();
+        Path generated = Path.of("generated/gendata-spell-source-lookup.json");
+        assertThat(tui.resolvePath(generated).orElse(null)).isEqualTo(target.toAbsolutePath().normalize());
+        assertThat(TtrpgConfig.readIndex("spell-source")).isEqualTo(Tui.MAPPER.readTree(lookup));
+    }
+
+    void write(Path p, String json) throws IOException {
+        Files.createDirectories(p.getParent());
+        Files.writeString(p, json);
+    }
+}
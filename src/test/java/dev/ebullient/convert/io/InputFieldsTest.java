@@ -0,0 +1,68 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.TtrpgConfig.Fix;
+
+public class InputFieldsTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-input-fields");
+
+    final Tui tui = new Tui();
+    final InputFields fields = new InputFields(List.of("monster", "spell"), List.of("_meta", "data"));
+
+    @Test
+    public void testOnlyListedFieldsAreRead() throws IOException {
+        Path input = write("{\"_comment\":{\"nested\":[1,2,{\"a\":\"b\"}]},"
+                + "\"monster\":[{\"name\":\"Goblin\",\"hp\":{\"average\":7}}],"
+                + "\"other\":[{\"name\":\"Ignored\"}],"
+                + "\"spell\":[{\"name\":\"Fireball\"}],\"version\":\"1.0\"}");
+
+        JsonNode node = tui.parseJson(input, List.of(), fields);
+        assertThat(node.size()).isEqualTo(2);
+        assertThat(node.at("/monster/0/hp/average").asInt()).isEqualTo(7);
+        assertThat(node.at("/spell/0/name").asText()).isEqualTo("Fireball");
+        assertThat(node.has("other")).isFalse();
+        assertThat(node.has("_comment")).isFalse();
+    }
+
+    @Test
+    public void testWholeDocumentFieldReadsEverything() throws IOException {
+        String json = "{\"monster\":[{\"name\":\"Goblin\"}],\"other\":[1],"
+                + "\"_meta\":{\"sources\":[{\"json\":\"brew\"}]}}";
+        Path input = write(json);
+
+        JsonNode node = tui.parseJson(input, List.of(), fields);
+        assertThat(node).isEqualTo(Tui.MAPPER.readTree(json));
+    }
+
+    @Test
+    public void testFixesApplyBeforeFiltering() throws IOException {
+        Path input = write("{\"other\":[\"Goblin\"],\"monster\":[{\"name\":\"Goblin\"}]}");
+
+        Fix fix = new Fix();
+        fix.match = "(\"name\":\\s*)\"Goblin\"";
+        fix.replace = "$1\"Hobgoblin\"";
+
+        JsonNode node = tui.parseJson(input, List.of(fix), fields);
+        assertThat(node.at("/monster/0/name").asText()).isEqualTo("Hobgoblin");
+        assertThat(node.has("other")).isFalse();
+        assertThat(fix.apply("{\"name\": \"Goblin\"}")).isEqualTo("{\"name\": \"Hobgoblin\"}");
+    }
+
+    Path write(String json) throws IOException {
+        Files.createDirectories(outputPath);
+        Path input = outputPath.resolve("input.json");
+        Files.writeString(input, json);
+        return input;
+    }
+}
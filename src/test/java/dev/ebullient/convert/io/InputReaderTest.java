@@ -0,0 +1,50 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+
+public class InputReaderTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-input-reader");
+
+    @Test
+    public void testSmallAndLargeFiles() throws IOException {
+        Files.createDirectories(outputPath);
+
+        Path small = outputPath.resolve("small.json");
+        Files.writeString(small, "{\"monster\":[{\"name\":\"Gnoll Flesh Gnawer\",\"text\":\"Ærenal — ☃\"}]}");
+        assertThat(InputReader.parse(small, InputReader::readTree))
+                .isEqualTo(Tui.MAPPER.readTree(small.toFile()));
+
+        // Reading a second, shorter file reuses the buffer
+        Path shorter = outputPath.resolve("shorter.json");
+        Files.writeString(shorter, "{\"spell\":[]}");
+        assertThat(InputReader.parse(shorter, InputReader::readTree).toString()).isEqualTo("{\"spell\":[]}");
+
+        StringBuilder sb = new StringBuilder("{\"monster\":[");
+        while (sb.length() < InputReader.MAX_BUFFER + 1024) {
+            sb.append("{\"name\":\"Goblin ").append(sb.length()).append("\",\"hp\":7},");
+        }
+        sb.append("{\"name\":\"Last\"}]}");
+        Path large = outputPath.resolve("large.json");
+        Files.writeString(large, sb);
+        JsonNode node = InputReader.parse(large, InputReader::readTree);
+        assertThat(node).isEqualTo(Tui.MAPPER.readTree(large.toFile()));
+
+        // Large files are not read into the reused buffer
+        assertThat(InputReader.buffer.get().length).isLessThanOrEqualTo(InputReader.MAX_BUFFER);
+        assertThat(InputReader.parse(shorter, InputReader::readTree).toString()).isEqualTo("{\"spell\":[]}");
+
+        Path empty = outputPath.resolve("empty.json");
+        Files.writeString(empty, "");
+        assertThat(InputReader.parse(empty, InputReader::readTree).isMissingNode()).isTrue();
+    }
+}
@@ -0,0 +1,38 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.convert.TestUtils;
+
+public class MarkdownWriterTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-writer");
+
+    @Test
+    public void testSameContent() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath);
+        Path target = outputPath.resolve("note.md");
+
+        // larger than the read buffer, to compare in chunks
+        String content = "0123456789abcdef".repeat(1000);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        assertThat(MarkdownWriter.sameContent(target, bytes)).isFalse();
+
+        Files.write(target, bytes);
+        assertThat(MarkdownWriter.sameContent(target, bytes)).isTrue();
+
+        // same size, different content
+        byte[] changed = (content.substring(0, content.length() - 1) + "X").getBytes(StandardCharsets.UTF_8);
+        assertThat(MarkdownWriter.sameContent(target, changed)).isFalse();
+
+        // different size
+        assertThat(MarkdownWriter.sameContent(target, "short".getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+}
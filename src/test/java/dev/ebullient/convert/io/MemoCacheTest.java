@@ -0,0 +1,39 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class MemoCacheTest {
+
+    @Test
+    public void testBoundedMemo() {
+        AtomicInteger computed = new AtomicInteger();
+        MemoCache<String, String> cache = new MemoCache<>("Test", 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get("Fire Bolt", k -> {
+                computed.incrementAndGet();
+                return k.toLowerCase().replace(" ", "-");
+            })).isEqualTo("fire-bolt");
+        }
+        assertThat(computed.get()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(1);
+
+        // null values are not cached
+        assertThat(cache.get("missing", k -> null)).isNull();
+        assertThat(cache.values).doesNotContainKey("missing");
+
+        // never grows past the bound
+        for (int i = 0; i < 10; i++) {
+            cache.get("key" + i, k -> k);
+        }
+        assertThat(cache.values.size()).isLessThanOrEqualTo(3);
+
+        cache.clear();
+        assertThat(cache.values).isEmpty();
+    }
+}
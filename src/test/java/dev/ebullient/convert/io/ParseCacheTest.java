@@ -0,0 +1,156 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.smile.SmileMapper;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+import dev.ebullient.convert.config.TtrpgConfig.Fix;
+
+public class ParseCacheTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-cache");
+
+    final Tui tui = new Tui();
+    final AtomicInteger parsed = new AtomicInteger();
+
+    @Test
+    public void testCachedTreeIsReused() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath);
+        Path input = outputPath.resolve("input.json");
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Goblin\",\"cr\":\"1/4\",\"hp\":{\"average\":7}}]}");
+
+        ParseCache cache = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        JsonNode first = read(cache, input, List.of());
+        JsonNode second = read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+
+        // Different fixes: parse again
+        Fix fix = new Fix();
+        fix.match = "Goblin";
+        fix.replace = "Hobgoblin";
+        read(cache, input, List.of(fix));
+        assertThat(parsed.get()).isEqualTo(2);
+
+        // Changed input: parse again
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Bugbear\"}]}");
+        JsonNode changed = read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(3);
+        assertThat(changed.at("/monster/0/name").asText()).isEqualTo("Bugbear");
+
+        // Damaged cache entry: parse again
+        try (var entries = Files.list(outputPath.resolve("cache"))) {
+            for (Path entry : entries.toList()) {
+                Files.writeString(entry, "not a cache entry");
+            }
+        }
+        read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void testVerifyContent() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath);
+        Path input = outputPath.resolve("input.json");
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Goblin\"}]}");
+
+        ParseCache cache = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(1);
+
+        // Same size and modification time: only a content check notices the change
+        FileTime modified = Files.getLastModifiedTime(input);
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Kobold\"}]}");
+        Files.setLastModifiedTime(input, modified);
+
+        JsonNode unverified = read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(1);
+        assertThat(unverified.at("/monster/0/name").asText()).isEqualTo("Goblin");
+
+        cache.verifyContent(true);
+        JsonNode verified = read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(2);
+        assertThat(verified.at("/monster/0/name").asText()).isEqualTo("Kobold");
+
+        // The new entry matches the content
+        read(cache, input, List.of());
+        assertThat(parsed.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDerivedDataFollowsInputs() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath);
+        Path input = outputPath.resolve("input.json");
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Goblin\"}]}");
+        JsonNode derived = Tui.MAPPER.createObjectNode().put("goblin", "resolved");
+
+        ParseCache cache = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        read(cache, input, List.of());
+        assertThat(cache.readDerived("derived", "config")).isNull();
+        cache.writeDerived("derived", "config", derived);
+
+        // Same inputs: derived data can be used
+        ParseCache warm = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        read(warm, input, List.of());
+        assertThat(warm.readDerived("derived", "config")).isEqualTo(derived);
+
+        // Different configuration: derived data can't be used
+        assertThat(warm.readDerived("derived", "other config")).isNull();
+
+        // Changed input: derived data is out of date
+        Files.writeString(input, "{\"monster\":[{\"name\":\"Bugbear\"}]}");
+        ParseCache changed = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        read(changed, input, List.of());
+        assertThat(changed.readDerived("derived", "config")).isNull();
+    }
+
+    @Test
+    public void testDerivedDataFollowsBundle() throws IOException {
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        TestUtils.deleteDir(outputPath);
+        Path data = outputPath.resolve("data");
+        Files.createDirectories(data);
+        Files.writeString(data.resolve("races.json"), "{\"race\":[{\"name\":\"Elf\",\"source\":\"PHB\"}]}");
+        Path bundle = outputPath.resolve("data" + DataBundle.SUFFIX);
+        DataBundle.write(tui, Datasource.tools5e, data, List.of(), bundle);
+        JsonNode derived = Tui.MAPPER.createObjectNode().put("elf", "resolved");
+
+        ParseCache cache = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        cache.addBundle(DataBundle.open(bundle));
+        cache.writeDerived("derived", "config", derived);
+
+        // Same bundle: derived data can be used
+        ParseCache warm = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        warm.addBundle(DataBundle.open(bundle));
+        assertThat(warm.readDerived("derived", "config")).isEqualTo(derived);
+
+        // Bundle rebuilt with different contents: derived data is out of date
+        Files.writeString(data.resolve("races.json"), "{\"race\":[{\"name\":\"Dwarf\",\"source\":\"PHB\"}]}");
+        DataBundle.write(tui, Datasource.tools5e, data, List.of(), bundle);
+        ParseCache changed = new ParseCache(tui, outputPath.resolve("cache"), new SmileMapper(), "test");
+        changed.addBundle(DataBundle.open(bundle));
+        assertThat(changed.readDerived("derived", "config")).isNull();
+    }
+
+    JsonNode read(ParseCache cache, Path input, List<Fix> fixes) throws IOException {
+        return cache.read(input, fixes, content -> {
+            parsed.incrementAndGet();
+            return tui.parseJson(input, fixes, null, content);
+        });
+    }
+}
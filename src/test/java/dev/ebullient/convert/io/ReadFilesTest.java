@@ -0,0 +1,61 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.Datasource;
+import dev.ebullient.convert.config.TtrpgConfig;
+
+public class ReadFilesTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-read-files");
+
+    @Test
+    public void testParallelReadKeepsOrder() throws IOException {
+        Tui tui = new Tui();
+        TtrpgConfig.init(tui, Datasource.tools5e);
+        TestUtils.deleteDir(outputPath);
+
+        // files of very different sizes, so workers finish out of order
+        Path dir = outputPath.resolve("bestiary");
+        for (int i = 0; i < 60; i++) {
+            StringBuilder sb = new StringBuilder("{\"monster\":[");
+            for (int j = 0; j < (i % 7) * 400 + 1; j++) {
+                sb.append(j == 0 ? "" : ",").append("{\"name\":\"Monster ").append(i).append('-').append(j).append("\"}");
+            }
+            sb.append("]}");
+            Path file = dir.resolve(i % 2 == 0 ? "bestiary-" + i + ".json" : "more/more-" + i + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, sb);
+        }
+
+        List<String> serial = read(tui, 1, dir);
+        List<String> parallel = read(tui, 4, dir);
+        assertThat(serial).hasSize(60);
+        assertThat(parallel).containsExactlyElementsOf(serial);
+    }
+
+    List<String> read(Tui tui, int jobs, Path dir) {
+        List<String> imported = new ArrayList<>();
+        tui.setParallelism(jobs);
+        try {
+            boolean ok = tui.readDirectory("", dir, (name, node) -> {
+                JsonNode last = node.path("monster").get(node.path("monster").size() - 1);
+                imported.add(name + ":" + last.path("name").asText());
+            });
+            assertThat(ok).isTrue();
+        } finally {
+            tui.setParallelism(1);
+        }
+        return imported;
+    }
+}
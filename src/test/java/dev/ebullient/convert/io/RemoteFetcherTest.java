@@ -0,0 +1,139 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.ebullient.convert.TestUtils;
+
+public class RemoteFetcherTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-fetch");
+    final static String ETAG = "\"v1\"";
+
+    HttpServer server;
+    String baseUrl;
+    final AtomicInteger requests = new AtomicInteger();
+    final AtomicInteger notModified = new AtomicInteger();
+    final AtomicInteger failuresLeft = new AtomicInteger();
+    String errorBody = "try again";
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/image.png", this::handle);
+        server.createContext("/missing.png", x -> respond(x, 404, "not found"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (failuresLeft.getAndDecrement() > 0) {
+            respond(exchange, 503, errorBody);
+        } else if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        } else {
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            respond(exchange, 200, "image data");
+        }
+    }
+
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    public void testCacheAndRevalidate() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Tui tui = new Tui();
+        RemoteFetcher fetcher = new RemoteFetcher(tui, outputPath.resolve("cache"), Duration.ofSeconds(5), 2);
+
+        Path first = outputPath.resolve("vault/first.png");
+        assertThat(fetcher.fetch(baseUrl + "/image.png", first)).isEqualTo(10L);
+        assertThat(first).hasContent("image data");
+        assertThat(notModified.get()).isEqualTo(0);
+
+        // a clean build: revalidated with the ETag, body comes from the cache
+        Path second = outputPath.resolve("vault/second.png");
+        fetcher.fetch(baseUrl + "/image.png", second);
+        assertThat(second).hasContent("image data");
+        assertThat(notModified.get()).isEqualTo(1);
+        assertThat(requests.get()).isEqualTo(2);
+
+        // server unavailable (more failures than retries): the cached copy is used
+        failuresLeft.set(3);
+        Path third = outputPath.resolve("vault/third.png");
+        fetcher.fetch(baseUrl + "/image.png", third);
+        assertThat(third).hasContent("image data");
+        assertThat(fetcher.stale.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRetries() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Tui tui = new Tui();
+        RemoteFetcher fetcher = new RemoteFetcher(tui, null, Duration.ofSeconds(5), 2);
+
+        failuresLeft.set(2);
+        Path target = outputPath.resolve("vault/retried.png");
+        fetcher.fetch(baseUrl + "/image.png", target);
+        assertThat(target).hasContent("image data");
+        assertThat(requests.get()).isEqualTo(3);
+
+        // client errors are not retried, and leave nothing behind
+        Path missing = outputPath.resolve("vault/missing.png");
+        boolean failed = false;
+        try {
+            fetcher.fetch(baseUrl + "/missing.png", missing);
+        } catch (IOException e) {
+            failed = true;
+        }
+        assertThat(failed).isTrue();
+        assertThat(missing).doesNotExist();
+    }
+
+    @Test
+    public void testRetryAfterLongErrorBody() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Tui tui = new Tui();
+        errorBody = "<html>Service Unavailable</html>".repeat(100);
+
+        // the error body is longer than the image: nothing of it is left in the file
+        RemoteFetcher fetcher = new RemoteFetcher(tui, null, Duration.ofSeconds(5), 2);
+        failuresLeft.set(1);
+        Path target = outputPath.resolve("vault/retried.png");
+        assertThat(fetcher.fetch(baseUrl + "/image.png", target)).isEqualTo(10L);
+        assertThat(target).hasContent("image data");
+
+        RemoteFetcher caching = new RemoteFetcher(tui, outputPath.resolve("cache"), Duration.ofSeconds(5), 2);
+        failuresLeft.set(2);
+        Path cached = outputPath.resolve("vault/cached.png");
+        assertThat(caching.fetch(baseUrl + "/image.png", cached)).isEqualTo(10L);
+        assertThat(cached).hasContent("image data");
+        assertThat(requests.get()).isEqualTo(5);
+    }
+}
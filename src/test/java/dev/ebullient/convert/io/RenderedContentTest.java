@@ -0,0 +1,66 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+public class RenderedContentTest {
+    // template comments, as previously removed from the rendered String
+    static final Pattern templateComment = Pattern.compile("%%-- .*? --%%\\n");
+
+    @Test
+    public void testSameAsRenderedString() {
+        List<String> samples = List.of(
+                "",
+                "   \n\t ",
+                "\n\n---\nobsidianUIMode: preview\n---\n# Title\n\ntext\n\n\n",
+                "%%-- comment --%%\n# Title\n",
+                "# Title %%-- inline comment --%%\nnext line\n",
+                "%%-- comment --%%\n%%-- another --%%\n",
+                "a %%-- not closed\nb --%%\n",
+                "a %%-- x --%% not at end of line --%%\nb",
+                "%%--  --%%\n%%-- --%%\nkept",
+                "a %%-- one %%-- two --%%\n",
+                "a %%-- carriage\r return --%%\n",
+                "a %%-- x\r %%-- y --%%\n",
+                "last line %%-- no newline --%%",
+                "café — 🐉 dragon\n  \n",
+                "unpaired \ud83d surrogate \udc09\n");
+
+        RenderedContent content = new RenderedContent();
+        for (String sample : samples) {
+            byte[] expected = templateComment.matcher(sample).replaceAll("").trim()
+                    .getBytes(StandardCharsets.UTF_8);
+            for (int chunk : new int[] { 1, 2, 3, 7, Integer.MAX_VALUE }) {
+                content.reset();
+                for (int i = 0; i < sample.length(); i += chunk) {
+                    content.accept(sample.substring(i, (int) Math.min(sample.length(), (long) i + chunk)));
+                }
+                content.finish();
+                assertThat(Arrays.copyOf(content.bytes(), content.length()))
+                        .as("%s in chunks of %d", sample, chunk)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testLargeContent() {
+        String line = "| 1 | 2 | 3 | é |\n";
+        String sample = line.repeat(100_000) + "%%-- end --%%\n";
+
+        RenderedContent content = new RenderedContent().reset();
+        content.accept(sample);
+        content.finish();
+        assertThat(content.toString()).isEqualTo(sample.substring(0, sample.indexOf("%%--")).trim());
+
+        // large buffers are not kept
+        content.reset();
+        assertThat(content.bytes().length).isEqualTo(RenderedContent.INITIAL_SIZE);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.tools.OrderedRegistry;
+import dev.ebullient.convert.tools.OrderedTasks;
+
+public class RunMetricsTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-metrics");
+
+    @Test
+    public void testReport() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath);
+        Tui tui = new Tui();
+
+        RunMetrics metrics = new RunMetrics(true);
+        try (var phase = metrics.phase("prepare")) {
+            for (int i = 0; i < 40; i++) {
+                metrics.entry("spell", "spell|spell " + i + "|phb", metrics.start() - i * 1000L);
+            }
+            metrics.count("write", metrics.start(), 100);
+            metrics.count("write", metrics.start(), 50);
+        }
+        metrics.write(tui, outputPath);
+
+        JsonNode report = Tui.MAPPER.readTree(outputPath.resolve(RunMetrics.FILE_NAME).toFile());
+        assertThat(report.path("phases").get(0).path("name").asText()).isEqualTo("prepare");
+        assertThat(report.path("phases").get(0).has("wallMs")).isTrue();
+        assertThat(report.path("entries").path("spell").path("count").asInt()).isEqualTo(40);
+        assertThat(report.path("counters").path("write").path("bytes").asInt()).isEqualTo(150);
+        assertThat(report.path("slowest").size()).isEqualTo(RunMetrics.SLOWEST);
+        assertThat(report.path("slowest").get(0).path("key").asText()).isEqualTo("spell|spell 39|phb");
+
+        // disabled: nothing is recorded or written
+        RunMetrics disabled = new RunMetrics(false);
+        disabled.phase("prepare").close();
+        disabled.entry("spell", "spell|fireball|phb", disabled.start());
+        assertThat(disabled.phases.isEmpty()).isTrue();
+        assertThat(disabled.entryTypes.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testRedoneEntryCountedOnce() {
+        Tui tui = new Tui();
+        tui.setParallelism(4);
+        try {
+            RunMetrics metrics = new RunMetrics(true);
+            OrderedRegistry<String, Integer> registry = new OrderedRegistry<>(Objects::equals);
+            OrderedTasks<Integer> tasks = new OrderedTasks<>(tui, "test");
+            for (int i = 0; i < 50; i++) {
+                final int value = i;
+                tasks.submit(() -> {
+                    long start = metrics.start();
+                    sleep(50 - value); // later tasks tend to register first, and are converted again
+                    Integer winner = registry.register("key", () -> value);
+                    OrderedTasks.onRedo(metrics.entry("monster", "monster|monster " + value + "|mm", start));
+                    return winner;
+                });
+            }
+            assertThat(tasks.join()).containsOnly(0);
+
+            assertThat(metrics.entryTypes.get("monster").count.sum()).isEqualTo(50);
+            Set<String> keys = new HashSet<>();
+            metrics.slowest.forEach(e -> assertThat(keys.add(e.key())).isTrue());
+            assertThat(keys).hasSize(RunMetrics.SLOWEST);
+        } finally {
+            tui.setParallelism(1);
+        }
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
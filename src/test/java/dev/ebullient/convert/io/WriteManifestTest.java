@@ -0,0 +1,112 @@
+package dev.ebullient.convert.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.convert.TestUtils;
+
+public class WriteManifestTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-manifest");
+
+    final Tui tui = new Tui();
+    Path a;
+    Path b;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        Files.createDirectories(outputPath.resolve("sub"));
+        a = outputPath.resolve("a.md");
+        b = outputPath.resolve("sub/b.md");
+    }
+
+    @Test
+    public void testUnchangedFilesAreSkipped() throws IOException {
+        WriteManifest first = WriteManifest.read(tui, outputPath);
+        assertThat(write(first, a, "alpha")).isTrue();
+        assertThat(write(first, b, "beta")).isTrue();
+        first.finish(false);
+        assertThat(outputPath.resolve(WriteManifest.FILE_NAME)).exists();
+
+        WriteManifest second = WriteManifest.read(tui, outputPath);
+        assertThat(write(second, a, "alpha")).isFalse();
+        assertThat(write(second, b, "beta, changed")).isTrue();
+        second.finish(false);
+        assertThat(b).hasContent("beta, changed");
+
+        // Edited by hand: write it again
+        Files.writeString(a, "edited alpha");
+        WriteManifest third = WriteManifest.read(tui, outputPath);
+        assertThat(write(third, a, "alpha")).isTrue();
+        assertThat(a).hasContent("alpha");
+    }
+
+    @Test
+    public void testSameSizeEditIsWrittenAgain() throws IOException {
+        WriteManifest first = WriteManifest.read(tui, outputPath);
+        assertThat(write(first, a, "alpha")).isTrue();
+        first.finish(false);
+
+        // Edited by hand (later), without changing the size
+        FileTime modified = Files.getLastModifiedTime(a);
+        Files.writeString(a, "ALPHA");
+        Files.setLastModifiedTime(a, FileTime.fromMillis(modified.toMillis() + 2000));
+        WriteManifest second = WriteManifest.read(tui, outputPath);
+        assertThat(write(second, a, "alpha")).isTrue();
+        assertThat(a).hasContent("alpha");
+    }
+
+    @Test
+    public void testManifestHitDoesNotReadFile() throws IOException {
+        WriteManifest first = WriteManifest.read(tui, outputPath);
+        assertThat(write(first, a, "alpha")).isTrue();
+        first.finish(false);
+
+        // Same size and modification time: the recorded hash is trusted
+        FileTime modified = Files.getLastModifiedTime(a);
+        Files.writeString(a, "ALPHA");
+        Files.setLastModifiedTime(a, modified);
+        WriteManifest second = WriteManifest.read(tui, outputPath);
+        assertThat(write(second, a, "alpha")).isFalse();
+        assertThat(a).hasContent("ALPHA");
+    }
+
+    @Test
+    public void testStaleFiles() throws IOException {
+        WriteManifest first = WriteManifest.read(tui, outputPath);
+        write(first, a, "alpha");
+        write(first, b, "beta");
+        first.finish(false);
+
+        // b is no longer generated: reported, but kept
+        WriteManifest second = WriteManifest.read(tui, outputPath);
+        write(second, a, "alpha");
+        second.finish(false);
+        assertThat(b).exists();
+
+        // still remembered, so it can be pruned later
+        WriteManifest third = WriteManifest.read(tui, outputPath);
+        write(third, a, "alpha");
+        third.finish(true);
+        assertThat(b).doesNotExist();
+        assertThat(b.getParent()).doesNotExist();
+        assertThat(a).exists();
+    }
+
+    static boolean write(WriteManifest manifest, Path target, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (manifest.unchanged(target, bytes)) {
+            return false;
+        }
+        Files.write(target, bytes);
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package dev.ebullient.convert.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.convert.tools.dnd5e.Tools5eIndexType;
+import dev.ebullient.convert.tools.pf2e.Pf2eIndexType;
+
+public class IndexKeyTest {
+
+    @Test
+    public void testParseKey() {
+        IndexKey<Tools5eIndexType> key = Tools5eIndexType.indexKey("spell|fireball|phb");
+        assertThat(key.type()).isEqualTo(Tools5eIndexType.spell);
+        assertThat(key.name()).isEqualTo("fireball");
+        assertThat(key.source()).isEqualTo("phb");
+
+        key = Tools5eIndexType.indexKey("classfeature|arcane recovery|wizard|phb|1|phb");
+        assertThat(key.type()).isEqualTo(Tools5eIndexType.classfeature);
+        assertThat(key.name()).isEqualTo("arcane recovery");
+        assertThat(key.source()).isEqualTo("phb");
+
+        key = Tools5eIndexType.indexKey("book|book-phb");
+        assertThat(key.type()).isEqualTo(Tools5eIndexType.book);
+        assertThat(key.name()).isEqualTo("book-phb");
+        assertThat(key.source()).isNull();
+
+        assertThat(Tools5eIndexType.getTypeFromKey("subrace|dwarf (duergar)|dwarf|phb|mtf"))
+                .isEqualTo(Tools5eIndexType.subrace);
+        assertThat(Tools5eIndexType.getTypeFromKey("")).isNull();
+
+        assertThat(Pf2eIndexType.getTypeFromKey("data|skill")).isEqualTo(Pf2eIndexType.data);
+    }
+
+    @Test
+    public void testInternIndexedKeys() {
+        IndexKey.Interner<Tools5eIndexType> keys = new IndexKey.Interner<>(Tools5eIndexType::fromText);
+        IndexKey<Tools5eIndexType> key = keys.intern("spell|fireball|phb");
+        assertThat(keys.intern("spell|fireball|phb")).isSameAs(key);
+        assertThat(keys.lookup("spell|fireball|phb")).isSameAs(key);
+        assertThat(keys.size()).isEqualTo(1);
+
+        // keys that are only looked up (link text, failed lookups) are not kept
+        IndexKey<Tools5eIndexType> other = keys.lookup("spell|not a spell|phb");
+        assertThat(other.type()).isEqualTo(Tools5eIndexType.spell);
+        assertThat(other.name()).isEqualTo("not a spell");
+        assertThat(keys.lookup("spell|not a spell|phb")).isNotSameAs(other);
+        assertThat(keys.size()).isEqualTo(1);
+
+        // the type of a key that is not interned is read from its type segment
+        assertThat(keys.type("spell|fireball|phb")).isEqualTo(Tools5eIndexType.spell);
+        assertThat(keys.type("creature|goblin|mm")).isEqualTo(Tools5eIndexType.monster);
+        assertThat(keys.type("subclassFeature")).isEqualTo(Tools5eIndexType.subclassFeature);
+        assertThat(keys.type("unknown|x|phb")).isNull();
+        assertThat(keys.size()).isEqualTo(1);
+
+        keys.clear();
+        assertThat(keys.size()).isEqualTo(0);
+        assertThat(keys.lookup("spell|fireball|phb")).isNotSameAs(key);
+    }
+
+    @Test
+    public void testTypeNames() {
+        IndexKey.TypeNames<Integer> names = new IndexKey.TypeNames<>(Map.of("one", 1, "two", 2, "three", 3));
+        assertThat(names.find("one", 0, 3)).isEqualTo(1);
+        assertThat(names.find("TWO|x", 0, 3)).isEqualTo(2);
+        assertThat(names.find("x|three|y", 2, 7)).isEqualTo(3);
+        assertThat(names.find("thre", 0, 4)).isNull();
+        assertThat(names.find("", 0, 0)).isNull();
+    }
+
+    @Test
+    public void testTypeFromText() {
+        // aliases and template names
+        assertThat(Tools5eIndexType.fromText("creature")).isEqualTo(Tools5eIndexType.monster);
+        assertThat(Tools5eIndexType.fromText("creatureFluff")).isEqualTo(Tools5eIndexType.monsterFluff);
+        assertThat(Tools5eIndexType.fromText("legroup")).isEqualTo(Tools5eIndexType.legendaryGroup);
+        assertThat(Tools5eIndexType.fromText("class")).isEqualTo(Tools5eIndexType.classtype);
+        assertThat(Tools5eIndexType.fromText("bastion")).isEqualTo(Tools5eIndexType.facility);
+        assertThat(Tools5eIndexType.fromText("race")).isEqualTo(Tools5eIndexType.race);
+        assertThat(Tools5eIndexType.fromText("SubClassFeature")).isEqualTo(Tools5eIndexType.subclassFeature);
+        assertThat(Tools5eIndexType.fromText("unknown")).isNull();
+
+        assertThat(Pf2eIndexType.fromText("class")).isEqualTo(Pf2eIndexType.classtype);
+        assertThat(Pf2eIndexType.fromText("affliction")).isEqualTo(Pf2eIndexType.affliction);
+        assertThat(Pf2eIndexType.fromText("creatureTemplate")).isEqualTo(Pf2eIndexType.creatureTemplate);
+        assertThat(Pf2eIndexType.fromText("unknown")).isNull();
+    }
+}
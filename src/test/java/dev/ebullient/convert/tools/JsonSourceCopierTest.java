@@ -0,0 +1,187 @@
+package dev.ebullient.convert.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.ebullient.convert.config.CompendiumConfig;
+import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.tools.dnd5e.Tools5eIndexType;
+
+public class JsonSourceCopierTest {
+
+    @Test
+    public void testCopyChainsResolveAsBefore() {
+        Tui tui = new Tui();
+        tui.setParallelism(4);
+        try {
+            // Resolved up front (dependencies first), in parallel
+            Map<String, ObjectNode> resolved = createChains();
+            TestCopier copier = new TestCopier(tui, resolved);
+            List<String> keys = new ArrayList<>(resolved.keySet());
+            Collections.shuffle(keys, new Random(7));
+            copier.resolveCopies(keys, k -> Tools5eIndexType.monster);
+            keys.forEach(k -> copier.handleCopy(Tools5eIndexType.monster, resolved.get(k)));
+
+            // Resolved by handleCopy alone (recursing through each chain)
+            Map<String, ObjectNode> expected = createChains();
+            TestCopier recursive = new TestCopier(tui, expected);
+            expected.values().forEach(n -> recursive.handleCopy(Tools5eIndexType.monster, n));
+
+            assertThat(resolved.keySet()).containsExactlyElementsOf(expected.keySet());
+            for (String key : expected.keySet()) {
+                assertThat(resolved.get(key)).isEqualTo(expected.get(key));
+                assertThat(resolved.get(key).has("_copy")).isFalse();
+            }
+            ObjectNode last = resolved.get("monster|chain 0 - 399|mm");
+            for (int i = 0; i < 400; i++) {
+                assertThat(last.get("f" + i).asInt()).isEqualTo(i);
+            }
+        } finally {
+            tui.setParallelism(1);
+        }
+    }
+
+    @Test
+    public void testCopyCycleIsReported() {
+        PrintStream stderr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        Tui tui = new Tui();
+        try {
+            Map<String, ObjectNode> nodes = new LinkedHashMap<>();
+            add(nodes, "A", "B", 1);
+            add(nodes, "B", "C", 2);
+            add(nodes, "C", "A", 3);
+            add(nodes, "D", "A", 4); // copies from a cycle
+            add(nodes, "Base", null, 5);
+            add(nodes, "E", "Base", 6);
+
+            TestCopier copier = new TestCopier(tui, nodes);
+            List<String> keys = new ArrayList<>(nodes.keySet());
+            copier.resolveCopies(keys, k -> Tools5eIndexType.monster);
+            keys.forEach(k -> copier.handleCopy(Tools5eIndexType.monster, nodes.get(k)));
+            tui.flush();
+
+            // nothing is dropped; copies in (or from) the cycle are left unresolved
+            assertThat(nodes).hasSize(6);
+            for (String name : List.of("a", "b", "c", "d")) {
+                assertThat(nodes.get("monster|" + name + "|mm").has("_copy")).isTrue();
+            }
+            ObjectNode e = nodes.get("monster|e|mm");
+            assertThat(e.has("_copy")).isFalse();
+            assertThat(e.get("f5").asInt()).isEqualTo(5);
+
+            String output = err.toString(StandardCharsets.UTF_8);
+            assertThat(output.split("Copy cycle", -1)).hasSize(2);
+            assertThat(output).contains("monster|a|mm", "monster|b|mm", "monster|c|mm");
+            assertThat(output).contains("(monster|d|mm): Unable to copy from monster|a|mm");
+        } finally {
+            System.setErr(stderr);
+        }
+    }
+
+    /** Independent chains of copies: each copy adds a field to the one it copies */
+    static Map<String, ObjectNode> createChains() {
+        Map<String, ObjectNode> nodes = new LinkedHashMap<>();
+        for (int c = 0; c < 5; c++) {
+            for (int i = 0; i < 400; i++) {
+                add(nodes, "Chain " + c + " - " + i, i == 0 ? null : "Chain " + c + " - " + (i - 1), i);
+            }
+        }
+        return nodes;
+    }
+
+    static void add(Map<String, ObjectNode> nodes, String name, String copyFrom, int value) {
+        ObjectNode node = Tui.MAPPER.createObjectNode()
+                .put("name", name)
+                .put("source", "MM")
+                .put("f" + value, value);
+        if (copyFrom != null) {
+            node.putObject("_copy")
+                    .put("name", copyFrom)
+                    .put("source", "MM");
+        }
+        nodes.put(Tools5eIndexType.monster.createKey(node), node);
+    }
+
+    /** Copies fields that the target does not have */
+    static class TestCopier extends JsonSourceCopier<Tools5eIndexType> {
+        final Tui tui;
+        final Map<String, ObjectNode> nodes;
+
+        TestCopier(Tui tui, Map<String, ObjectNode> nodes) {
+            this.tui = tui;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected JsonNode getOriginNode(String key) {
+            return nodes.get(key);
+        }
+
+        @Override
+        protected boolean mergePreserveKey(Tools5eIndexType type, String key) {
+            return false;
+        }
+
+        @Override
+        protected List<String> getCopyEntryProps() {
+            return List.of();
+        }
+
+        @Override
+        protected JsonNode resolveDynamicVariable(String originKey, JsonNode value, JsonNode target,
+                TemplateVariable variableMode, String[] params) {
+            return value;
+        }
+
+        @Override
+        protected JsonNode mergeNodes(Tools5eIndexType type, String originKey, JsonNode copyFrom, ObjectNode target) {
+            target.remove("_copy");
+            for (var e : copyFrom.properties()) {
+                if (!e.getKey().equals("_copy") && !target.has(e.getKey())) {
+                    target.set(e.getKey(), e.getValue().deepCopy());
+                }
+            }
+            return target;
+        }
+
+        @Override
+        public void appendToText(List<String> inner, JsonNode target, String heading) {
+        }
+
+        @Override
+        public Tui tui() {
+            return tui;
+        }
+
+        @Override
+        public CompendiumConfig cfg() {
+            return null;
+        }
+
+        @Override
+        public String linkify(Tools5eIndexType type, String s) {
+            return s;
+        }
+
+        @Override
+        public String replaceText(String s) {
+            return s;
+        }
+    }
+}
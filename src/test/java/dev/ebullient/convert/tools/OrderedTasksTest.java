@@ -0,0 +1,208 @@
+package dev.ebullient.convert.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.convert.io.Tui;
+
+public class OrderedTasksTest {
+    final Tui tui = new Tui();
+
+    @AfterEach
+    public void after() {
+        tui.setParallelism(1);
+    }
+
+    @Test
+    public void testFirstRegistrationWins() {
+        tui.setParallelism(4);
+        OrderedRegistry<Integer, Integer> registry = new OrderedRegistry<>(Objects::equals);
+        OrderedTasks<Integer> tasks = new OrderedTasks<>(tui, "test");
+
+        for (int i = 0; i < 200; i++) {
+            final int value = i;
+            tasks.submit(() -> {
+                pause();
+                // Serially, the first task with a given key would win
+                return registry.register(value % 7, () -> value);
+            });
+        }
+
+        List<Integer> results = tasks.join();
+        assertThat(results).containsExactlyElementsOf(
+                IntStream.range(0, 200).map(i -> i % 7).boxed().toList());
+    }
+
+    @Test
+    public void testInOrderAndInline() {
+        tui.setParallelism(4);
+        List<Integer> shared = new ArrayList<>();
+        OrderedTasks<Integer> tasks = new OrderedTasks<>(tui, "test");
+
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            if (i % 10 == 0) {
+                tasks.runInline(() -> {
+                    shared.add(value);
+                    return value;
+                });
+            } else {
+                tasks.submit(() -> {
+                    pause();
+                    OrderedTasks.inOrder();
+                    shared.add(value);
+                    return value;
+                });
+            }
+        }
+
+        List<Integer> results = tasks.join();
+        List<Integer> expected = IntStream.range(0, 100).boxed().toList();
+        assertThat(results).containsExactlyElementsOf(expected);
+        assertThat(shared).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testRedoRevertsSideEffects() {
+        tui.setParallelism(4);
+        OrderedRegistry<String, Integer> registry = new OrderedRegistry<>(Objects::equals);
+        List<Integer> effects = new CopyOnWriteArrayList<>();
+        OrderedTasks<Integer> tasks = new OrderedTasks<>(tui, "test");
+
+        for (int i = 0; i < 50; i++) {
+            final int value = i;
+            tasks.submit(() -> {
+                // later tasks tend to get here first
+                sleep(50 - value);
+                Integer winner = registry.register("key", () -> value);
+                effects.add(winner);
+                OrderedTasks.onRedo(() -> effects.remove(winner));
+                return winner;
+            });
+        }
+
+        assertThat(tasks.join()).containsOnly(0);
+        assertThat(effects).hasSize(50).containsOnly(0);
+    }
+
+    @Test
+    public void testRedoDiscardsHeldOutput() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        Tui output;
+        try {
+            System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+            output = new Tui();
+        } finally {
+            System.setOut(stdout);
+        }
+        output.setParallelism(4);
+
+        OrderedRegistry<String, Integer> registry = new OrderedRegistry<>(Objects::equals);
+        Set<String> reported = ConcurrentHashMap.newKeySet();
+        OrderedTasks<Integer> tasks = new OrderedTasks<>(output, "test");
+
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            tasks.submit(() -> {
+                sleep(20 - value);
+                Integer winner = registry.register("key", () -> value);
+                // report once, even if the reporting task is converted again
+                if (reported.add("unresolved")) {
+                    OrderedTasks.onRedo(() -> reported.remove("unresolved"));
+                    output.warnf("unresolved");
+                }
+                output.warnf("task %d uses %d", value, winner);
+                return winner;
+            });
+        }
+        assertThat(tasks.join()).containsOnly(0);
+
+        List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.stream().filter(x -> x.contains("unresolved")).toList()).hasSize(1);
+        assertThat(lines.stream().filter(x -> x.contains(" uses ")).map(x -> x.replaceAll(".*task", "task")).toList())
+                .containsExactlyElementsOf(IntStream.range(0, 20).mapToObj(i -> "task " + i + " uses 0").toList());
+    }
+
+    @Test
+    public void testRedoRegistersAgain() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        Tui output;
+        try {
+            System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+            output = new Tui();
+        } finally {
+            System.setOut(stdout);
+        }
+        output.setParallelism(4);
+
+        OrderedRegistry<String, Integer> registry = new OrderedRegistry<>(Objects::equals);
+        OrderedRegistry<String, Boolean> reports = new OrderedRegistry<>((a, b) -> false);
+        CountDownLatch later = new CountDownLatch(3);
+        AtomicInteger runs = new AtomicInteger();
+        OrderedTasks<Integer> tasks = new OrderedTasks<>(output, "test");
+
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            tasks.submit(() -> {
+                runs.incrementAndGet();
+                if (value == 0) {
+                    // let tasks 1-3 register first
+                    await(later);
+                }
+                // each task reports its own key: a task that is converted again must report it again
+                reports.register("report " + value, () -> {
+                    output.warnf("report %d", value);
+                    return Boolean.TRUE;
+                });
+                Integer winner = registry.register("key", () -> value);
+                later.countDown();
+                return winner;
+            });
+        }
+        assertThat(tasks.join()).containsOnly(0);
+        assertThat(runs.get()).isGreaterThan(20);
+
+        List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.stream().filter(x -> x.contains("report ")).map(x -> x.replaceAll(".*report", "report")).toList())
+                .containsExactlyElementsOf(IntStream.range(0, 20).mapToObj(i -> "report " + i).toList());
+    }
+
+    static void pause() {
+        sleep(ThreadLocalRandom.current().nextInt(3));
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
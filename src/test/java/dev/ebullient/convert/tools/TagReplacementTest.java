@@ -0,0 +1,88 @@
+package dev.ebullient.convert.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TagReplacementTest {
+
+    @Test
+    public void testPrefix() {
+        assertThat(TagReplacement.of("\\{@dc ([^}]+)}", "DC $1").prefix()).isEqualTo("{@dc");
+        assertThat(TagReplacement.of("\\{@spell\\s*}", "").prefix()).isEqualTo("{@spell");
+        assertThat(TagReplacement.of("\\{@(?:dice|damage) ([^}|]+)}", "$1").prefix()).isEqualTo("{@");
+
+        assertThat(TagReplacement.containsTag("{@b bold} and {@spell fireball}", Set.of("spell"))).isTrue();
+        assertThat(TagReplacement.containsTag("{@spells} and {@spell}", Set.of("spell"))).isFalse();
+    }
+
+    @Test
+    public void testPf2eTagReplacements() {
+        // The replacement table must give the same result as the equivalent replaceAll chain
+        List<TagReplacement> table = dev.ebullient.convert.tools.pf2e.JsonTextReplacement.simpleTagReplacements;
+        for (String text : corpus(table)) {
+            assertThat(TagReplacement.applyAll(table, text))
+                    .describedAs(text)
+                    .isEqualTo(applyChain(PF2E_REGEX_CHAIN, text));
+        }
+    }
+
+    static String applyChain(String[][] chain, String text) {
+        for (String[] rule : chain) {
+            text = text.replaceAll(rule[0], rule[1]);
+        }
+        return text;
+    }
+
+    static List<String> corpus(List<TagReplacement> table) {
+        List<String> tags = new ArrayList<>();
+        table.forEach(r -> tags.add(r.prefix().substring(2)));
+        tags.addAll(List.of("adventure", "bolder", "dice", "hit", "spells", "s2", "x"));
+
+        List<String> corpus = new ArrayList<>();
+        for (String tag : tags) {
+            for (String args : List.of("", " ", "\t", " a", " a b", " a|b", " a|b|c", " |b", " a||c", " a|b|c|d")) {
+                String token = "{@" + tag + args + "}";
+                corpus.add(token);
+                corpus.add("before " + token + " after");
+                corpus.add(token + "{@" + tag + "} {@b x}");
+            }
+        }
+        return corpus;
+    }
+
+    static final String[][] PF2E_REGEX_CHAIN = {
+            { "\\{@link ([^}|]+)\\|([^}]+)}", "$1 ($2)" },
+            { "\\{@pf2etools ([^}|]+)\\|?[^}]*}", "$1" },
+            { "\\{@Pf2eTools ([^}|]+)\\|?[^}]*}", "$1" },
+            { "\\{@footnote ([^|}]+)\\|([^|}]+)\\|([^}]*)}", "$1 ^[$2, _$3_]" },
+            { "\\{@footnote ([^|}]+)\\|([^}]*)}", "$1 ^[$2]" },
+            { "\\{@reward ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@dc ([^}]+)}", "DC $1" },
+            { "\\{@flatDC ([^}]+)}", "$1" },
+            { "\\{@recharge ([^}]+?)}", "(Recharge $1-6)" },
+            { "\\{@recharge}", "(Recharge 6)" },
+            { "\\{@filter ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@cult ([^|}]+)\\|([^|}]+)\\|[^|}]*}", "$2" },
+            { "\\{@cult ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@language ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@book ([^}|]+)\\|?[^}]*}", "\"$1\"" },
+            { "\\{@h}", "Hit: " },
+            { "\\{@c ([^}]+?)}", "$1" },
+            { "\\{@center ([^}]+?)}", "$1" },
+            { "\\{@s ([^}]+?)}", "$1" },
+            { "\\{@strike ([^}]+?)}", "$1" },
+            { "\\{@n ([^}]+?)}", "$1" },
+            { "\\{@b ([^}]+?)}", "**$1**" },
+            { "\\{@B ([^}]+?)}", "**$1**" },
+            { "\\{@bold ([^}]+?)}", "**$1**" },
+            { "\\{@i ([^}]+?)}", "_$1_" },
+            { "\\{@italic ([^}]+)}", "_$1_" },
+            { "\\{@indentFirst ([^}]+?)}", "$1" },
+            { "\\{@indentSubsequent ([^}]+?)}", "$1" }
+    };
+}
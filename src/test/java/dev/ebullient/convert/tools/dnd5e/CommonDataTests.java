@@ -3,11 +3,14 @@ package dev.ebullient.convert.tools.dnd5e;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -25,6 +28,8 @@ import dev.ebullient.convert.io.Tui;
 import io.quarkus.arc.Arc;
 
 public class CommonDataTests {
+    static final Path LOG_FILE = Path.of("ttrpg-convert.out.txt");
+
     protected final Tui tui;
     protected final Configurator configurator;
     protected final Templates templates;
@@ -577,6 +582,78 @@ public class CommonDataTests {
         }
     }
 
+    public void testConcurrentConversion(Path outputPath) throws IOException {
+        if (dataPresent) {
+            List<Tools5eIndexType> types = List.of(
+                    Tools5eIndexType.background,
+                    Tools5eIndexType.feat,
+                    Tools5eIndexType.item,
+                    Tools5eIndexType.itemGroup,
+                    Tools5eIndexType.monster,
+                    Tools5eIndexType.race,
+                    Tools5eIndexType.spell);
+
+            Path serial = outputPath.resolve("concurrent-1");
+            Path parallel = outputPath.resolve("concurrent-4");
+            Map<Path, List<String>> logs = new HashMap<>();
+            try {
+                // parallel first: nothing has been resolved (or reported) yet
+                for (Path p : List.of(parallel, serial)) {
+                    TestUtils.deleteDir(p);
+                    tui.setOutputPath(p);
+                    tui.setParallelism(p == serial ? 1 : 4);
+                    index.resetConverted();
+
+                    tui.flush();
+                    long logStart = Files.exists(LOG_FILE) ? Files.size(LOG_FILE) : 0;
+
+                    MarkdownWriter writer = new MarkdownWriter(p, templates, tui);
+                    index.markdownConverter(writer)
+                            .writeFiles(types);
+
+                    tui.flush();
+                    logs.put(p, logLines(logStart, p));
+                }
+            } finally {
+                tui.setParallelism(1);
+            }
+
+            List<Path> expected = relativeFiles(serial);
+            assertThat(expected).isNotEmpty();
+            assertThat(relativeFiles(parallel)).containsExactlyElementsOf(expected);
+            for (Path p : expected) {
+                assertThat(Files.mismatch(serial.resolve(p), parallel.resolve(p)))
+                        .describedAs("Concurrent conversion should produce the same content for " + p)
+                        .isEqualTo(-1L);
+            }
+            assertThat(logs.get(parallel))
+                    .describedAs("Concurrent conversion should log the same messages")
+                    .containsExactlyElementsOf(logs.get(serial));
+        }
+    }
+
+    /** Log lines written since the given offset (without stack frames, which depend on the thread) */
+    private static List<String> logLines(long start, Path outputPath) throws IOException {
+        if (!Files.exists(LOG_FILE)) {
+            return List.of();
+        }
+        byte[] bytes = Files.readAllBytes(LOG_FILE);
+        String text = new String(bytes, (int) start, bytes.length - (int) start, StandardCharsets.UTF_8);
+        return text.lines()
+                .filter(l -> !l.startsWith("\tat "))
+                .map(l -> l.replace(outputPath.toString(), "<output>"))
+                .toList();
+    }
+
+    private static List<Path> relativeFiles(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(dir::relativize)
+                    .sorted()
+                    .toList();
+        }
+    }
+
     public Path compendiumFilePath() {
         return index.compendiumFilePath();
     }
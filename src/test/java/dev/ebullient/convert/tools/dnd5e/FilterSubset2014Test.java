@@ -49,6 +49,11 @@ public class FilterSubset2014Test {
         commonTests.afterEach();
     }
 
+    @Test
+    public void testConcurrentConversion() throws Exception {
+        commonTests.testConcurrentConversion(outputPath);
+    }
+
     @Test
     public void testKeyIndex() throws Exception {
         commonTests.testKeyIndex(outputPath);
@@ -0,0 +1,108 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.ebullient.convert.TestUtils;
+import dev.ebullient.convert.config.ConfiguratorUtil;
+import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.tools.ToolsIndex.TtrpgValue;
+import dev.ebullient.convert.tools.dnd5e.HomebrewIndex.HomebrewMetaTypes;
+
+public class HomebrewImportTest {
+    final static Path outputPath = TestUtils.PROJECT_PATH.resolve("target/test-homebrew-import");
+
+    final Tui tui = new Tui();
+
+    @Test
+    public void testParallelImport() throws IOException {
+        TestUtils.deleteDir(outputPath);
+        List<Path> brews = homebrewFiles();
+
+        Map<String, String> serial = importBrew(brews, 1);
+        Map<String, String> parallel = importBrew(brews, 4);
+
+        assertThat(serial.get("crossReferences")).contains("psionics");
+        assertThat(serial.get("optionalFeatureTypes")).contains("Aptitude");
+        for (String name : serial.keySet()) {
+            assertThat(parallel.get(name))
+                    .describedAs("Homebrew imported with several workers should have the same " + name)
+                    .isEqualTo(serial.get(name));
+        }
+        for (String index : List.of("all-index.json", "src-index.json")) {
+            assertThat(Files.mismatch(outputPath.resolve("jobs-1").resolve(index),
+                    outputPath.resolve("jobs-4").resolve(index)))
+                    .describedAs("Homebrew imported with several workers should write the same " + index)
+                    .isEqualTo(-1L);
+        }
+    }
+
+    /** Homebrew used by the live data tests (if present), and the homebrew kept with the tests */
+    static List<Path> homebrewFiles() throws IOException {
+        JsonNode config = Tui.MAPPER.readTree(TestUtils.TEST_RESOURCES.resolve("5e/sources-homebrew.json").toFile());
+        List<Path> brews = new ArrayList<>();
+        for (JsonNode x : config.at("/sources/homebrew")) {
+            Path brew = TestUtils.PROJECT_PATH.resolve(x.asText());
+            if (Files.exists(brew)) {
+                brews.add(brew);
+            }
+        }
+        return brews;
+    }
+
+    Map<String, String> importBrew(List<Path> brews, int jobs) throws IOException {
+        tui.setParallelism(jobs);
+        Tools5eIndex index = new Tools5eIndex(ConfiguratorUtil.createNewConfig(tui));
+        try {
+            List<String> sources = new ArrayList<>();
+            for (Path brew : brews) {
+                JsonNode node = Tui.MAPPER.readTree(brew.toFile());
+                node.at("/_meta/sources").forEach(s -> sources.add(s.get("json").asText()));
+                index.importTree(brew.getFileName().toString(), node);
+            }
+            index.prepare();
+
+            // index keys, aliases, and optional features (--index)
+            Path output = outputPath.resolve("jobs-" + jobs);
+            Files.createDirectories(output);
+            index.writeFullIndex(output.resolve("all-index.json"));
+            index.writeFilteredIndex(output.resolve("src-index.json"));
+
+            Map<String, String> crossReferences = new TreeMap<>();
+            Map<String, String> optionalFeatureTypes = new TreeMap<>();
+            for (String source : sources) {
+                HomebrewMetaTypes meta = index.homebrewIndex.getHomebrewMetaTypes(source);
+                crossReferences.put(source, String.join("\n",
+                        describe(meta.itemTypes), describe(meta.itemProperties), describe(meta.itemMastery),
+                        new TreeMap<>(meta.skillOrAbility).keySet().toString()));
+                optionalFeatureTypes.put(source, new TreeMap<>(meta.optionalFeatureTypes).toString());
+            }
+
+            Map<String, String> result = new TreeMap<>();
+            result.put("crossReferences", crossReferences.toString());
+            result.put("optionalFeatureTypes", optionalFeatureTypes
+                    + "\n" + new TreeMap<>(index.optFeatureIndex.getMap()).keySet());
+            return result;
+        } finally {
+            tui.setParallelism(1);
+            index.cleanup();
+        }
+    }
+
+    static String describe(Map<String, JsonNode> references) {
+        Map<String, String> keys = new TreeMap<>();
+        references.forEach((k, v) -> keys.put(k, TtrpgValue.indexKey.getTextOrEmpty(v)));
+        return keys.toString();
+    }
+}
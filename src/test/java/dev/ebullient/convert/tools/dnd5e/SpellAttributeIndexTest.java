@@ -0,0 +1,161 @@
+package dev.ebullient.convert.tools.dnd5e;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.ebullient.convert.config.CompendiumConfig;
+import dev.ebullient.convert.config.CompendiumConfig.Configurator;
+import dev.ebullient.convert.config.ConfiguratorUtil;
+import dev.ebullient.convert.io.Tui;
+import dev.ebullient.convert.tools.dnd5e.SpellIndex.FilterConditions;
+
+public class SpellAttributeIndexTest {
+    static final String[] SOURCES = { "PHB", "XGE", "TCE" };
+    static final String[] SCHOOLS = { "A", "C", "D", "E", "V", "I", "N", "T" };
+    static final String[] CLASSES = { "wizard", "cleric", "druid", "bard" };
+    static final String[] ATTACKS = { "M", "R" };
+
+    Tui tui = new Tui();
+    CompendiumConfig config = ConfiguratorUtil.createNewConfig(tui);
+    Tools5eIndex index = new Tools5eIndex(config);
+
+    @Test
+    public void testFiltersMatchLinearScan() {
+        Configurator configurator = new Configurator(config);
+        configurator.allowSource("phb");
+        configurator.allowSource("xge");
+        index.prepare();
+
+        Random random = new Random(42);
+        List<SpellEntry> spells = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            spells.add(createSpell(i, random));
+        }
+        List<FilterConditions> filters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            filters.add(createFilter(random));
+        }
+
+        // Spells are added in two batches: the second after filters have been resolved
+        SpellAttributeIndex attributes = new SpellAttributeIndex(spells.subList(0, 150));
+        for (int i = 0; i < filters.size(); i++) {
+            assertMatches(attributes, "f" + i, filters.get(i), spells.subList(0, 150));
+        }
+        for (SpellEntry spell : spells.subList(150, 200)) {
+            attributes.add(spell);
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            assertMatches(attributes, "f" + i, filters.get(i), spells);
+        }
+        // Spells gain classes after filters have been resolved
+        for (SpellEntry spell : spells.subList(0, 20)) {
+            spell.classes.add("warlock");
+            attributes.updateClasses(spell);
+        }
+        FilterConditions warlock = new FilterConditions();
+        warlock.setClasses(new String[] { "Warlock" });
+        filters.add(warlock);
+        for (int i = 0; i < filters.size(); i++) {
+            assertMatches(attributes, "f" + i, filters.get(i), spells);
+        }
+        assertThat(matches(attributes, "f" + (filters.size() - 1), warlock)).hasSize(20);
+    }
+
+    void assertMatches(SpellAttributeIndex attributes, String filterText, FilterConditions filter,
+            List<SpellEntry> spells) {
+        List<String> expected = spells.stream()
+                .filter(s -> linearMatch(s, filter))
+                .map(s -> s.spellKey)
+                .toList();
+        assertThat(matches(attributes, filterText, filter)).containsExactlyElementsOf(expected);
+    }
+
+    List<String> matches(SpellAttributeIndex attributes, String filterText, FilterConditions filter) {
+        List<String> result = new ArrayList<>();
+        attributes.forEachMatch(filterText, filter, s -> result.add(s.spellKey));
+        return result;
+    }
+
+    /** Each condition, checked against each spell */
+    boolean linearMatch(SpellEntry spell, FilterConditions filter) {
+        return (filter.classes.isEmpty() || filter.classes.stream().anyMatch(spell.classes::contains))
+                && (filter.levels.isEmpty() || filter.levels.contains(spell.level))
+                && (filter.schools.isEmpty() || filter.schools.contains(spell.school.code()))
+                && (filter.sources.isEmpty() || filter.sources.stream()
+                        .anyMatch(x -> Tools5eSources.findSources(spell.spellNode).includedBy(Set.of(x))))
+                && (filter.spellAttack.isEmpty() || spell.spellAttack.stream().anyMatch(filter.spellAttack::contains))
+                && (!filter.componentsMisc.contains("ritual") || spell.ritual);
+    }
+
+    SpellEntry createSpell(int i, Random random) {
+        ObjectNode node = Tui.MAPPER.createObjectNode()
+                .put("name", "Spell " + i)
+                .put("source", pick(SOURCES, random))
+                .put("level", random.nextInt(10))
+                .put("school", pick(SCHOOLS, random));
+        if (random.nextInt(4) == 0) {
+            node.putObject("meta").put("ritual", true);
+        }
+        if (random.nextInt(3) == 0) {
+            node.putObject("spellAttack").put(pick(ATTACKS, random), true);
+        }
+        String key = Tools5eIndexType.spell.createKey(node);
+        Tools5eSources.constructSources(key, node);
+
+        SpellEntry spell = new SpellEntry(key, node);
+        for (String c : CLASSES) {
+            if (random.nextInt(3) == 0) {
+                spell.classes.add(c);
+            }
+        }
+        return spell;
+    }
+
+    FilterConditions createFilter(Random random) {
+        FilterConditions filter = new FilterConditions();
+        if (random.nextBoolean()) {
+            filter.setClasses(some(CLASSES, random));
+        }
+        if (random.nextBoolean()) {
+            filter.setLevels(some(new String[] { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9" }, random));
+        }
+        if (random.nextInt(3) == 0) {
+            filter.setSchools(some(SCHOOLS, random));
+        }
+        if (random.nextInt(3) == 0) {
+            filter.setSources(new String[] { pick(SOURCES, random).toLowerCase() });
+        }
+        if (random.nextInt(4) == 0) {
+            filter.setSpellAttack(some(ATTACKS, random));
+        }
+        if (random.nextInt(4) == 0) {
+            filter.setComponentsMisc(new String[] { "Ritual" });
+        }
+        return filter;
+    }
+
+    static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static String[] some(String[] values, Random random) {
+        List<String> result = new ArrayList<>();
+        for (String v : values) {
+            if (random.nextBoolean()) {
+                result.add(v);
+            }
+        }
+        if (result.isEmpty()) {
+            result.add(pick(values, random));
+        }
+        return result.toArray(String[]::new);
+    }
+}
@@ -2,6 +2,7 @@ package dev.ebullient.convert.tools.dnd5e;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 
@@ -14,6 +15,7 @@ import dev.ebullient.convert.config.CompendiumConfig.DiceRoller;
 import dev.ebullient.convert.config.ConfiguratorUtil;
 import dev.ebullient.convert.io.Tui;
 import dev.ebullient.convert.tools.JsonSourceCopier;
+import dev.ebullient.convert.tools.TagReplacement;
 
 public class TextReplacementTest implements JsonSource {
 
@@ -343,6 +345,109 @@ public class TextReplacementTest implements JsonSource {
         assertThat(result).isEqualTo("Bonus equals your spell attack modifier");
     }
 
+    @Test
+    public void testTagReplacements() {
+        // The replacement table must give the same result as the equivalent replaceAll chain
+        List<String> tags = new ArrayList<>(JsonTextReplacement.linkifyTags);
+        JsonTextReplacement.simpleTagReplacements.forEach(r -> tags.add(r.prefix().substring(2)));
+        tags.addAll(List.of("adventure", "bolder", "dice", "hit", "spells", "s2", "x"));
+
+        List<String> corpus = new ArrayList<>();
+        for (String tag : tags) {
+            for (String args : List.of("", " ", "\t", " a", " a b", " a|b", " a|b|c", " |b", " a||c", " a|b|c|d")) {
+                String token = "{@" + tag + args + "}";
+                corpus.add(token);
+                corpus.add("before " + token + " after");
+                corpus.add(token + "{@" + tag + "} {@b x}");
+            }
+        }
+
+        for (String text : corpus) {
+            String expected = text;
+            for (String[] rule : REGEX_CHAIN) {
+                expected = expected.replaceAll(rule[0], rule[1]);
+            }
+            assertThat(TagReplacement.applyAll(JsonTextReplacement.simpleTagReplacements, text))
+                    .describedAs(text)
+                    .isEqualTo(expected);
+            if (JsonTextReplacement.linkifyPattern.matcher(text).find()) {
+                assertThat(TagReplacement.containsTag(text, JsonTextReplacement.linkifyTags))
+                        .describedAs(text)
+                        .isTrue();
+            }
+        }
+
+        assertThat(this.replaceText("{@dc 15} {@b bold}, {@i {@recharge 5}}"))
+                .isEqualTo("DC 15 **bold**, *(Recharge 5-6)*");
+    }
+
+    public static final String[][] REGEX_CHAIN = {
+            { "\\{@link ([^}|]+)\\|([^}]+)}", "$1 ($2)" },
+            { "\\{@link ([^}|]+)}", "$1" },
+            { "\\{@5etools ([^}|]+)\\|?[^}]*}", "$1" },
+            { "\\{@5etoolsAudio ([^}|]+)\\|?[^}]*}", "$1" },
+            { "\\{@loader ([^}|]+)\\|([^}]+)}", "$1 ^[$2]" },
+            { "\\{@area ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@vehupgrade ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@dc ([^}]+)}", "DC $1" },
+            { "\\{@recharge ([^}]+?)}", "(Recharge $1-6)" },
+            { "\\{@recharge}", "(Recharge 6)" },
+            { "\\{@coinflip ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@coinflip}", "flip a coin" },
+            { "\\{@filter ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@boon ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2" },
+            { "\\{@boon ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@boon ([^|}]+)}", "$1" },
+            { "\\{@charoption ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2" },
+            { "\\{@charoption ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@charoption ([^|}]+)}", "$1" },
+            { "\\{@crochet ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2" },
+            { "\\{@crochet ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@crochet ([^}|]+)}", "$1" },
+            { "\\{@recipe ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2" },
+            { "\\{@recipe ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@recipe ([^|}]+)}", "$1" },
+            { "\\{@cult ([^|}]+)\\|[^|}]+\\|([^|}]*)}", "$2" },
+            { "\\{@cult ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@cult ([^|}]+)}", "$1" },
+            { "\\{@language ([^|}]+)\\|[^|}]*\\|([^|}]*)}", "$2" },
+            { "\\{@language ([^|}]+)\\|[^}]*}", "$1" },
+            { "\\{@language ([^|}]+)}", "$1" },
+            { "\\{@book ([^}|]+)\\|?[^}]*}", "\"$1\"" },
+            { "\\{@h}", "*Hit:* " },
+            { "\\{@m}", "*Miss:* " },
+            { "\\{@hom}", "*Hit or Miss:* " },
+            { "\\{@actSaveSuccess}", "*Success:*" },
+            { "\\{@actSaveSuccessOrFail}", "*Failure or Success:*" },
+            { "\\{@actResponse}", "Response:" },
+            { "\\{@actTrigger}", "Trigger:" },
+            { "\\{@dcYourSpellSave}", "your spell save DC" },
+            { "\\{@spell\\s*}", "" },
+            { "\\{@color ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@style ([^|}]+)\\|?[^}]*}", "$1" },
+            { "\\{@b ([^}]+?)}", "**$1**" },
+            { "\\{@bold ([^}]+?)}", "**$1**" },
+            { "\\{@c ([^}]+?)}", "$1" },
+            { "\\{@center ([^}]+?)}", "$1" },
+            { "\\{@i ([^}]+?)}", "*$1*" },
+            { "\\{@italic ([^}]+)}", "*$1*" },
+            { "\\{@s ([^}]+?)}", "~~$1~~" },
+            { "\\{@strike ([^}]+)}", "~~$1~~" },
+            { "\\{@u ([^}]+?)}", "_$1_" },
+            { "\\{@underline ([^}]+?)}", "_$1_" },
+            { "\\{@comic ([^}]+?)}", "$1" },
+            { "\\{@comicH1 ([^}]+?)}", "$1" },
+            { "\\{@comicH2 ([^}]+?)}", "$1" },
+            { "\\{@comicH3 ([^}]+?)}", "$1" },
+            { "\\{@comicH4 ([^}]+?)}", "$1" },
+            { "\\{@comicNote ([^}]+?)}", "$1" },
+            { "\\{@highlight ([^}]+?)}", "==$1==" },
+            { "\\{@code ([^}]+?)}", "`$1`" },
+            { "\\{@kbd ([^}]+?)}", "`$1`" },
+            { "\\{@b}", " " },
+            { "\\{@i}", " " }
+    };
+
     @Override
     public Tools5eIndex index() {
         return index;